@@ -1,5 +1,6 @@
 package ch.epfl.chacun;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -23,6 +24,192 @@ public final class ActionEncoder {
     public record StateAction(GameState gameState, String action) {}
 
     private final static int ENCODED_VALUE = 0b11111;
+    // nombre de bits d'un chiffre en base32, et taille de l'en-tête d'un flot d'actions compacté
+    private final static int DIGIT_BITS = 5;
+    private final static int PACKED_HEADER_BYTES = 2 * Integer.BYTES;
+
+    /**
+     * Compacte les actions données, encodées en base32, en un flot binaire : un en-tête formé du nombre d'actions et
+     * du nombre de bits qu'elles occupent, suivi des 5 bits de chaque chiffre de chaque action, de poids fort en
+     * premier et sans séparateur, le dernier octet étant complété par des zéros.
+     * <p>
+     * La largeur de chaque action n'étant pas enregistrée, elle est déduite, au décodage, de l'action suivante de
+     * l'état auquel elle s'applique : les actions doivent donc être celles produites par cette classe, c.-à-d. deux
+     * chiffres par pose de tuile et un par occupation ou reprise de pion.
+     *
+     * @param actions Les actions encodées en base32.
+     * @return Le tampon contenant le flot compacté, prêt à être lu.
+     * @throws IllegalArgumentException si une action n'est pas formée d'un ou deux chiffres en base32.
+     */
+    public static ByteBuffer pack(List<String> actions) {
+        int bitCount = 0;
+        for (String action : actions) {
+            Preconditions.checkArgument(!action.isEmpty() && action.length() <= 2);
+            bitCount += action.length() * DIGIT_BITS;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(PACKED_HEADER_BYTES + (bitCount + 7) / 8);
+        buffer.putInt(actions.size()).putInt(bitCount);
+        // bits en attente d'être écrits, alignés à droite
+        int pending = 0;
+        int pendingCount = 0;
+        for (String action : actions) {
+            for (int i = 0; i < action.length(); i++) {
+                int digit = Base32.digitValue(action.charAt(i));
+                Preconditions.checkArgument(digit >= 0);
+                pending = pending << DIGIT_BITS | digit;
+                pendingCount += DIGIT_BITS;
+                if (pendingCount >= 8) {
+                    pendingCount -= 8;
+                    buffer.put((byte) (pending >>> pendingCount));
+                }
+            }
+        }
+        if (pendingCount > 0) buffer.put((byte) (pending << 8 - pendingCount));
+        return buffer.flip();
+    }
+
+    /**
+     * Lecteur d'un flot d'actions compacté par {@link #pack(List)}, qui décode et applique les actions une à une,
+     * sans jamais construire leur représentation textuelle. Le flot peut notamment être lu directement depuis un
+     * fichier projeté en mémoire.
+     */
+    public static final class PackedReader {
+        private final ByteBuffer buffer;
+        private final int actionCount;
+        private int remainingBits;
+        private int readCount;
+        // bits lus mais pas encore consommés, alignés à droite
+        private int pending;
+        private int pendingCount;
+
+        /**
+         * Construit un lecteur du flot d'actions compacté contenu dans le tampon donné, de sa position à sa limite ;
+         * le tampon lui-même n'est pas modifié.
+         *
+         * @param buffer Le tampon.
+         * @throws IllegalArgumentException si l'en-tête du flot est invalide ou ne correspond pas à la taille du tampon.
+         */
+        public PackedReader(ByteBuffer buffer) {
+            this.buffer = buffer.duplicate();
+            Preconditions.checkArgument(this.buffer.remaining() >= PACKED_HEADER_BYTES);
+            actionCount = this.buffer.getInt();
+            remainingBits = this.buffer.getInt();
+            Preconditions.checkArgument(actionCount >= 0 && remainingBits >= actionCount * DIGIT_BITS
+                    && remainingBits <= 2L * actionCount * DIGIT_BITS
+                    && (remainingBits + 7) / 8 == this.buffer.remaining());
+        }
+
+        /**
+         * Retourne le nombre d'actions du flot.
+         *
+         * @return Le nombre d'actions.
+         */
+        public int actionCount() {
+            return actionCount;
+        }
+
+        /**
+         * Retourne vrai si et seulement si des actions du flot restent à appliquer.
+         *
+         * @return Vrai s'il reste des actions.
+         */
+        public boolean hasNext() {
+            return readCount < actionCount;
+        }
+
+        /**
+         * Décode l'action suivante du flot, dont la largeur est déterminée par l'action suivante de l'état donné, et
+         * l'applique à cet état.
+         *
+         * @param gameState L'état de jeu auquel l'action s'applique.
+         * @return L'état résultant de l'application de l'action, ou null si elle est invalide.
+         * @throws NoSuchElementException s'il ne reste aucune action dans le flot.
+         */
+        public GameState applyNext(GameState gameState) {
+            if (!hasNext()) throw new NoSuchElementException();
+            readCount += 1;
+            int digitCount = gameState.nextAction() == GameState.Action.PLACE_TILE ? 2 : 1;
+            if (digitCount * DIGIT_BITS > remainingBits) return null;
+            int value = 0;
+            for (int i = 0; i < digitCount; i++) {
+                if (pendingCount < DIGIT_BITS) {
+                    pending = pending << 8 | Byte.toUnsignedInt(buffer.get());
+                    pendingCount += 8;
+                }
+                pendingCount -= DIGIT_BITS;
+                value = value << DIGIT_BITS | pending >>> pendingCount & ENCODED_VALUE;
+            }
+            remainingBits -= digitCount * DIGIT_BITS;
+            try {
+                return applyDecoded(gameState, value);
+            } catch (RuntimeException _) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Applique à l'état donné toutes les actions du flot compacté contenu dans le tampon donné.
+     *
+     * @param gameState L'état de jeu initial.
+     * @param buffer Le tampon contenant le flot compacté par {@link #pack(List)}.
+     * @return L'état résultant de l'application de toutes les actions, ou null si l'une d'elles est invalide.
+     * @throws IllegalArgumentException si l'en-tête du flot est invalide.
+     */
+    public static GameState unpackAndApply(GameState gameState, ByteBuffer buffer) {
+        PackedReader reader = new PackedReader(buffer);
+        while (gameState != null && reader.hasNext()) {
+            gameState = reader.applyNext(gameState);
+        }
+        return gameState;
+    }
+
+    /**
+     * Rejoue rapidement les actions données, encodées en base32, à partir de l'état donné : aucun texte de message
+     * n'est produit pendant ce rejeu.
+     * <p>
+     * L'état obtenu a le même plateau, les mêmes tas, la même action suivante et les mêmes points que celui obtenu
+     * par l'application des actions une à une au moyen de {@link #decodeAndApply(GameState, String)}, et son
+     * tableau d'affichage contient les mêmes messages, à ceci près que ceux produits pendant le rejeu ont un texte
+     * vide.
+     *
+     * @param gameState L'état de jeu initial.
+     * @param actions Les actions encodées en base32.
+     * @return L'état résultant de l'application de toutes les actions, ou null si l'une d'elles est invalide.
+     */
+    public static GameState fastForward(GameState gameState, List<String> actions) {
+        GameState state = silenced(gameState);
+        for (String action : actions) {
+            StateAction result = decodeAndApply(state, action);
+            if (result == null) return null;
+            state = result.gameState();
+        }
+        return restored(state, gameState.messageBoard());
+    }
+
+    /**
+     * Rejoue rapidement toutes les actions du flot compacté contenu dans le tampon donné, comme
+     * {@link #fastForward(GameState, List)}.
+     *
+     * @param gameState L'état de jeu initial.
+     * @param buffer Le tampon contenant le flot compacté par {@link #pack(List)}.
+     * @return L'état résultant de l'application de toutes les actions, ou null si l'une d'elles est invalide.
+     * @throws IllegalArgumentException si l'en-tête du flot est invalide.
+     */
+    public static GameState fastForward(GameState gameState, ByteBuffer buffer) {
+        GameState state = unpackAndApply(silenced(gameState), buffer);
+        return state == null ? null : restored(state, gameState.messageBoard());
+    }
+
+    //retourne l'état donné, dont le tableau d'affichage est rendu muet
+    private static GameState silenced(GameState gameState) {
+        return gameState.withMessageBoard(gameState.messageBoard().withSilence(true));
+    }
+
+    //retourne l'état rejoué donné, dont le tableau d'affichage redevient muet ou non comme le tableau initial donné
+    private static GameState restored(GameState gameState, MessageBoard initial) {
+        return gameState.withMessageBoard(gameState.messageBoard().withSilence(initial.isSilent()));
+    }
 
     /**
      * La paire d'état et d'action de jeu en ajoutant la tuile donnée au plateau.
@@ -33,22 +220,8 @@ public final class ActionEncoder {
      */
     public static StateAction withPlacedTile(GameState gameState, PlacedTile tile) {
         GameState updatedState = gameState.withPlacedTile(tile);
-        List<Pos> sortedPositions = gameState.board().insertionPositions().stream()
-                .sorted((p1, p2) -> {
-                    if (p1.x() != p2.x()) {
-                        return Integer.compare(p1.x(), p2.x());
-                    } else {
-                        return Integer.compare(p1.y(), p2.y());
-                    }
-                })
-                .toList();
-
-        int locationIndex = sortedPositions.indexOf(tile.pos());
-        int tileOrientation = tile.rotation().ordinal();
-        int tileDetails = (locationIndex << 2) | tileOrientation;
-        String encodedAction = Base32.encodeBits10(tileDetails);
-
-        return new StateAction(updatedState, encodedAction);
+        int locationIndex = gameState.board().insertionPositionIndex(tile.pos());
+        return new StateAction(updatedState, encodePlacement(locationIndex, tile.rotation()));
     }
 
     /**
@@ -60,22 +233,7 @@ public final class ActionEncoder {
      */
     public static StateAction withNewOccupant(GameState gameState, Occupant occupant) {
         GameState newState = gameState.withNewOccupant(occupant);
-        int encodedValue;
-        if (occupant == null) {
-            encodedValue = ENCODED_VALUE;
-        } else {
-            if (occupant.kind() == Occupant.Kind.PAWN && occupant.zoneId() == 10) {
-                encodedValue = 0;
-            }
-            else if (occupant.kind() == Occupant.Kind.HUT && occupant.zoneId() == 18) {
-                encodedValue = 0b11000;
-            }
-            else {
-                encodedValue = (occupant.kind().ordinal() << 4) | occupant.zoneId();
-            }
-        }
-        String encodedAction = Base32.encodeBits5(encodedValue);
-        return new StateAction(newState, encodedAction);
+        return new StateAction(newState, encodeOccupant(occupant));
     }
 
     /**
@@ -87,9 +245,8 @@ public final class ActionEncoder {
      */
     public static StateAction withOccupantRemoved(GameState gameState, Occupant occupant) {
         GameState nextState = gameState.withOccupantRemoved(occupant);
-        int encodedValue = (occupant == null) ? ENCODED_VALUE : Zone.localId(occupant.zoneId());
-        String encodedAction = Base32.encodeBits5(encodedValue);
-        return new StateAction(nextState, encodedAction);
+        int occupantIndex = (occupant == null) ? -1 : sortedOccupants(gameState.board()).indexOf(occupant);
+        return new StateAction(nextState, encodeRetake(occupantIndex));
     }
 
     /**
@@ -114,41 +271,67 @@ public final class ActionEncoder {
         Objects.requireNonNull(action, "Action string cannot be null");
         Preconditions.checkArgument(Base32.isValid(action));
 
+        return new StateAction(applyDecoded(gameState, Base32.decode(action)), action);
+    }
+
+    //applique à l'état donné l'action suivante, dont les paramètres décodés sont donnés
+    private static GameState applyDecoded(GameState gameState, int decodedValue) {
         GameState.Action futureAction = gameState.nextAction();
-        int decodedValue = Base32.decode(action);
-        GameState newState = switch (futureAction) {
+        return switch (futureAction) {
             case PLACE_TILE -> applyPlaceTile(gameState, decodedValue);
             case OCCUPY_TILE -> applyOccupyTile(gameState, decodedValue);
             case RETAKE_PAWN -> applyRetakePawn(gameState, decodedValue);
             default -> throw new IllegalArgumentException(STR."Unsupported action type: \{futureAction}");
         };
-        return new StateAction(newState, action);
     }
 
     private static GameState applyPlaceTile(GameState gameState, int decodedParameters) {
         int positionIndex = decodedParameters >> 2;
         Rotation rotation = Rotation.values()[decodedParameters & 0b11];
-        List<Pos> sortedPositions = gameState.board().insertionPositions().stream()
-                .sorted(Comparator.comparingInt(Pos::x).thenComparingInt(Pos::y))
-                .toList();
-        Pos position = sortedPositions.get(positionIndex);
+        Pos position = gameState.board().insertionPositionAt(positionIndex);
         PlacedTile tile = new PlacedTile(gameState.tileToPlace(), gameState.currentPlayer(), rotation, position);
         return gameState.withPlacedTile(tile);
     }
 
     private static GameState applyOccupyTile(GameState gameState, int decodedParameters) {
+        if (decodedParameters == ENCODED_VALUE) {
+            return gameState.withNewOccupant(null);
+        }
         Occupant.Kind kind = Occupant.Kind.values()[decodedParameters >> 4];
-        int zoneId = decodedParameters & ENCODED_VALUE;
+        int zoneId = decodedParameters & 0b1111;
         Occupant occupant = new Occupant(kind, gameState.board().lastPlacedTile().id() * 10 + zoneId);
         return gameState.withNewOccupant(occupant);
 
     }
 
     private static GameState applyRetakePawn(GameState gameState, int decodedParameters) {
-        int zoneId = decodedParameters & ENCODED_VALUE;
-        List<Occupant> occupants = gameState.board().occupants().stream()
-                .sorted(Comparator.comparingInt(Occupant ::zoneId)).toList();
-        Occupant occupant = occupants.get(zoneId);
+        if (decodedParameters == ENCODED_VALUE) {
+            return gameState.withOccupantRemoved(null);
+        }
+        Occupant occupant = sortedOccupants(gameState.board()).get(decodedParameters);
         return gameState.withOccupantRemoved(occupant);
     }
+
+    //retourne les occupants du plateau dans l'ordre de leur encodage (par identifiant de zone)
+    static List<Occupant> sortedOccupants(Board board) {
+        return board.occupants().stream()
+                .sorted(Comparator.comparingInt(Occupant ::zoneId)).toList();
+    }
+
+    //encode la pose d'une tuile à la position d'index donné parmi les positions d'insertion triées
+    static String encodePlacement(int positionIndex, Rotation rotation) {
+        return Base32.encodeBits10((positionIndex << 2) | rotation.ordinal());
+    }
+
+    //encode l'occupation de la dernière tuile posée par l'occupant donné, ou null s'il n'y en a aucun
+    static String encodeOccupant(Occupant occupant) {
+        return Base32.encodeBits5(occupant == null
+                ? ENCODED_VALUE
+                : (occupant.kind().ordinal() << 4) | Zone.localId(occupant.zoneId()));
+    }
+
+    //encode la reprise du pion d'index donné parmi les occupants triés, ou d'aucun pion si l'index est négatif
+    static String encodeRetake(int occupantIndex) {
+        return Base32.encodeBits5(occupantIndex < 0 ? ENCODED_VALUE : occupantIndex);
+    }
 }
@@ -0,0 +1,101 @@
+package ch.epfl.chacun;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Liste immuable à laquelle l'ajout d'un élément en fin de liste ne copie pas les éléments existants.
+ * <p>
+ * Les listes obtenues par ajouts successifs partagent un même tableau, dont chacune ne voit que le début ; la
+ * première liste à ajouter un élément après ses derniers éléments réserve la case suivante du tableau, et toute autre
+ * liste voulant ajouter un élément à la même place, p. ex. un autre successeur du même état de jeu, copie ses éléments
+ * dans un nouveau tableau. Le coût d'un ajout est ainsi constant en moyenne, même lorsque les listes sont partagées
+ * entre plusieurs fils d'exécution.
+ *
+ * @param <E> Le type des éléments de la liste.
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
+final class AppendOnlyList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final AppendOnlyList<?> EMPTY = new AppendOnlyList<>(new Backing(new Object[0], 0), 0);
+
+    private final Backing backing;
+    private final int size;
+
+    private AppendOnlyList(Backing backing, int size) {
+        this.backing = backing;
+        this.size = size;
+    }
+
+    /**
+     * Retourne la liste vide.
+     *
+     * @param <E> Le type des éléments de la liste.
+     * @return La liste vide.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> AppendOnlyList<E> of() {
+        return (AppendOnlyList<E>) EMPTY;
+    }
+
+    /**
+     * Retourne la liste des éléments de la collection donnée, ou cette collection elle-même si elle est déjà une telle
+     * liste.
+     *
+     * @param elements La collection des éléments.
+     * @param <E> Le type des éléments de la liste.
+     * @return La liste de ces éléments.
+     * @throws NullPointerException si la collection ou l'un de ses éléments est null.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> AppendOnlyList<E> copyOf(Collection<? extends E> elements) {
+        if (elements instanceof AppendOnlyList<?> list) return (AppendOnlyList<E>) list;
+        Object[] array = elements.toArray();
+        for (Object element : array) Objects.requireNonNull(element);
+        return array.length == 0 ? of() : new AppendOnlyList<>(new Backing(array, array.length), array.length);
+    }
+
+    /**
+     * Retourne la liste formée des éléments de celle-ci suivis de l'élément donné.
+     *
+     * @param element L'élément à ajouter.
+     * @return La liste augmentée de l'élément.
+     * @throws NullPointerException si l'élément est null.
+     */
+    AppendOnlyList<E> withAppended(E element) {
+        Objects.requireNonNull(element);
+        if (size < backing.elements.length && backing.count.compareAndSet(size, size + 1)) {
+            backing.elements[size] = element;
+            return new AppendOnlyList<>(backing, size + 1);
+        }
+        // le tableau est plein, ou sa case suivante a déjà été réservée par une autre liste
+        Object[] elements = new Object[Math.max(8, 2 * size)];
+        System.arraycopy(backing.elements, 0, elements, 0, size);
+        elements[size] = element;
+        return new AppendOnlyList<>(new Backing(elements, size + 1), size + 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return (E) backing.elements[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    //tableau partagé par les listes, et nombre de ses cases réservées
+    private static final class Backing {
+        private final Object[] elements;
+        private final AtomicInteger count;
+
+        private Backing(Object[] elements, int count) {
+            this.elements = elements;
+            this.count = new AtomicInteger(count);
+        }
+    }
+}
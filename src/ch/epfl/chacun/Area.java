@@ -8,18 +8,127 @@
      * @author Mehdi Boulaid (358117)
      * @author Adnane Jamil (356117)
      */
-    public record Area<Z extends Zone>(Set<Z> zones, List<PlayerColor> occupants, int openConnections) {
+    public record Area<Z extends Zone>(Set<Z> zones, List<PlayerColor> occupants, int openConnections, MeadowCounts meadowCounts) {
+
+        /**
+         * Résumé des animaux non annulés, des smilodons et des pouvoirs spéciaux des zones prairie d'une aire.
+         * Il est fusionné lors de la connexion de deux aires et ajusté lors de l'annulation d'un animal,
+         * ce qui évite de parcourir les zones de l'aire pour connaître son contenu.
+         *
+         * @param mammoths Le nombre de mammouths non annulés.
+         * @param aurochs Le nombre d'aurochs non annulés.
+         * @param deer Le nombre de cerfs non annulés.
+         * @param tigers Le nombre de smilodons, annulés ou non : lors du décompte final, un smilodon annulé dévore
+         *               toujours un cerf, et rend toujours effective la fosse à pieux du pré.
+         * @param hasFire Vrai si l'aire contient le feu.
+         * @param hasHuntingTrap Vrai si l'aire contient la fosse à pieux.
+         * @param hasPitTrap Vrai si l'aire contient la grande fosse à pieux.
+         */
+        public record MeadowCounts(int mammoths, int aurochs, int deer, int tigers,
+                                   boolean hasFire, boolean hasHuntingTrap, boolean hasPitTrap) {
+
+            /**
+             * Le résumé d'une aire ne contenant aucun animal ni pouvoir spécial.
+             */
+            public static final MeadowCounts NONE = new MeadowCounts(0, 0, 0, 0, false, false, false);
+
+            /**
+             * Constructeur de la classe {@code MeadowCounts}.
+             *
+             * @throws IllegalArgumentException si l'un des nombres d'animaux est négatif.
+             */
+            public MeadowCounts {
+                Preconditions.checkArgument(mammoths >= 0 && aurochs >= 0 && deer >= 0 && tigers >= 0);
+            }
+
+            /**
+             * Calcule le résumé des zones données, aucun de leurs animaux n'étant annulé.
+             *
+             * @param zones Les zones à résumer.
+             * @return Le résumé des zones prairie parmi les zones données.
+             */
+            public static MeadowCounts of(Set<? extends Zone> zones) {
+                MeadowCounts counts = NONE;
+                for (Zone zone : zones) {
+                    if (zone instanceof Zone.Meadow meadow) {
+                        counts = counts.plus(of(meadow));
+                    }
+                }
+                return counts;
+            }
+
+            private static MeadowCounts of(Zone.Meadow meadow) {
+                int[] animalCounts = new int[Animal.Kind.values().length];
+                for (Animal animal : meadow.animals()) {
+                    animalCounts[animal.kind().ordinal()]++;
+                }
+                Zone.SpecialPower power = meadow.specialPower();
+                return new MeadowCounts(animalCounts[Animal.Kind.MAMMOTH.ordinal()],
+                        animalCounts[Animal.Kind.AUROCHS.ordinal()],
+                        animalCounts[Animal.Kind.DEER.ordinal()],
+                        animalCounts[Animal.Kind.TIGER.ordinal()],
+                        power == Zone.SpecialPower.WILD_FIRE,
+                        power == Zone.SpecialPower.HUNTING_TRAP,
+                        power == Zone.SpecialPower.PIT_TRAP);
+            }
+
+            /**
+             * Retourne le nombre d'animaux non annulés de la sorte donnée, ou de tous les smilodons.
+             *
+             * @param kind La sorte d'animal.
+             * @return Le nombre d'animaux non annulés de cette sorte, ou de smilodons annulés ou non.
+             */
+            public int count(Animal.Kind kind) {
+                return switch (kind) {
+                    case MAMMOTH -> mammoths;
+                    case AUROCHS -> aurochs;
+                    case DEER -> deer;
+                    case TIGER -> tigers;
+                };
+            }
+
+            /**
+             * Fusionne ce résumé avec celui d'une autre aire.
+             *
+             * @param that Le résumé de l'autre aire.
+             * @return Le résumé de l'union des deux aires.
+             */
+            public MeadowCounts plus(MeadowCounts that) {
+                return new MeadowCounts(mammoths + that.mammoths, aurochs + that.aurochs,
+                        deer + that.deer, tigers + that.tigers,
+                        hasFire || that.hasFire, hasHuntingTrap || that.hasHuntingTrap, hasPitTrap || that.hasPitTrap);
+            }
+
+            /**
+             * Retourne ce résumé après l'annulation d'un animal de la sorte donnée ; les smilodons restant comptés,
+             * l'annulation de l'un d'eux ne change pas le résumé.
+             *
+             * @param kind La sorte de l'animal annulé.
+             * @return Le résumé ajusté.
+             * @throws IllegalArgumentException si aucun animal non annulé de cette sorte n'est compté.
+             */
+            public MeadowCounts withCancelled(Animal.Kind kind) {
+                return new MeadowCounts(
+                        mammoths - (kind == Animal.Kind.MAMMOTH ? 1 : 0),
+                        aurochs - (kind == Animal.Kind.AUROCHS ? 1 : 0),
+                        deer - (kind == Animal.Kind.DEER ? 1 : 0),
+                        tigers,
+                        hasFire, hasHuntingTrap, hasPitTrap);
+            }
+        }
 
         /**
          * Constructeur de la classe {@code Area}.
          * @param zones L'ensemble des zones d'un certain type d'une aire.
          * @param occupants Les différents occupants d'une aire.
          * @param openConnections Les connexions ouvertes de l'aire.
+         * @param meadowCounts Le résumé des animaux non annulés et des pouvoirs spéciaux des prairies de l'aire.
          */
         public Area{
             Preconditions.checkArgument(openConnections>=0);
             Objects.requireNonNull(zones, "Les zones ne peuvent pas être nulles.");
             Objects.requireNonNull(occupants, "Les occupants ne peuvent pas être nuls.");
+            Objects.requireNonNull(meadowCounts, "Le résumé des prairies ne peut pas être nul.");
 
             List<PlayerColor> sortedOccupants = new ArrayList<>(occupants);
             Collections.sort(sortedOccupants);
@@ -27,6 +136,16 @@
             zones = Set.copyOf(zones);
         }
 
+        /**
+         * Construit une aire dont aucun animal n'est annulé, son résumé étant calculé à partir de ses zones.
+         * @param zones L'ensemble des zones d'un certain type d'une aire.
+         * @param occupants Les différents occupants d'une aire.
+         * @param openConnections Les connexions ouvertes de l'aire.
+         */
+        public Area(Set<Z> zones, List<PlayerColor> occupants, int openConnections){
+            this(zones, occupants, openConnections, MeadowCounts.of(zones));
+        }
+
         /**
          * Vérifie si une zone forêt a un menhir.
          *
@@ -189,7 +308,7 @@
 
             if(this.equals(that)){
                 int newOpenConnections = (this.openConnections) - 2;
-                return new Area<>(this.zones,this.occupants, newOpenConnections);
+                return new Area<>(this.zones,this.occupants, newOpenConnections, this.meadowCounts);
             }
 
             Set<Z> newZones = new HashSet<>(this.zones);
@@ -198,7 +317,7 @@
             newOccupants.addAll(that.occupants());
 
             int newOpenConnections = (this.openConnections + that.openConnections()) - 2;
-            return new Area<>(newZones, newOccupants, newOpenConnections);
+            return new Area<>(newZones, newOccupants, newOpenConnections, this.meadowCounts.plus(that.meadowCounts()));
         }
 
         /**
@@ -213,7 +332,7 @@
                 throw new IllegalArgumentException("L'aire est déjà occupée.");
             }
             List<PlayerColor> newOccupants = new ArrayList<>(List.of(occupant));
-            return new Area<>(this.zones, newOccupants, this.openConnections);
+            return new Area<>(this.zones, newOccupants, this.openConnections, this.meadowCounts);
         }
 
         /**
@@ -228,7 +347,7 @@
 
             List<PlayerColor> newOccupants = new ArrayList<>(this.occupants);
             newOccupants.remove(occupant);
-            return new Area<>(this.zones, newOccupants, this.openConnections);
+            return new Area<>(this.zones, newOccupants, this.openConnections, this.meadowCounts);
         }
 
 
@@ -238,7 +357,18 @@
          * @return Une nouvelle zone sans occupants.
          */
         public Area<Z> withoutOccupants() {
-            return new Area<>(this.zones(), List.of(), this.openConnections());
+            return new Area<>(this.zones(), List.of(), this.openConnections(), this.meadowCounts());
+        }
+
+        /**
+         * Retourne une aire identique à celle-ci, dont le résumé tient compte de l'annulation de l'animal donné.
+         *
+         * @param animal L'animal annulé, qui doit appartenir à l'une des zones de l'aire.
+         * @return Une nouvelle aire dont le résumé ne compte plus l'animal annulé.
+         * @throws IllegalArgumentException si aucun animal non annulé de cette sorte n'est compté dans l'aire.
+         */
+        public Area<Z> withCancelledAnimal(Animal animal) {
+            return new Area<>(this.zones, this.occupants, this.openConnections, this.meadowCounts.withCancelled(animal.kind()));
         }
 
         /**
@@ -246,12 +376,12 @@
          *
          * @return L'ensemble des identifiants de tuiles.
          */
-        public Set<Integer> tileIds() {
-            Set<Integer> tileIds = new HashSet<>();
+        public TileIdSet tileIds() {
+            TileIdSet.Builder tileIds = new TileIdSet.Builder();
             for (Z zone : zones) {
                 tileIds.add(zone.tileId());
             }
-            return tileIds;
+            return tileIds.build();
         }
 
         /**
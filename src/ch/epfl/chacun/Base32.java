@@ -1,7 +1,13 @@
 package ch.epfl.chacun;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 /**
  * A pour but d'encoder et de décoder des valeurs binaires en base32.
+ * <p>
+ * Le décodage se fait au moyen d'une table donnant la valeur de chaque caractère ASCII, et l'encodage peut écrire
+ * directement dans un tableau fourni par l'appelant, de sorte qu'aucune de ces opérations n'alloue d'objet.
  *
  *@author Mehdi Boulaid (358117)
  * @author Adnane Jamil (356117)
@@ -13,9 +19,35 @@ public final class Base32 {
      */
     public static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567";
     private static final int ENCODED_VALUE = 0b11111;
+    private static final int DIGIT_BITS = 5;
+
+    // valeur de chaque caractère ASCII, majuscule ou minuscule, ou -1 s'il n'est pas un chiffre en base 32
+    private static final byte[] DIGIT_VALUES = new byte[128];
+    // caractères de l'alphabet, et chaînes d'un caractère correspondantes, par valeur
+    private static final char[] DIGITS = ALPHABET.toCharArray();
+    private static final String[] DIGIT_STRINGS = new String[DIGITS.length];
+
+    static {
+        Arrays.fill(DIGIT_VALUES, (byte) -1);
+        for (int i = 0; i < DIGITS.length; i++) {
+            DIGIT_VALUES[DIGITS[i]] = (byte) i;
+            DIGIT_VALUES[Character.toLowerCase(DIGITS[i])] = (byte) i;
+            DIGIT_STRINGS[i] = String.valueOf(DIGITS[i]);
+        }
+    }
 
     private Base32() {}
 
+    /**
+     * Retourne la valeur du chiffre en base32 donné, majuscule ou minuscule.
+     *
+     * @param c Le caractère.
+     * @return La valeur du chiffre, comprise entre 0 et 31, ou -1 si le caractère n'est pas un chiffre en base32.
+     */
+    public static int digitValue(int c) {
+        return c >= 0 && c < DIGIT_VALUES.length ? DIGIT_VALUES[c] : -1;
+    }
+
     /**
      * Valide une chaine de caractères.
      *
@@ -23,7 +55,10 @@ public final class Base32 {
      * @return Vrai si et seulement si elle n'est composée que de caractères de l'alphabet base32
      */
     public static boolean isValid(String str) {
-        return str.toUpperCase().chars().allMatch(c -> ALPHABET.indexOf(c) != -1);
+        for (int i = 0; i < str.length(); i++) {
+            if (digitValue(str.charAt(i)) < 0) return false;
+        }
+        return true;
     }
 
     /**
@@ -35,7 +70,7 @@ public final class Base32 {
      */
     public static String encodeBits5(int value) {
         Preconditions.checkArgument(value >= 0);
-        return String.valueOf(ALPHABET.charAt(value % 32));
+        return DIGIT_STRINGS[value % 32];
     }
 
     /**
@@ -46,10 +81,71 @@ public final class Base32 {
      * @throws IllegalArgumentException si l'entier n'est pas compris entre 0 et 1022
      */
     public static String encodeBits10(int value) {
+        char[] chars = new char[2];
+        encodeBits10(value, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * Encode une valeur de 5 bits en un caractère en base32, écrit dans le tableau donné.
+     *
+     * @param value La valeur à encoder.
+     * @param destination Le tableau dans lequel écrire le caractère.
+     * @param offset L'index auquel écrire le caractère.
+     * @return Le nombre de caractères écrits, c.-à-d. 1.
+     * @throws IllegalArgumentException si l'entier est négatif.
+     */
+    public static int encodeBits5(int value, char[] destination, int offset) {
+        Preconditions.checkArgument(value >= 0);
+        destination[offset] = DIGITS[value & ENCODED_VALUE];
+        return 1;
+    }
+
+    /**
+     * Encode une valeur de 10 bits en deux caractères en base32, écrits dans le tableau donné.
+     *
+     * @param value La valeur à encoder.
+     * @param destination Le tableau dans lequel écrire les caractères.
+     * @param offset L'index auquel écrire le premier caractère.
+     * @return Le nombre de caractères écrits, c.-à-d. 2.
+     * @throws IllegalArgumentException si l'entier n'est pas compris entre 0 et 1022.
+     */
+    public static int encodeBits10(int value, char[] destination, int offset) {
+        Preconditions.checkArgument(value >= 0 && value < 1023);
+        destination[offset] = DIGITS[value >> DIGIT_BITS];
+        destination[offset + 1] = DIGITS[value & ENCODED_VALUE];
+        return 2;
+    }
+
+    /**
+     * Encode une valeur de 5 bits en un caractère ASCII en base32, écrit dans le tableau donné.
+     *
+     * @param value La valeur à encoder.
+     * @param destination Le tableau dans lequel écrire le caractère.
+     * @param offset L'index auquel écrire le caractère.
+     * @return Le nombre d'octets écrits, c.-à-d. 1.
+     * @throws IllegalArgumentException si l'entier est négatif.
+     */
+    public static int encodeBits5(int value, byte[] destination, int offset) {
+        Preconditions.checkArgument(value >= 0);
+        destination[offset] = (byte) DIGITS[value & ENCODED_VALUE];
+        return 1;
+    }
+
+    /**
+     * Encode une valeur de 10 bits en deux caractères ASCII en base32, écrits dans le tableau donné.
+     *
+     * @param value La valeur à encoder.
+     * @param destination Le tableau dans lequel écrire les caractères.
+     * @param offset L'index auquel écrire le premier caractère.
+     * @return Le nombre d'octets écrits, c.-à-d. 2.
+     * @throws IllegalArgumentException si l'entier n'est pas compris entre 0 et 1022.
+     */
+    public static int encodeBits10(int value, byte[] destination, int offset) {
         Preconditions.checkArgument(value >= 0 && value < 1023);
-        int high = (value >> 5) & ENCODED_VALUE; // Extract the high 5 bits
-        int low = value & ENCODED_VALUE;         // Extract the low 5 bits
-        return STR."\{ALPHABET.charAt(high)}\{ALPHABET.charAt(low)}";
+        destination[offset] = (byte) DIGITS[value >> DIGIT_BITS];
+        destination[offset + 1] = (byte) DIGITS[value & ENCODED_VALUE];
+        return 2;
     }
 
     /**
@@ -61,15 +157,92 @@ public final class Base32 {
      */
     public static int decode(String base32) {
         Preconditions.checkArgument(base32 != null && !base32.isEmpty() && base32.length() <= 2);
-        base32 = base32.toUpperCase();
         int value = 0;
         for (int i = 0; i < base32.length(); i++) {
-            int digit = ALPHABET.indexOf(base32.charAt(i));
+            int digit = digitValue(base32.charAt(i));
             if (digit == -1) {
                 throw new IllegalArgumentException(STR."Invalid Base32 character: \{base32.charAt(i)}");
             }
-            value = (value << 5) + digit;
+            value = (value << DIGIT_BITS) + digit;
         }
         return value;
     }
-}
\ No newline at end of file
+
+    /**
+     * Décode toutes les actions de la séquence de caractères donnée, séparées par des blancs ou des virgules, et
+     * range leurs valeurs dans le tableau donné, dans l'ordre.
+     *
+     * @param actions La séquence d'actions, chacune formée d'un ou deux chiffres en base32.
+     * @param values Le tableau recevant les valeurs décodées.
+     * @return Le nombre d'actions décodées.
+     * @throws IllegalArgumentException si une action est formée de plus de deux chiffres, si la séquence contient
+     *                                  un caractère qui n'est ni un chiffre ni un séparateur, ou si le tableau est
+     *                                  trop petit.
+     */
+    public static int decodeAll(CharSequence actions, int[] values) {
+        DecodeState state = new DecodeState(values);
+        for (int i = 0; i < actions.length(); i++) {
+            state.accept(actions.charAt(i));
+        }
+        return state.finish();
+    }
+
+    /**
+     * Décode toutes les actions contenues, en ASCII, dans le tampon donné, de sa position à sa limite, comme
+     * {@link #decodeAll(CharSequence, int[])} ; le tampon lui-même n'est pas modifié.
+     *
+     * @param actions Le tampon contenant la séquence d'actions.
+     * @param values Le tableau recevant les valeurs décodées.
+     * @return Le nombre d'actions décodées.
+     * @throws IllegalArgumentException si le contenu du tampon n'est pas une séquence d'actions valide, ou si le
+     *                                  tableau est trop petit.
+     */
+    public static int decodeAll(ByteBuffer actions, int[] values) {
+        DecodeState state = new DecodeState(values);
+        for (int i = actions.position(); i < actions.limit(); i++) {
+            state.accept(actions.get(i) & 0xFF);
+        }
+        return state.finish();
+    }
+
+    //état du décodage d'une séquence d'actions : action en cours et nombre de ses chiffres déjà lus
+    private static final class DecodeState {
+        private final int[] values;
+        private int count;
+        private int value;
+        private int digitCount;
+
+        private DecodeState(int[] values) {
+            this.values = values;
+        }
+
+        //traite le caractère suivant de la séquence
+        private void accept(int c) {
+            int digit = digitValue(c);
+            if (digit >= 0) {
+                Preconditions.checkArgument(digitCount < 2);
+                value = value << DIGIT_BITS | digit;
+                digitCount += 1;
+            } else {
+                Preconditions.checkArgument(c == ' ' || c == ',' || Character.isWhitespace(c));
+                finishAction();
+            }
+        }
+
+        //range la valeur de l'action en cours, s'il y en a une
+        private void finishAction() {
+            if (digitCount > 0) {
+                Preconditions.checkArgument(count < values.length);
+                values[count++] = value;
+                value = 0;
+                digitCount = 0;
+            }
+        }
+
+        //termine le décodage et retourne le nombre d'actions décodées
+        private int finish() {
+            finishAction();
+            return count;
+        }
+    }
+}
@@ -10,16 +10,28 @@ import java.util.stream.Collectors;
  * @author Adnane Jamil (356117)
  */
 public class Board {
-    private final PlacedTile[] placedTiles;
+    // les tuiles sont rangées par ligne, afin que deux plateaux successifs partagent toutes les lignes non modifiées ;
+    // une ligne ne contenant encore aucune tuile vaut null
+    private final PlacedTile[][] rows;
     private final int[] indexes;
     private final ZonePartitions zonePartitions;
     private final Set<Animal> cancelledAnimals;
-
-    private Board(PlacedTile[] placedTiles,int[] indexes, ZonePartitions zonePartitions, Set<Animal> cancelledAnimals){
-        this.placedTiles = placedTiles;
+    // points de fin de partie des prés et des réseaux hydrographiques, indexés par couleur, tenus à jour à chaque
+    // modification des aires concernées
+    private final int[] endOfGamePoints;
+    // positions d'insertion, tenues à jour à chaque pose de tuile dans l'ordre de leur encodage
+    private final Frontier frontier;
+    // ensemble des signatures de côtés (voir Tile.sideSignature) des tuiles pouvant être posées sur le plateau,
+    // un bit par signature ; calculé au premier besoin, puisque chaque modification crée un nouveau plateau
+    private volatile long[] placeableSignatures;
+
+    private Board(PlacedTile[][] rows,int[] indexes, ZonePartitions zonePartitions, Set<Animal> cancelledAnimals, int[] endOfGamePoints, Frontier frontier){
+        this.rows = rows;
         this.indexes = indexes;
         this.zonePartitions = zonePartitions;
         this.cancelledAnimals =cancelledAnimals;
+        this.endOfGamePoints = endOfGamePoints;
+        this.frontier = frontier;
     }
 
     /**
@@ -32,7 +44,7 @@ public class Board {
      */
     public static final int LENGTH = REACH*2 + 1;
     public static final int SIZE = LENGTH*LENGTH;
-    public static final Board EMPTY = new Board(new PlacedTile[SIZE], new int[0], ZonePartitions.EMPTY, new HashSet<>());
+    public static final Board EMPTY = new Board(new PlacedTile[LENGTH][], new int[0], ZonePartitions.EMPTY, new HashSet<>(), new int[PlayerColor.ALL.size()], Frontier.EMPTY);
 
     /**
      * Retourne la tuile à la position spécifiée.
@@ -46,7 +58,22 @@ public class Board {
         }
         int index = (pos.y() + REACH)*LENGTH + (pos.x() + REACH);
 
-        return placedTiles[index];
+        return tileAtIndex(index);
+    }
+
+    //retourne la tuile à l'index donné du plateau, ou null si la case est vide
+    private PlacedTile tileAtIndex(int index) {
+        PlacedTile[] row = rows[index / LENGTH];
+        return row == null ? null : row[index % LENGTH];
+    }
+
+    //retourne les lignes du plateau où la case à l'index donné contient la tuile donnée ; seule la ligne modifiée est copiée
+    private PlacedTile[][] rowsWith(int index, PlacedTile tile) {
+        PlacedTile[][] updatedRows = rows.clone();
+        PlacedTile[] row = rows[index / LENGTH];
+        updatedRows[index / LENGTH] = row == null ? new PlacedTile[LENGTH] : row.clone();
+        updatedRows[index / LENGTH][index % LENGTH] = tile;
+        return updatedRows;
     }
 
     /**
@@ -58,7 +85,8 @@ public class Board {
      */
     public PlacedTile tileWithId(int tileId){
         for(int i : indexes){
-            if(placedTiles[i].id() == tileId && placedTiles[i] != null){ return placedTiles[i]; }
+            PlacedTile placedTile = tileAtIndex(i);
+            if(placedTile.id() == tileId){ return placedTile; }
         }
         throw new IllegalArgumentException();
     }
@@ -79,14 +107,27 @@ public class Board {
      */
     public Set<Occupant> occupants(){
         Set<Occupant> o = new HashSet<>();
-        for(PlacedTile p : placedTiles){
-            if(p != null && p.occupant() != null){
+        for(int i : indexes){
+            PlacedTile p = tileAtIndex(i);
+            if(p.occupant() != null){
                 o.add(p.occupant());
             }
         }
         return o;
     }
 
+    /**
+     * Retourne les points que le joueur donné remporterait grâce aux prés et aux réseaux hydrographiques si la partie
+     * se terminait maintenant, calculés comme lors du décompte final. Ils sont tenus à jour à chaque modification
+     * des aires, de sorte que leur obtention ne dépend pas de la taille du plateau.
+     *
+     * @param player Le joueur dont on veut connaître les points.
+     * @return Les points de fin de partie du joueur donné.
+     */
+    public int endOfGamePoints(PlayerColor player){
+        return endOfGamePoints[player.ordinal()];
+    }
+
     /**
      * Retourne l'aire forêt contenant la zone spécifiée.
      *
@@ -182,8 +223,9 @@ public class Board {
         int count = 0;
 
         for(int i : indexes){
-            if(placedTiles[i].occupant() != null) {
-                if (placedTiles[i].placer().equals(player) && placedTiles[i].occupant().kind().equals(occupantKind)) {
+            PlacedTile placedTile = tileAtIndex(i);
+            if(placedTile.occupant() != null) {
+                if (placedTile.placer().equals(player) && placedTile.occupant().kind().equals(occupantKind)) {
                     count += 1;
                 }
             }
@@ -202,16 +244,47 @@ public class Board {
      * @return L'ensemble des positions d'insertion disponibles.
      */
     public Set<Pos> insertionPositions(){
-        Set<Pos> insertpos = new HashSet<>();
+        return new HashSet<>(frontier.positions());
+    }
 
-        for(int i : indexes){
-            for(Direction d : Direction.ALL){
-                if(tileAt(placedTiles[i].pos().neighbor(d)) == null && LimitOnBoardIsRespected(placedTiles[i].pos().neighbor(d))){
-                    insertpos.add(placedTiles[i].pos().neighbor(d));
-                }
-            }
-        }
-        return insertpos;
+    /**
+     * Retourne les positions d'insertion, triées dans l'ordre de leur encodage par {@link ActionEncoder}, c.-à-d.
+     * par x, puis par y.
+     *
+     * @return La liste non modifiable des positions d'insertion triées.
+     */
+    public List<Pos> sortedInsertionPositions() {
+        return frontier.positions();
+    }
+
+    /**
+     * Retourne le nombre de positions d'insertion.
+     *
+     * @return Le nombre de positions d'insertion.
+     */
+    public int insertionPositionCount() {
+        return frontier.size();
+    }
+
+    /**
+     * Retourne l'index de la position donnée parmi les positions d'insertion triées, en temps constant.
+     *
+     * @param pos La position.
+     * @return L'index de la position, ou -1 si ce n'est pas une position d'insertion.
+     */
+    public int insertionPositionIndex(Pos pos) {
+        return frontier.rank(pos);
+    }
+
+    /**
+     * Retourne la position d'insertion d'index donné parmi les positions d'insertion triées, en temps logarithmique.
+     *
+     * @param index L'index.
+     * @return La position d'insertion de cet index.
+     * @throws IndexOutOfBoundsException si l'index est négatif, ou supérieur ou égal au nombre de positions.
+     */
+    public Pos insertionPositionAt(int index) {
+        return frontier.select(index);
     }
 
     /**
@@ -224,7 +297,7 @@ public class Board {
             return null;
         }
         int lastTileIndex = indexes[indexes.length - 1];
-        return placedTiles[lastTileIndex];
+        return tileAtIndex(lastTileIndex);
     }
 
     /**
@@ -237,7 +310,7 @@ public class Board {
             return Collections.emptySet();
         }
         int lastTileIndex = indexes[indexes.length - 1];
-        PlacedTile lastTile = placedTiles[lastTileIndex];
+        PlacedTile lastTile = tileAtIndex(lastTileIndex);
         Set<Area<Zone.Forest>> closedForests = new HashSet<>();
 
         for (Zone.Forest forest : lastTile.forestZones()) {
@@ -261,7 +334,7 @@ public class Board {
 
         // Retrieve the last placed tile.
         int lastTileIndex = indexes[indexes.length - 1];
-        PlacedTile lastTile = placedTiles[lastTileIndex];
+        PlacedTile lastTile = tileAtIndex(lastTileIndex);
 
         Set<Area<Zone.River>> closedRivers = new HashSet<>();
 
@@ -286,9 +359,11 @@ public class Board {
      * @return true si la tuile peut être ajoutée, sinon false.
      */
     public boolean canAddTile(PlacedTile tile) {
-        if (!insertionPositions().contains(tile.pos())) {
-            return false;
-        }
+        return frontier.contains(tile.pos()) && sidesMatchNeighbors(tile);
+    }
+
+    //vérifie que les bords de la tuile sont de même sorte que ceux de ses voisines, sans vérifier que sa position est libre
+    boolean sidesMatchNeighbors(PlacedTile tile) {
         boolean valid = true;
         int i = 0;
         Direction[] directions = Direction.values();
@@ -296,7 +371,7 @@ public class Board {
             Pos adjacentPos = tile.pos().neighbor(directions[i]);
             PlacedTile adjacentTile = tileAt(adjacentPos);
             if (adjacentTile != null) {
-                if (!tile.side(directions[i]).isSameKindAs(adjacentTile.side(directions[i].opposite()))) {
+                if (!tile.sideMatches(directions[i], adjacentTile)) {
                     valid = false;
                     break;
                 }
@@ -313,11 +388,78 @@ public class Board {
      * @return true si la tuile pourrait être placée, sinon false.
      */
     public boolean couldPlaceTile(Tile tile){
-        for (Pos position:insertionPositions()){
-            for(int i=0;i<Rotation.ALL.size();i++){
-                PlacedTile newPlacedTile=new PlacedTile(tile,null,Rotation.ALL.get(i),position);
-                if(canAddTile(newPlacedTile)){return true;}
+        long[] signatures = placeableSignatures;
+        if (signatures == null) {
+            signatures = computePlaceableSignatures();
+            placeableSignatures = signatures;
+        }
+        int signature = tile.sideSignature();
+        return (signatures[signature >>> 6] & 1L << signature) != 0;
+    }
+
+    //calcule l'ensemble des signatures de côtés des tuiles pouvant être posées à l'une des positions d'insertion ;
+    //les contraintes des positions (sorte imposée par chaque voisine, ou 3 si la case voisine est vide) sont
+    //dédupliquées, puis chacune des 81 signatures possibles est confrontée à chacune d'elles dans chaque rotation
+    private long[] computePlaceableSignatures() {
+        boolean[] isConstraint = new boolean[1 << 2 * Direction.COUNT];
+        List<Integer> constraints = new ArrayList<>();
+        for (Pos position : frontier.positions()) {
+            int constraint = sideConstraintAt(position);
+            if (!isConstraint[constraint]) {
+                isConstraint[constraint] = true;
+                constraints.add(constraint);
+            }
+        }
+
+        long[] signatures = new long[4];
+        for (int signature = 0; signature < isConstraint.length; signature++) {
+            if (isValidSignature(signature) && satisfiesAny(signature, constraints)) {
+                signatures[signature >>> 6] |= 1L << signature;
+            }
+        }
+        return signatures;
+    }
+
+    //retourne la contrainte imposée par ses voisines à une tuile posée à la position donnée : les bits 2d et 2d + 1
+    //contiennent la sorte du côté qui lui fait face dans la direction d, ou 3 si la case voisine est vide
+    int sideConstraintAt(Pos position) {
+        int constraint = 0;
+        for (Direction direction : Direction.ALL) {
+            PlacedTile adjacentTile = tileAt(position.neighbor(direction));
+            int kind = adjacentTile == null ? 3 : adjacentTile.sideKind(direction.opposite());
+            constraint |= kind << 2 * direction.ordinal();
+        }
+        return constraint;
+    }
+
+    //vérifie que chacune des sortes de la signature donnée désigne une sorte de côté
+    static boolean isValidSignature(int signature) {
+        for (int i = 0; i < Direction.COUNT; i++) {
+            if ((signature >>> 2 * i & 3) == 3) return false;
+        }
+        return true;
+    }
+
+    //vérifie qu'une rotation de la signature donnée satisfait l'une des contraintes données
+    private static boolean satisfiesAny(int signature, List<Integer> constraints) {
+        for (int constraint : constraints) {
+            if (satisfies(signature, constraint)) return true;
+        }
+        return false;
+    }
+
+    //vérifie qu'une rotation de la signature donnée satisfait la contrainte donnée
+    static boolean satisfies(int signature, int constraint) {
+        for (Rotation rotation : Rotation.ALL) {
+            // le côté montré dans la direction d est celui d'index d - rotation
+            int shift = 2 * rotation.quarterTurnsCW();
+            int rotated = (signature << shift | signature >>> 2 * Direction.COUNT - shift) & 0xFF;
+            boolean satisfied = true;
+            for (int i = 0; i < Direction.COUNT && satisfied; i++) {
+                int required = constraint >>> 2 * i & 3;
+                satisfied = required == 3 || required == (rotated >>> 2 * i & 3);
             }
+            if (satisfied) return true;
         }
         return false;
     }
@@ -332,16 +474,15 @@ public class Board {
     public Board withNewTile(PlacedTile tile) {
         Preconditions.checkArgument(indexes.length == 0 || canAddTile(tile));
         Preconditions.checkArgument(LimitOnBoardIsRespected(tile.pos()));
-        PlacedTile[] updatedTiles = placedTiles.clone();
         int[] updatedIndexes = Arrays.copyOf(indexes, indexes.length + 1);
         ZonePartitions.Builder partitionBuilder = new ZonePartitions.Builder(zonePartitions);
         partitionBuilder.addTile(tile.tile());
         int tileIdx = (tile.pos().x() + REACH) + (tile.pos().y() + REACH) * LENGTH;
 
-        updatedTiles[tileIdx] = tile;
         updatedIndexes[updatedIndexes.length - 1] = tileIdx;
         connectTileSides(tile, partitionBuilder);
-        return new Board(updatedTiles, updatedIndexes, partitionBuilder.build(), cancelledAnimals);
+        return new Board(rowsWith(tileIdx, tile), updatedIndexes, partitionBuilder.build(), cancelledAnimals, endOfGamePointsAfter(partitionBuilder),
+                frontier.withTileAt(tile.pos(), pos -> tileAt(pos) == null));
     }
     private void connectTileSides(PlacedTile tile, ZonePartitions.Builder builder) {
         for (Direction direction : Direction.values()) {
@@ -359,12 +500,7 @@ public class Board {
     }
 
     private static Zone findZoneBy(Occupant occupant, PlacedTile occupiedTile) {
-        for(Zone zone : occupiedTile.tile().zones()) {
-            if(zone.id() == occupant.zoneId()) {
-                return zone;
-            }
-        }
-        return null;
+        return occupiedTile.zoneWithIdOrNull(occupant.zoneId());
     }
 
     /**
@@ -378,23 +514,12 @@ public class Board {
         PlacedTile tile = tileWithId(Zone.tileId(occupant.zoneId()));
         Preconditions.checkArgument(tile != null);
         Preconditions.checkArgument(tile.occupant() == null);
-        Zone matchingZone = null;
-        for (Zone zone : tile.tile().zones()) {
-            if (zone.id() == occupant.zoneId()) {
-                matchingZone = zone;
-                break;
-            }
-        }
+        Zone matchingZone = tile.zoneWithIdOrNull(occupant.zoneId());
         Preconditions.checkArgument(matchingZone != null);
-        PlacedTile[] updatedTiles = new PlacedTile[placedTiles.length];
-        for (int i = 0; i < placedTiles.length; i++) {
-            updatedTiles[i] = placedTiles[i];
-        }
         int tileIdx = (tile.pos().x() + REACH) + (tile.pos().y() + REACH) * LENGTH;
-        updatedTiles[tileIdx] = tile.withOccupant(occupant);
         ZonePartitions.Builder partitionBuilder = new ZonePartitions.Builder(zonePartitions);
         partitionBuilder.addInitialOccupant(tile.placer(), occupant.kind(), matchingZone);
-        return new Board(updatedTiles, indexes, partitionBuilder.build(), cancelledAnimals);
+        return new Board(rowsWith(tileIdx, tile.withOccupant(occupant)), indexes, partitionBuilder.build(), cancelledAnimals, endOfGamePointsAfter(partitionBuilder), frontier);
     }
 
     /**
@@ -407,23 +532,12 @@ public class Board {
     public Board withoutOccupant(Occupant occupant) {
         PlacedTile occupiedTile = tileWithId(Zone.tileId(occupant.zoneId()));
         Preconditions.checkArgument(occupiedTile != null);
-        Zone matchingZone = null;
-        for (Zone zone : occupiedTile.tile().zones()) {
-            if (zone.id() == occupant.zoneId()) {
-                matchingZone = zone;
-                break;
-            }
-        }
+        Zone matchingZone = occupiedTile.zoneWithIdOrNull(occupant.zoneId());
         Preconditions.checkArgument(matchingZone != null);
-        PlacedTile[] updatedTiles = new PlacedTile[placedTiles.length];
-        for (int i = 0; i < placedTiles.length; i++) {
-            updatedTiles[i] = placedTiles[i];
-        }
         int tileIdx = (occupiedTile.pos().x() + REACH) + (occupiedTile.pos().y() + REACH) * LENGTH;
-        updatedTiles[tileIdx] = occupiedTile.withNoOccupant();
         ZonePartitions.Builder partitionBuilder = new ZonePartitions.Builder(zonePartitions);
         partitionBuilder.removePawn(occupiedTile.placer(), matchingZone);
-        return new Board(updatedTiles, indexes, partitionBuilder.build(), cancelledAnimals);
+        return new Board(rowsWith(tileIdx, occupiedTile.withNoOccupant()), indexes, partitionBuilder.build(), cancelledAnimals, endOfGamePointsAfter(partitionBuilder), frontier);
     }
 
     /**
@@ -434,7 +548,7 @@ public class Board {
      * @return Le plateau avec les cueilleurs et les pêcheurs supprimés des aires spécifiées.
      */
     public Board withoutGatherersOrFishersIn(Set<Area<Zone.Forest>> forests, Set<Area<Zone.River>> rivers) {
-        PlacedTile[] newPlacedTiles = placedTiles.clone();
+        PlacedTile[][] newRows = rows;
         ZonePartitions.Builder newZonePartitions = new ZonePartitions.Builder(zonePartitions);
 
         for(Area<Zone.Forest> forestArea : forests){
@@ -460,18 +574,50 @@ public class Board {
             }
         }
 
-        for (int i = 0; i < placedTiles.length; i++) {
-            PlacedTile placedTile = placedTiles[i];
-            if (placedTile != null && placedTile.occupant() != null) {
+        for (int i : indexes) {
+            PlacedTile placedTile = tileAtIndex(i);
+            if (placedTile.occupant() != null) {
                 int zoneId = placedTile.occupant().zoneId();
                 if ((riverZoneIds.contains(zoneId) || forestZoneIds.contains(zoneId)) && placedTile.occupant().kind() == Occupant.Kind.PAWN) {
                     PlacedTile newTile = new PlacedTile(placedTile.tile(), placedTile.placer(), placedTile.rotation(), placedTile.pos());
-                    newPlacedTiles[i] = newTile;
+                    // chaque ligne contenant un occupant retiré est copiée une seule fois
+                    if (newRows == rows) newRows = rows.clone();
+                    if (newRows[i / LENGTH] == rows[i / LENGTH]) newRows[i / LENGTH] = rows[i / LENGTH].clone();
+                    newRows[i / LENGTH][i % LENGTH] = newTile;
 
                 }
             }
         }
-        return new Board(newPlacedTiles, indexes, newZonePartitions.build(), cancelledAnimals);
+        return new Board(newRows, indexes, newZonePartitions.build(), cancelledAnimals, endOfGamePointsAfter(newZonePartitions), frontier);
+    }
+
+    /**
+     * Retourne une description compacte du contenu du plateau, indépendante de l'ordre dans lequel les tuiles ont été
+     * posées : pour chaque case occupée, par index croissant, l'index de la case, l'identifiant, la rotation et le
+     * poseur de sa tuile, ainsi que son occupant, suivis des identifiants triés des animaux annulés. Deux plateaux
+     * ayant la même description ont les mêmes tuiles, occupants et animaux annulés, et donc les mêmes aires.
+     *
+     * @return La description du contenu du plateau.
+     */
+    int[] contentKey() {
+        int[] sortedIndexes = indexes.clone();
+        Arrays.sort(sortedIndexes);
+        int[] key = new int[sortedIndexes.length * 5 + cancelledAnimals.size()];
+        int k = 0;
+        for (int index : sortedIndexes) {
+            PlacedTile tile = tileAtIndex(index);
+            Occupant occupant = tile.occupant();
+            key[k++] = index;
+            key[k++] = tile.id();
+            key[k++] = tile.rotation().ordinal();
+            key[k++] = tile.placer() == null ? -1 : tile.placer().ordinal();
+            key[k++] = occupant == null ? -1 : occupant.zoneId() * Occupant.Kind.values().length + occupant.kind().ordinal();
+        }
+        for (Animal animal : cancelledAnimals) {
+            key[k++] = animal.id();
+        }
+        Arrays.sort(key, sortedIndexes.length * 5, key.length);
+        return key;
     }
 
     /**
@@ -482,9 +628,89 @@ public class Board {
      */
     public Board withMoreCancelledAnimals(Set<Animal> newlyCancelledAnimals) {
         Set<Animal> updatedCancelledAnimals = new HashSet<>(this.cancelledAnimals);
-        updatedCancelledAnimals.addAll(newlyCancelledAnimals);
+        ZonePartitions.Builder partitionBuilder = new ZonePartitions.Builder(zonePartitions);
 
-        return new Board(this.placedTiles, this.indexes, this.zonePartitions, updatedCancelledAnimals);
+        for (Animal animal : newlyCancelledAnimals) {
+            if (updatedCancelledAnimals.add(animal)) {
+                Zone.Meadow meadow = meadowContaining(animal);
+                if (meadow != null) {
+                    partitionBuilder.cancelAnimal(meadow, animal);
+                }
+            }
+        }
+
+        return new Board(this.rows, this.indexes, partitionBuilder.build(), updatedCancelledAnimals, endOfGamePointsAfter(partitionBuilder), frontier);
+    }
+
+    //retourne les points de fin de partie mis à jour pour les seules aires de prés et de réseaux hydrographiques
+    //ajoutées ou retirées par le bâtisseur donné
+    private int[] endOfGamePointsAfter(ZonePartitions.Builder builder) {
+        ZonePartition.Builder<Zone.Meadow> meadows = builder.meadowBuilder();
+        ZonePartition.Builder<Zone.Water> riverSystems = builder.riverSystemsBuilder();
+        if (meadows.addedAreas().isEmpty() && meadows.removedAreas().isEmpty()
+                && riverSystems.addedAreas().isEmpty() && riverSystems.removedAreas().isEmpty()) {
+            return endOfGamePoints;
+        }
+
+        int[] updatedPoints = endOfGamePoints.clone();
+        for (Area<Zone.Meadow> meadow : meadows.removedAreas()) addMeadowPoints(updatedPoints, meadow, -1);
+        for (Area<Zone.Meadow> meadow : meadows.addedAreas()) addMeadowPoints(updatedPoints, meadow, 1);
+        for (Area<Zone.Water> riverSystem : riverSystems.removedAreas()) addRiverSystemPoints(updatedPoints, riverSystem, -1);
+        for (Area<Zone.Water> riverSystem : riverSystems.addedAreas()) addRiverSystemPoints(updatedPoints, riverSystem, 1);
+        return updatedPoints;
+    }
+
+    //ajoute (ou retire, selon le signe) aux points donnés ceux que le pré rapporterait lors du décompte final ; comme
+    //lors de celui-ci, les cerfs non annulés sont d'abord dévorés par tous les smilodons, même annulés, et un pré
+    //contenant une fosse à pieux est compté une fois de plus, ou deux fois de plus s'il contient aussi un feu
+    private static void addMeadowPoints(int[] points, Area<Zone.Meadow> meadow, int sign) {
+        if (!meadow.isOccupied()) {
+            return;
+        }
+        Area.MeadowCounts counts = meadow.meadowCounts();
+        int mammoths = counts.mammoths();
+        int aurochs = counts.aurochs();
+        int deer = counts.deer();
+        if (!counts.hasFire() && counts.tigers() > 0) {
+            if (counts.hasHuntingTrap()) {
+                mammoths = aurochs = deer = 0;
+            } else {
+                deer -= Math.min(deer, counts.tigers());
+            }
+        }
+        int timesScored = counts.hasPitTrap() ? (counts.hasFire() ? 3 : 2) : 1;
+        int meadowPoints = sign * timesScored * Points.forMeadow(mammoths, aurochs, deer);
+        for (PlayerColor scorer : meadow.majorityOccupants()) {
+            points[scorer.ordinal()] += meadowPoints;
+        }
+    }
+
+    //ajoute (ou retire, selon le signe) aux points donnés ceux que le réseau hydrographique rapporterait lors du
+    //décompte final, radeau compris
+    private static void addRiverSystemPoints(int[] points, Area<Zone.Water> riverSystem, int sign) {
+        if (!riverSystem.isOccupied()) {
+            return;
+        }
+        int riverSystemPoints = Points.forRiverSystem(Area.riverSystemFishCount(riverSystem));
+        if (riverSystem.zoneWithSpecialPower(Zone.SpecialPower.RAFT) != null) {
+            riverSystemPoints += Points.forRaft(Area.lakeCount(riverSystem));
+        }
+        for (PlayerColor scorer : riverSystem.majorityOccupants()) {
+            points[scorer.ordinal()] += sign * riverSystemPoints;
+        }
+    }
+
+    //retourne la zone prairie du plateau contenant l'animal donné, ou null s'il n'est pas sur le plateau
+    private Zone.Meadow meadowContaining(Animal animal) {
+        int meadowId = animal.id() / 10;
+        for (int i : indexes) {
+            PlacedTile placedTile = tileAtIndex(i);
+            if (placedTile.id() == Zone.tileId(meadowId)) {
+                return placedTile.zoneWithIdOrNull(meadowId) instanceof Zone.Meadow meadow
+                        && meadow.animals().contains(animal) ? meadow : null;
+            }
+        }
+        return null;
     }
 
 
@@ -493,7 +719,7 @@ public class Board {
         if (this == obj) return true;
         if (!(obj instanceof Board other)) return false;
 
-        return Arrays.equals(this.placedTiles, other.placedTiles) &&
+        return Arrays.deepEquals(this.rows, other.rows) &&
                 Arrays.equals(this.indexes, other.indexes) &&
                 Objects.equals(this.zonePartitions, other.zonePartitions) &&
                 Objects.equals(this.cancelledAnimals, other.cancelledAnimals);
@@ -501,7 +727,7 @@ public class Board {
 
     @Override
     public int hashCode() {
-        int hashPlacedTiles = Arrays.hashCode(placedTiles);
+        int hashPlacedTiles = Arrays.deepHashCode(rows);
         int hashIndex = Arrays.hashCode(indexes);
 
         return Objects.hash(hashPlacedTiles, hashIndex, zonePartitions, cancelledAnimals);
@@ -0,0 +1,182 @@
+package ch.epfl.chacun;
+
+import java.util.Arrays;
+
+/**
+ * Composition d'un tas de tuiles : nombre de tuiles restantes présentant chaque caractéristique (pouvoir spécial,
+ * sorte de forêt, animal, lac, ou sortes des côtés), à l'usage des aides de jeu et des joueurs artificiels.
+ * <p>
+ * Les nombres de tuiles présentant chaque caractéristique sont calculés une fois pour toutes, pour chaque index du
+ * tableau partagé par les versions successives d'un tas (voir {@link TileDecks}), lors de la première interrogation.
+ * Tirer une tuile ne faisant qu'avancer l'index du sommet du tas, la composition reste à jour sans que le tas soit
+ * jamais parcouru à nouveau, et chaque interrogation prend un temps constant.
+ *
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
+public final class DeckComposition {
+
+    // index des caractéristiques dans les lignes de la table : d'abord les 81 signatures de côtés, en base 3, puis
+    // les pouvoirs spéciaux, les sortes de forêt, les sortes d'animaux et enfin la présence d'un lac
+    private static final int SIGNATURE_COUNT = 81;
+    private static final int POWER_OFFSET = SIGNATURE_COUNT;
+    private static final int FOREST_OFFSET = POWER_OFFSET + Zone.SpecialPower.values().length;
+    private static final int ANIMAL_OFFSET = FOREST_OFFSET + Zone.Forest.Kind.values().length;
+    private static final int LAKE = ANIMAL_OFFSET + Animal.Kind.values().length;
+    private static final int FEATURE_COUNT = LAKE + 1;
+
+    private final Table table;
+    private final int cursor;
+
+    DeckComposition(Table table, int cursor) {
+        this.table = table;
+        this.cursor = cursor;
+    }
+
+    /**
+     * Table des nombres de tuiles présentant chaque caractéristique, pour chaque index d'un tableau de tuiles donné,
+     * partagée par toutes les versions successives d'un tas et calculée au premier besoin.
+     */
+    static final class Table {
+        private final Tile[] tiles;
+        // à l'index FEATURE_COUNT * i + f, le nombre de tuiles d'index supérieur ou égal à i présentant f
+        private volatile short[] suffixCounts;
+
+        Table(Tile[] tiles) {
+            this.tiles = tiles;
+        }
+
+        //retourne le nombre de tuiles d'index supérieur ou égal à celui donné présentant la caractéristique donnée
+        private int count(int index, int feature) {
+            short[] counts = suffixCounts;
+            if (counts == null) {
+                counts = computeSuffixCounts(tiles);
+                suffixCounts = counts;
+            }
+            return counts[index * FEATURE_COUNT + feature];
+        }
+    }
+
+    /**
+     * Retourne le nombre de tuiles restant dans le tas.
+     *
+     * @return Le nombre de tuiles restantes.
+     */
+    public int size() {
+        return table.tiles.length - cursor;
+    }
+
+    /**
+     * Retourne le nombre de tuiles restantes ayant une zone dotée du pouvoir spécial donné.
+     *
+     * @param specialPower Le pouvoir spécial.
+     * @return Le nombre de tuiles restantes dotées de ce pouvoir.
+     */
+    public int count(Zone.SpecialPower specialPower) {
+        return table.count(cursor, POWER_OFFSET + specialPower.ordinal());
+    }
+
+    /**
+     * Retourne le nombre de tuiles restantes ayant au moins une forêt de la sorte donnée.
+     *
+     * @param forestKind La sorte de forêt.
+     * @return Le nombre de tuiles restantes ayant une telle forêt.
+     */
+    public int count(Zone.Forest.Kind forestKind) {
+        return table.count(cursor, FOREST_OFFSET + forestKind.ordinal());
+    }
+
+    /**
+     * Retourne le nombre de tuiles restantes ayant au moins un animal de la sorte donnée.
+     *
+     * @param animalKind La sorte d'animal.
+     * @return Le nombre de tuiles restantes ayant un tel animal.
+     */
+    public int count(Animal.Kind animalKind) {
+        return table.count(cursor, ANIMAL_OFFSET + animalKind.ordinal());
+    }
+
+    /**
+     * Retourne le nombre de tuiles restantes ayant un lac.
+     *
+     * @return Le nombre de tuiles restantes ayant un lac.
+     */
+    public int lakeCount() {
+        return table.count(cursor, LAKE);
+    }
+
+    /**
+     * Retourne le nombre de tuiles restantes pouvant être posées, dans au moins une rotation, à la position
+     * d'insertion donnée du plateau donné.
+     *
+     * @param board Le plateau.
+     * @param pos La position d'insertion.
+     * @return Le nombre de tuiles restantes pouvant être posées à cette position.
+     * @throws IllegalArgumentException si la position n'est pas une position d'insertion du plateau.
+     */
+    public int countFitting(Board board, Pos pos) {
+        Preconditions.checkArgument(Math.abs(pos.x()) <= Board.REACH && Math.abs(pos.y()) <= Board.REACH);
+        Preconditions.checkArgument(board.tileAt(pos) == null);
+        int constraint = board.sideConstraintAt(pos);
+        // une case dont aucune voisine n'est occupée n'est pas une position d'insertion
+        Preconditions.checkArgument(constraint != (1 << 2 * Direction.COUNT) - 1);
+        int count = 0;
+        for (int signature = 0; signature < 1 << 2 * Direction.COUNT; signature++) {
+            if (Board.isValidSignature(signature) && Board.satisfies(signature, constraint)) {
+                count += table.count(cursor, signatureIndex(signature));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Retourne la probabilité que la prochaine tuile tirée puisse être posée, dans au moins une rotation, à la
+     * position d'insertion donnée du plateau donné, toutes les tuiles restantes étant également probables.
+     *
+     * @param board Le plateau.
+     * @param pos La position d'insertion.
+     * @return La probabilité que la prochaine tuile puisse être posée à cette position, ou 0 si le tas est vide.
+     * @throws IllegalArgumentException si la position n'est pas une position d'insertion du plateau.
+     */
+    public double fittingProbability(Board board, Pos pos) {
+        int fitting = countFitting(board, pos);
+        return size() == 0 ? 0 : (double) fitting / size();
+    }
+
+    //retourne l'index dans les lignes de la table de la signature de côtés donnée, dont les sortes sont lues en base 3
+    private static int signatureIndex(int signature) {
+        int index = 0;
+        for (int i = Direction.COUNT - 1; i >= 0; i--) {
+            index = index * 3 + (signature >>> 2 * i & 3);
+        }
+        return index;
+    }
+
+    //calcule la table des nombres de tuiles présentant chaque caractéristique, du dernier index au premier
+    private static short[] computeSuffixCounts(Tile[] tiles) {
+        short[] counts = new short[(tiles.length + 1) * FEATURE_COUNT];
+        boolean[] features = new boolean[FEATURE_COUNT];
+        for (int i = tiles.length - 1; i >= 0; i--) {
+            System.arraycopy(counts, (i + 1) * FEATURE_COUNT, counts, i * FEATURE_COUNT, FEATURE_COUNT);
+            Arrays.fill(features, false);
+            features[signatureIndex(tiles[i].sideSignature())] = true;
+            for (Zone zone : tiles[i].zones()) {
+                if (zone.specialPower() != null) features[POWER_OFFSET + zone.specialPower().ordinal()] = true;
+                switch (zone) {
+                    case Zone.Forest forest -> features[FOREST_OFFSET + forest.kind().ordinal()] = true;
+                    case Zone.Meadow meadow -> {
+                        for (Animal animal : meadow.animals()) {
+                            features[ANIMAL_OFFSET + animal.kind().ordinal()] = true;
+                        }
+                    }
+                    case Zone.Lake _ -> features[LAKE] = true;
+                    case Zone.River _ -> {}
+                }
+            }
+            for (int f = 0; f < FEATURE_COUNT; f++) {
+                if (features[f]) counts[i * FEATURE_COUNT + f] += 1;
+            }
+        }
+        return counts;
+    }
+}
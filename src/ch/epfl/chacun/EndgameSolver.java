@@ -0,0 +1,269 @@
+package ch.epfl.chacun;
+
+import java.io.Serial;
+import java.util.*;
+
+/**
+ * Recherche exacte de la meilleure action en fin de partie, lorsqu'il ne reste que quelques tuiles à jouer.
+ * <p>
+ * L'ordre des tuiles restantes étant inconnu des joueurs, la recherche est un « expectimax » : à chaque pose de tuile
+ * autre que la première, la tuile tirée est considérée comme l'une quelconque des tuiles restantes de son tas pouvant
+ * être posée, avec la même probabilité, et la valeur de l'état est la moyenne des valeurs obtenues. Chaque joueur
+ * choisit l'action maximisant sa propre marge, c.-à-d. la différence entre ses points et ceux du meilleur de ses
+ * adversaires. Les états déjà évalués sont mémorisés dans une table de transposition, dont les clefs ne décrivent que
+ * le contenu de l'état, sans le texte des messages ni l'ordre de pose des tuiles, de sorte qu'un même état atteint
+ * par des suites d'actions différentes y est retrouvé.
+ * <p>
+ * Cette recherche fait deux approximations aux nœuds de hasard. D'abord, les tuiles restantes du tas, dont l'ordre
+ * est inconnu, sont rangées par identifiant dans les états explorés : les tirages suivants de la branche se font dans
+ * cet ordre, et le moteur y défausse pour de bon chaque tuile qui ne peut pas être posée au moment où elle est tirée.
+ * Ensuite, les tuiles qui ne peuvent pas être posées sur le plateau courant ne comptent pas parmi les issues du nœud,
+ * même si elles auraient pu le devenir plus tard.
+ * <p>
+ * La recherche procède par approfondissement itératif jusqu'à une échéance : si elle n'a pas pu atteindre la fin de
+ * la partie à temps, les états à la profondeur limite sont évalués selon les points déjà obtenus, et le résultat de la
+ * dernière profondeur entièrement explorée est retourné.
+ *
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
+public final class EndgameSolver {
+
+    // au-delà de ce nombre d'entrées, la table de transposition est vidée
+    private static final int MAX_TABLE_SIZE = 1 << 18;
+
+    private final long deadline;
+    private final Map<StateKey, Entry> table = new HashMap<>();
+
+    private EndgameSolver(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * La meilleure action trouvée par la recherche.
+     *
+     * @param action L'action à jouer.
+     * @param expectedMargin La marge de points finale espérée du joueur courant si chacun joue au mieux.
+     * @param depth La profondeur, en nombre d'actions, de la dernière recherche terminée.
+     * @param exact Vrai si la recherche a atteint la fin de la partie dans toutes les branches.
+     */
+    public record Solution(GameState.Successor action, double expectedMargin, int depth, boolean exact) {}
+
+    // valeur d'un état : les points espérés de chaque joueur, indexés par couleur, et leur exactitude
+    private record Value(double[] points, boolean exact) {}
+
+    // entrée de la table de transposition
+    private record Entry(int depth, Value value) {}
+
+    // clef de la table de transposition : description compacte de tout ce dont dépend la suite de la partie, c.-à-d.
+    // l'action suivante, l'ordre des joueurs, la tuile à poser, les tas, les points et le contenu du plateau, mais pas
+    // le texte des messages ni l'ordre de pose des tuiles ; son hachage n'est calculé qu'une fois
+    private static final class StateKey {
+        private final int[] data;
+        private final int hash;
+
+        private StateKey(GameState state) {
+            int[] board = state.board().contentKey();
+            List<Tile> normalTiles = state.tileDecks().normalTiles();
+            List<Tile> menhirTiles = state.tileDecks().menhirTiles();
+            List<PlayerColor> players = state.players();
+            int headerLength = 4 + players.size() + PlayerColor.ALL.size();
+            data = new int[headerLength + normalTiles.size() + 1 + menhirTiles.size() + board.length];
+
+            int i = 0;
+            PlacedTile lastPlacedTile = state.board().lastPlacedTile();
+            data[i++] = state.nextAction().ordinal();
+            data[i++] = state.tileToPlace() == null ? -1 : state.tileToPlace().id();
+            data[i++] = lastPlacedTile == null ? -1 : lastPlacedTile.id();
+            data[i++] = players.size();
+            for (PlayerColor player : players) data[i++] = player.ordinal();
+            for (PlayerColor player : PlayerColor.ALL) data[i++] = state.messageBoard().points().getOrDefault(player, 0);
+            for (Tile tile : normalTiles) data[i++] = tile.id();
+            data[i++] = -1;
+            for (Tile tile : menhirTiles) data[i++] = tile.id();
+            System.arraycopy(board, 0, data, i, board.length);
+            hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateKey that && hash == that.hash && Arrays.equals(data, that.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // levée lorsque l'échéance est dépassée, pour abandonner la recherche en cours
+    private static final class DeadlineExceeded extends RuntimeException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private DeadlineExceeded() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Recherche la meilleure action du joueur courant dans l'état donné, jusqu'à l'échéance donnée. La recherche à
+     * la profondeur d'une action est toujours menée à terme, de sorte qu'une solution est retournée même si
+     * l'échéance est déjà dépassée.
+     *
+     * @param state L'état de jeu à partir duquel rechercher.
+     * @param timeBudgetMillis Le temps accordé à la recherche, en millisecondes.
+     * @return La meilleure action trouvée, ou null s'il n'y a aucune action à jouer.
+     * @throws IllegalArgumentException si le temps accordé est négatif.
+     */
+    public static Solution solve(GameState state, long timeBudgetMillis) {
+        Preconditions.checkArgument(timeBudgetMillis >= 0);
+        EndgameSolver solver = new EndgameSolver(System.nanoTime() + timeBudgetMillis * 1_000_000);
+        List<GameState.Successor> successors = state.successors().toList();
+        if (successors.isEmpty()) {
+            return null;
+        }
+
+        Solution solution = null;
+        for (int depth = 1; solution == null || !solution.exact(); depth++) {
+            try {
+                solution = solver.solveRoot(state, successors, depth, solution != null);
+            } catch (DeadlineExceeded e) {
+                break;
+            }
+        }
+        return solution;
+    }
+
+    //cherche la meilleure action à la racine, à la profondeur donnée
+    private Solution solveRoot(GameState state, List<GameState.Successor> successors, int depth, boolean hasDeadline) {
+        PlayerColor player = state.currentPlayer();
+        GameState.Successor bestAction = null;
+        double bestMargin = Double.NEGATIVE_INFINITY;
+        boolean exact = true;
+        for (GameState.Successor successor : successors) {
+            Value value = value(successor.gameState(), depth - 1, hasDeadline);
+            double margin = margin(value.points(), player, state.players());
+            exact &= value.exact();
+            if (margin > bestMargin) {
+                bestMargin = margin;
+                bestAction = successor;
+            }
+        }
+        return new Solution(bestAction, bestMargin, depth, exact);
+    }
+
+    //évalue l'état donné en explorant les actions jusqu'à la profondeur donnée
+    private Value value(GameState state, int depth, boolean hasDeadline) {
+        if (state.nextAction() == GameState.Action.END_GAME) {
+            return new Value(points(state), true);
+        }
+        if (depth == 0) {
+            return new Value(points(state), false);
+        }
+        if (hasDeadline && System.nanoTime() > deadline) {
+            throw new DeadlineExceeded();
+        }
+
+        StateKey key = new StateKey(state);
+        Entry entry = table.get(key);
+        if (entry != null && (entry.value().exact() || entry.depth() >= depth)) {
+            return entry.value();
+        }
+
+        Value value = state.nextAction() == GameState.Action.PLACE_TILE
+                ? chanceValue(state, depth, hasDeadline)
+                : decisionValue(state, depth, hasDeadline);
+
+        if (table.size() >= MAX_TABLE_SIZE) {
+            table.clear();
+        }
+        table.put(key, new Entry(depth, value));
+        return value;
+    }
+
+    //évalue un état dont la tuile à poser vient d'être tirée : moyenne sur les tuiles posables qui auraient pu l'être
+    private Value chanceValue(GameState state, int depth, boolean hasDeadline) {
+        Tile.Kind kind = state.tileToPlace().kind();
+        List<Tile> pool = new ArrayList<>(kind == Tile.Kind.MENHIR
+                ? state.tileDecks().menhirTiles()
+                : state.tileDecks().normalTiles());
+        pool.add(state.tileToPlace());
+        pool.sort(Comparator.comparingInt(Tile::id));
+
+        double[] sum = new double[PlayerColor.ALL.size()];
+        boolean exact = true;
+        int outcomes = 0;
+        for (Tile tile : pool) {
+            GameState drawn = withTileDrawn(state, tile, pool);
+            if (drawn.successors().findAny().isEmpty()) {
+                // une tuile ne pouvant être posée serait défaussée avant que la suivante soit tirée
+                continue;
+            }
+            Value value = decisionValue(drawn, depth, hasDeadline);
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += value.points()[i];
+            }
+            exact &= value.exact();
+            outcomes += 1;
+        }
+
+        if (outcomes == 0) {
+            return decisionValue(state, depth, hasDeadline);
+        }
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] /= outcomes;
+        }
+        return new Value(sum, exact);
+    }
+
+    //évalue un état où le joueur courant choisit l'action maximisant sa marge
+    private Value decisionValue(GameState state, int depth, boolean hasDeadline) {
+        PlayerColor player = state.currentPlayer();
+        Value best = null;
+        double bestMargin = Double.NEGATIVE_INFINITY;
+        boolean exact = true;
+        for (GameState.Successor successor : state.successors().toList()) {
+            Value value = value(successor.gameState(), depth - 1, hasDeadline);
+            double margin = margin(value.points(), player, state.players());
+            exact &= value.exact();
+            if (margin > bestMargin) {
+                bestMargin = margin;
+                best = value;
+            }
+        }
+        return best == null ? new Value(points(state), true) : new Value(best.points(), exact);
+    }
+
+    //retourne l'état où la tuile donnée a été tirée, les autres tuiles du tas étant rangées par identifiant
+    private static GameState withTileDrawn(GameState state, Tile tile, List<Tile> pool) {
+        List<Tile> rest = new ArrayList<>(pool);
+        rest.remove(tile);
+        TileDecks decks = state.tileDecks();
+        TileDecks newDecks = tile.kind() == Tile.Kind.MENHIR
+                ? new TileDecks(decks.startTiles(), decks.normalTiles(), rest)
+                : new TileDecks(decks.startTiles(), rest, decks.menhirTiles());
+        return new GameState(state.players(), newDecks, tile, state.board(), GameState.Action.PLACE_TILE,
+                state.messageBoard());
+    }
+
+    //retourne les points actuels de chaque joueur, indexés par couleur
+    private static double[] points(GameState state) {
+        double[] points = new double[PlayerColor.ALL.size()];
+        for (Map.Entry<PlayerColor, Integer> entry : state.messageBoard().points().entrySet()) {
+            points[entry.getKey().ordinal()] = entry.getValue();
+        }
+        return points;
+    }
+
+    //retourne la différence entre les points du joueur donné et ceux du meilleur de ses adversaires
+    private static double margin(double[] points, PlayerColor player, List<PlayerColor> players) {
+        double bestOpponent = Double.NEGATIVE_INFINITY;
+        for (PlayerColor opponent : players) {
+            if (opponent != player) {
+                bestOpponent = Math.max(bestOpponent, points[opponent.ordinal()]);
+            }
+        }
+        return points[player.ordinal()] - bestOpponent;
+    }
+}
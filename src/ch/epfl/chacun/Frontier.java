@@ -0,0 +1,155 @@
+package ch.epfl.chacun;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Positions d'insertion d'un plateau, rangées dans l'ordre de leur encodage par {@link ActionEncoder}, c.-à-d. par
+ * x, puis par y.
+ * <p>
+ * Les cases du plateau sont numérotées dans cet ordre, et l'ensemble est représenté par un vecteur de bits dont
+ * chaque mot est accompagné du nombre de positions des mots qui le précèdent. Le rang d'une position se calcule
+ * donc en temps constant, et la position de rang donné en temps logarithmique, quel que soit le nombre de
+ * positions. L'ajout d'une tuile ne copie que ces deux petits tableaux.
+ *
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
+final class Frontier {
+
+    private static final int WORDS = (Board.SIZE + Long.SIZE - 1) / Long.SIZE;
+
+    /**
+     * Les positions d'insertion du plateau vide, qui n'en a aucune.
+     */
+    static final Frontier EMPTY = new Frontier(new long[WORDS], new int[WORDS + 1]);
+
+    // bit de la case d'index (x + REACH) * LENGTH + (y + REACH), et nombre de bits des mots précédant chaque mot
+    private final long[] bits;
+    private final int[] ranks;
+
+    private Frontier(long[] bits, int[] ranks) {
+        this.bits = bits;
+        this.ranks = ranks;
+    }
+
+    /**
+     * Retourne les positions d'insertion après la pose d'une tuile à la position donnée : celle-ci en est retirée, et
+     * ses voisines situées sur le plateau et libres y sont ajoutées.
+     *
+     * @param pos La position de la tuile posée.
+     * @param isFree Le prédicat indiquant si une case voisine est libre.
+     * @return Les positions d'insertion après la pose.
+     */
+    Frontier withTileAt(Pos pos, Predicate<Pos> isFree) {
+        long[] updatedBits = bits.clone();
+        if (isOnBoard(pos)) clear(updatedBits, cellIndex(pos));
+        for (Direction direction : Direction.ALL) {
+            Pos neighbor = pos.neighbor(direction);
+            if (isOnBoard(neighbor) && isFree.test(neighbor)) set(updatedBits, cellIndex(neighbor));
+        }
+        int[] updatedRanks = new int[WORDS + 1];
+        for (int w = 0; w < WORDS; w++) {
+            updatedRanks[w + 1] = updatedRanks[w] + Long.bitCount(updatedBits[w]);
+        }
+        return new Frontier(updatedBits, updatedRanks);
+    }
+
+    /**
+     * Retourne le nombre de positions d'insertion.
+     *
+     * @return Le nombre de positions d'insertion.
+     */
+    int size() {
+        return ranks[WORDS];
+    }
+
+    /**
+     * Retourne vrai si et seulement si la position donnée est une position d'insertion.
+     *
+     * @param pos La position.
+     * @return Vrai si la position est une position d'insertion.
+     */
+    boolean contains(Pos pos) {
+        if (!isOnBoard(pos)) return false;
+        int cell = cellIndex(pos);
+        return (bits[cell >>> 6] & 1L << cell) != 0;
+    }
+
+    /**
+     * Retourne le rang de la position donnée parmi les positions d'insertion, dans l'ordre de leur encodage.
+     *
+     * @param pos La position.
+     * @return Le rang de la position, ou -1 si ce n'est pas une position d'insertion.
+     */
+    int rank(Pos pos) {
+        if (!contains(pos)) return -1;
+        int cell = cellIndex(pos);
+        return ranks[cell >>> 6] + Long.bitCount(bits[cell >>> 6] & (1L << cell) - 1);
+    }
+
+    /**
+     * Retourne la position d'insertion de rang donné, dans l'ordre de leur encodage.
+     *
+     * @param rank Le rang.
+     * @return La position d'insertion de ce rang.
+     * @throws IndexOutOfBoundsException si le rang est négatif, ou supérieur ou égal au nombre de positions.
+     */
+    Pos select(int rank) {
+        Objects.checkIndex(rank, size());
+        // recherche dichotomique du dernier mot dont les prédécesseurs contiennent au plus rank positions
+        int w = 0;
+        for (int high = WORDS - 1; w < high; ) {
+            int middle = (w + high + 1) >>> 1;
+            if (ranks[middle] <= rank) w = middle;
+            else high = middle - 1;
+        }
+        long word = bits[w];
+        for (int i = ranks[w]; i < rank; i++) {
+            word &= word - 1;
+        }
+        return cellPos(w * Long.SIZE + Long.numberOfTrailingZeros(word));
+    }
+
+    /**
+     * Retourne les positions d'insertion, dans l'ordre de leur encodage.
+     *
+     * @return La liste non modifiable des positions d'insertion.
+     */
+    List<Pos> positions() {
+        List<Pos> positions = new ArrayList<>(size());
+        for (int w = 0; w < WORDS; w++) {
+            for (long word = bits[w]; word != 0; word &= word - 1) {
+                positions.add(cellPos(w * Long.SIZE + Long.numberOfTrailingZeros(word)));
+            }
+        }
+        return List.copyOf(positions);
+    }
+
+    //retourne vrai si la position donnée est sur le plateau
+    private static boolean isOnBoard(Pos pos) {
+        return Math.abs(pos.x()) <= Board.REACH && Math.abs(pos.y()) <= Board.REACH;
+    }
+
+    //retourne l'index de la case de la position donnée, dans l'ordre de l'encodage
+    private static int cellIndex(Pos pos) {
+        return (pos.x() + Board.REACH) * Board.LENGTH + (pos.y() + Board.REACH);
+    }
+
+    //retourne la position de la case d'index donné
+    private static Pos cellPos(int cell) {
+        return new Pos(cell / Board.LENGTH - Board.REACH, cell % Board.LENGTH - Board.REACH);
+    }
+
+    //met à 1 le bit de la case d'index donné
+    private static void set(long[] bits, int cell) {
+        bits[cell >>> 6] |= 1L << cell;
+    }
+
+    //met à 0 le bit de la case d'index donné
+    private static void clear(long[] bits, int cell) {
+        bits[cell >>> 6] &= ~(1L << cell);
+    }
+}
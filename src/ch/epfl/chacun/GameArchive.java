@@ -0,0 +1,405 @@
+package ch.epfl.chacun;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Archive de parties terminées, stockées dans un seul fichier et accessibles directement par leur identifiant.
+ * <p>
+ * Le fichier commence par un nombre magique et la version du format, suivis des parties, chacune formée de son
+ * identifiant, de la graine avec laquelle ses tuiles ont été mélangées, de la liste de ses joueurs et du flot compacté
+ * de ses actions (voir {@link ActionEncoder#pack(List)}). Viennent ensuite l'index, qui associe à chaque
+ * identifiant de partie, par ordre croissant, la position de celle-ci dans le fichier, puis un pied donnant la
+ * position de l'index et le nombre de parties.
+ * <p>
+ * La lecture projette le fichier en mémoire : la recherche d'une partie est une recherche dichotomique dans l'index,
+ * et ses actions sont rejouées directement depuis la projection, sans que les autres parties soient lues.
+ *
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
+public final class GameArchive {
+
+    private static final int MAGIC = 0x43_68_41_72; // "ChAr"
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES;
+    private static final int INDEX_ENTRY_BYTES = 2 * Long.BYTES;
+    private static final int FOOTER_BYTES = Long.BYTES + 2 * Integer.BYTES;
+    // identifiant, graine et nombre de joueurs d'une partie, et en-tête de son flot d'actions
+    private static final int GAME_HEADER_BYTES = 2 * Long.BYTES + 1;
+    private static final int ACTIONS_HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final ByteBuffer file;
+    private final int indexOffset;
+    private final int size;
+
+    private GameArchive(ByteBuffer file, int indexOffset, int size) {
+        this.file = file;
+        this.indexOffset = indexOffset;
+        this.size = size;
+    }
+
+    /**
+     * Partie archivée.
+     *
+     * @param id L'identifiant de la partie.
+     * @param seed La graine avec laquelle les tuiles ont été mélangées.
+     * @param players Les couleurs des joueurs, dans l'ordre de jeu.
+     * @param actions Le tampon contenant le flot compacté des actions de la partie, prêt à être lu.
+     */
+    public record Game(long id, long seed, List<PlayerColor> players, ByteBuffer actions) {
+
+        /**
+         * Retourne l'état initial de la partie, la tuile de départ étant posée.
+         *
+         * @return L'état initial de la partie.
+         */
+        public GameState initialState() {
+            return GameLogVerifier.initialState(seed, players);
+        }
+
+        /**
+         * Retourne le nombre d'actions de la partie.
+         *
+         * @return Le nombre d'actions.
+         */
+        public int actionCount() {
+            return actions.getInt(actions.position());
+        }
+
+        /**
+         * Rejoue les actions de la partie depuis son état initial.
+         *
+         * @return L'état final de la partie, ou null si l'une de ses actions est invalide.
+         */
+        public GameState replayed() {
+            return ActionEncoder.unpackAndApply(initialState(), actions);
+        }
+    }
+
+    /**
+     * Ouvre l'archive contenue dans le fichier donné, en le projetant en mémoire.
+     *
+     * @param path Le fichier de l'archive.
+     * @return L'archive.
+     * @throws IOException si le fichier ne peut pas être lu.
+     * @throws IllegalArgumentException si le fichier n'est pas une archive valide, ou s'il est trop grand pour être
+     *                                  projeté d'un seul tenant.
+     */
+    public static GameArchive open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Preconditions.checkArgument(channel.size() <= Integer.MAX_VALUE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return of(buffer);
+        }
+    }
+
+    //retourne l'archive contenue dans le tampon donné, après en avoir vérifié l'en-tête, le pied et l'index
+    private static GameArchive of(ByteBuffer file) {
+        int length = file.limit();
+        Preconditions.checkArgument(length >= HEADER_BYTES + FOOTER_BYTES);
+        Preconditions.checkArgument(file.getInt(0) == MAGIC && file.getShort(Integer.BYTES) == VERSION);
+        Preconditions.checkArgument(file.getInt(length - Integer.BYTES) == MAGIC);
+        long indexOffset = file.getLong(length - FOOTER_BYTES);
+        int size = file.getInt(length - FOOTER_BYTES + Long.BYTES);
+        Preconditions.checkArgument(size >= 0 && indexOffset >= HEADER_BYTES
+                && indexOffset + (long) size * INDEX_ENTRY_BYTES == length - FOOTER_BYTES);
+        GameArchive archive = new GameArchive(file, (int) indexOffset, size);
+        for (int i = 0; i < size; i++) {
+            Preconditions.checkArgument(i == 0 || archive.idAt(i - 1) < archive.idAt(i));
+            long offset = archive.offsetAt(i);
+            Preconditions.checkArgument(offset >= HEADER_BYTES && offset <= indexOffset - GAME_HEADER_BYTES);
+        }
+        return archive;
+    }
+
+    /**
+     * Retourne le nombre de parties de l'archive.
+     *
+     * @return Le nombre de parties.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retourne l'identifiant de la partie d'index donné, les parties étant rangées par identifiant croissant.
+     *
+     * @param index L'index de la partie.
+     * @return L'identifiant de cette partie.
+     * @throws IndexOutOfBoundsException si l'index est négatif, ou supérieur ou égal au nombre de parties.
+     */
+    public long gameId(int index) {
+        Objects.checkIndex(index, size);
+        return idAt(index);
+    }
+
+    /**
+     * Retourne la partie d'identifiant donné, lue directement à sa position dans le fichier.
+     *
+     * @param id L'identifiant de la partie.
+     * @return La partie, ou null si l'archive ne contient aucune partie de cet identifiant.
+     * @throws IllegalArgumentException si la partie est mal formée.
+     */
+    public Game game(long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleId = idAt(middle);
+            if (middleId < id) low = middle + 1;
+            else if (middleId > id) high = middle - 1;
+            else return gameAt((int) offsetAt(middle));
+        }
+        return null;
+    }
+
+    /**
+     * Passe au consommateur donné chacune des parties de l'archive, dans l'ordre où elles ont été ajoutées, en
+     * parcourant le fichier séquentiellement.
+     *
+     * @param consumer Le consommateur des parties.
+     * @throws IllegalArgumentException si une partie est mal formée.
+     */
+    public void forEach(Consumer<Game> consumer) {
+        int offset = HEADER_BYTES;
+        while (offset < indexOffset) {
+            Game game = gameAt(offset);
+            consumer.accept(game);
+            offset = game.actions().limit();
+        }
+    }
+
+    //retourne l'identifiant de la partie d'index donné
+    private long idAt(int index) {
+        return file.getLong(indexOffset + index * INDEX_ENTRY_BYTES);
+    }
+
+    //retourne la position dans le fichier de la partie d'index donné
+    private long offsetAt(int index) {
+        return file.getLong(indexOffset + index * INDEX_ENTRY_BYTES + Long.BYTES);
+    }
+
+    //lit la partie commençant à la position donnée ; son tampon d'actions s'étend jusqu'à la fin de celles-ci
+    private Game gameAt(int offset) {
+        Preconditions.checkArgument(offset <= indexOffset - GAME_HEADER_BYTES);
+        long id = file.getLong(offset);
+        long seed = file.getLong(offset + Long.BYTES);
+        int playerCount = file.get(offset + 2 * Long.BYTES);
+        int actionsOffset = offset + GAME_HEADER_BYTES + playerCount;
+        Preconditions.checkArgument(playerCount >= 2 && playerCount <= PlayerColor.ALL.size()
+                && actionsOffset <= indexOffset - ACTIONS_HEADER_BYTES);
+        PlayerColor[] players = new PlayerColor[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            int color = file.get(offset + GAME_HEADER_BYTES + i);
+            Preconditions.checkArgument(color >= 0 && color < PlayerColor.ALL.size());
+            players[i] = PlayerColor.ALL.get(color);
+        }
+        int bitCount = file.getInt(actionsOffset + Integer.BYTES);
+        Preconditions.checkArgument(bitCount >= 0);
+        long actionsEnd = actionsOffset + ACTIONS_HEADER_BYTES + (bitCount + 7L) / 8;
+        Preconditions.checkArgument(actionsEnd <= indexOffset);
+        ByteBuffer actions = file.duplicate().limit((int) actionsEnd).position(actionsOffset);
+        return new Game(id, seed, List.of(players), actions);
+    }
+
+    /**
+     * Ouvre l'archive contenue dans le fichier donné en vue d'y ajouter des parties, en la créant si le fichier
+     * n'existe pas ou est vide.
+     * <p>
+     * Les parties ne sont pas ajoutées au fichier lui-même, mais à une copie temporaire de ses parties, placée dans le
+     * même répertoire, qui ne remplace le fichier qu'une fois son index et son pied entièrement écrits, à la fermeture
+     * de l'écrivain. Jusque-là, et même si l'écriture est interrompue, le fichier reste l'archive valide qu'il était.
+     *
+     * @param path Le fichier de l'archive.
+     * @return L'écrivain ajoutant les parties à la fin de l'archive.
+     * @throws IOException si le fichier ne peut pas être lu, ou si sa copie ne peut pas être écrite.
+     * @throws IllegalArgumentException si le fichier n'est ni vide ni une archive valide.
+     */
+    public static Writer append(Path path) throws IOException {
+        long[] ids = new long[0];
+        long[] offsets = new long[0];
+        long end = HEADER_BYTES;
+        GameArchive archive = null;
+        if (Files.exists(path) && Files.size(path) > 0) {
+            archive = open(path);
+            ids = new long[archive.size];
+            offsets = new long[archive.size];
+            for (int i = 0; i < archive.size; i++) {
+                ids[i] = archive.idAt(i);
+                offsets[i] = archive.offsetAt(i);
+            }
+            end = archive.indexOffset;
+        }
+
+        Path directory = path.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(temporary, StandardOpenOption.WRITE);
+            if (archive != null) {
+                // copie de l'en-tête et des parties de l'archive, sans son index ni son pied
+                try (FileChannel source = FileChannel.open(path, StandardOpenOption.READ)) {
+                    for (long copied = 0; copied < end; ) {
+                        copied += source.transferTo(copied, end - copied, channel);
+                    }
+                }
+            }
+            return new Writer(path, temporary, channel, archive != null, ids, offsets, end);
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) channel.close();
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+    }
+
+    /**
+     * Écrivain ajoutant des parties à la fin d'une copie d'une archive, qui remplace celle-ci à la fermeture de
+     * l'écrivain, une fois l'index et le pied écrits.
+     */
+    public static final class Writer implements Closeable {
+        private static final int BUFFER_BYTES = 1 << 16;
+
+        private final Path path;
+        private final Path temporary;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        // identifiants et positions des parties ; les existingCount premiers, ceux de l'archive existante, sont triés
+        private long[] ids;
+        private long[] offsets;
+        private final int existingCount;
+        private final Set<Long> newIds = new HashSet<>();
+        private int size;
+        // vrai tant que les parties ont été ajoutées par identifiant croissant, l'index n'ayant alors pas à être trié
+        private boolean sorted = true;
+        // position dans le fichier de la prochaine partie
+        private long end;
+        private boolean closed;
+
+        private Writer(Path path, Path temporary, FileChannel channel, boolean exists, long[] ids, long[] offsets,
+                       long end) {
+            this.path = path;
+            this.temporary = temporary;
+            this.channel = channel;
+            this.ids = ids;
+            this.offsets = offsets;
+            this.existingCount = ids.length;
+            this.size = ids.length;
+            this.end = end;
+            // l'en-tête d'une nouvelle archive est écrit avant la position de sa première partie
+            if (!exists) buffer.putInt(MAGIC).putShort(VERSION);
+        }
+
+        /**
+         * Ajoute à l'archive la partie donnée.
+         *
+         * @param id L'identifiant de la partie, qui ne doit pas déjà figurer dans l'archive.
+         * @param seed La graine avec laquelle les tuiles ont été mélangées.
+         * @param players Les couleurs des joueurs, dans l'ordre de jeu.
+         * @param actions Les actions de la partie, encodées en base32.
+         * @throws IOException si le fichier ne peut pas être écrit.
+         * @throws IllegalArgumentException si l'identifiant figure déjà dans l'archive, ou si les joueurs ou les
+         *                                  actions sont invalides ; la partie n'est alors pas ajoutée.
+         */
+        public void append(long id, long seed, List<PlayerColor> players, List<String> actions) throws IOException {
+            append(id, seed, players, ActionEncoder.pack(actions));
+        }
+
+        /**
+         * Ajoute à l'archive la partie donnée, dont les actions sont déjà compactées.
+         *
+         * @param id L'identifiant de la partie, qui ne doit pas déjà figurer dans l'archive.
+         * @param seed La graine avec laquelle les tuiles ont été mélangées.
+         * @param players Les couleurs des joueurs, dans l'ordre de jeu.
+         * @param actions Le tampon contenant le flot compacté des actions, de sa position à sa limite ; il n'est pas
+         *                modifié.
+         * @throws IOException si le fichier ne peut pas être écrit.
+         * @throws IllegalArgumentException si l'identifiant figure déjà dans l'archive, ou si les joueurs ou le flot
+         *                                  d'actions sont invalides ; la partie n'est alors pas ajoutée.
+         */
+        public void append(long id, long seed, List<PlayerColor> players, ByteBuffer actions) throws IOException {
+            Preconditions.checkArgument(!closed);
+            Preconditions.checkArgument(Arrays.binarySearch(ids, 0, existingCount, id) < 0 && !newIds.contains(id));
+            Preconditions.checkArgument(players.size() >= 2 && players.size() <= PlayerColor.ALL.size());
+            new ActionEncoder.PackedReader(actions);
+            int length = GAME_HEADER_BYTES + players.size() + actions.remaining();
+            if (length > buffer.remaining()) flush();
+            ByteBuffer target = length > buffer.capacity() ? ByteBuffer.allocate(length) : buffer;
+            target.putLong(id).putLong(seed).put((byte) players.size());
+            for (PlayerColor player : players) target.put((byte) player.ordinal());
+            target.put(actions.duplicate());
+            if (target != buffer) {
+                target.flip();
+                while (target.hasRemaining()) channel.write(target);
+            }
+
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(16, 2 * size));
+                offsets = Arrays.copyOf(offsets, ids.length);
+            }
+            sorted &= size == 0 || ids[size - 1] < id;
+            newIds.add(id);
+            ids[size] = id;
+            offsets[size] = end;
+            size += 1;
+            end += length;
+        }
+
+        /**
+         * Écrit l'index et le pied de l'archive, puis remplace l'archive par sa copie ainsi complétée. Si l'écriture
+         * échoue, la copie est supprimée et l'archive reste inchangée. Un écrivain déjà fermé n'est pas modifié.
+         *
+         * @throws IOException si le fichier ne peut pas être écrit ou remplacé.
+         */
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            boolean written = false;
+            try {
+                flush();
+                Integer[] order = null;
+                if (!sorted) {
+                    order = new Integer[size];
+                    for (int i = 0; i < size; i++) order[i] = i;
+                    Arrays.sort(order, Comparator.comparingLong(i -> ids[i]));
+                }
+                for (int i = 0; i < size; i++) {
+                    int entry = order == null ? i : order[i];
+                    if (buffer.remaining() < INDEX_ENTRY_BYTES) flush();
+                    buffer.putLong(ids[entry]).putLong(offsets[entry]);
+                }
+                if (buffer.remaining() < FOOTER_BYTES) flush();
+                buffer.putLong(end).putInt(size).putInt(MAGIC);
+                flush();
+                channel.force(true);
+                written = true;
+            } finally {
+                channel.close();
+                if (!written) Files.deleteIfExists(temporary);
+            }
+            try {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+        }
+
+        //écrit le contenu du tampon dans le fichier
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+    }
+}
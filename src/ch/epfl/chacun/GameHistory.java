@@ -0,0 +1,268 @@
+package ch.epfl.chacun;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Historique d'une partie permettant d'annuler et de rétablir des actions.
+ * <p>
+ * Les états de jeu des {@code capacity} actions les plus récentes sont conservés dans un anneau ; comme deux états
+ * successifs partagent toutes les parties du plateau et des partitions que l'action n'a pas modifiées, ainsi que les
+ * messages de leur tableau d'affichage, le coût en
+ * mémoire de chaque état conservé est proportionnel à ce que l'action a changé. Les états plus anciens sont évincés
+ * de l'anneau et reconstruits au besoin en rejouant le journal de la partie depuis son instantané le plus proche.
+ * <p>
+ * Contrairement à la plupart des classes du jeu, l'historique est modifiable.
+ *
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
+public final class GameHistory {
+
+    /**
+     * Le nombre d'états conservés dans l'anneau par défaut.
+     */
+    public static final int DEFAULT_CAPACITY = 32;
+
+    private final GameState[] states;
+    private final int[] moveIndexes;
+    private GameLog log;
+    private int position;
+
+    /**
+     * Crée un historique dont l'état courant est le dernier état du journal donné.
+     *
+     * @param log Le journal de la partie.
+     * @param capacity Le nombre maximal d'états conservés dans l'anneau.
+     * @throws IllegalArgumentException si la capacité n'est pas strictement positive.
+     */
+    public GameHistory(GameLog log, int capacity) {
+        Preconditions.checkArgument(capacity > 0);
+        this.log = Objects.requireNonNull(log);
+        this.states = new GameState[capacity];
+        this.moveIndexes = new int[capacity];
+        Arrays.fill(moveIndexes, -1);
+        this.position = log.size();
+        store(position, log.lastState());
+    }
+
+    /**
+     * Crée un historique dont l'état courant est le dernier état du journal donné, avec la capacité par défaut.
+     *
+     * @param log Le journal de la partie.
+     */
+    public GameHistory(GameLog log) {
+        this(log, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Ajoute l'action donnée à l'historique. Si des actions avaient été annulées, elles ne peuvent plus être rétablies.
+     *
+     * @param stateAction L'action encodée, accompagnée de l'état de jeu résultant de son application à l'état courant.
+     */
+    public void record(ActionEncoder.StateAction stateAction) {
+        if (position < log.size()) {
+            log = log.truncated(position);
+            for (int i = 0; i < moveIndexes.length; i++) {
+                if (moveIndexes[i] > position) {
+                    moveIndexes[i] = -1;
+                    states[i] = null;
+                }
+            }
+        }
+        log = log.withAction(stateAction);
+        position += 1;
+        store(position, stateAction.gameState());
+    }
+
+    /**
+     * Retourne vrai si et seulement si une action peut être annulée.
+     *
+     * @return Vrai si l'état courant n'est pas l'état initial du journal.
+     */
+    public boolean canUndo() {
+        return position > 0;
+    }
+
+    /**
+     * Retourne vrai si et seulement si une action annulée peut être rétablie.
+     *
+     * @return Vrai si l'état courant n'est pas le dernier état du journal.
+     */
+    public boolean canRedo() {
+        return position < log.size();
+    }
+
+    /**
+     * Annule la dernière action.
+     *
+     * @return L'état de jeu précédant l'action annulée.
+     * @throws IllegalArgumentException si aucune action ne peut être annulée.
+     */
+    public GameState undo() {
+        Preconditions.checkArgument(canUndo());
+        position -= 1;
+        return current();
+    }
+
+    /**
+     * Rétablit la dernière action annulée.
+     *
+     * @return L'état de jeu suivant l'action rétablie.
+     * @throws IllegalArgumentException si aucune action ne peut être rétablie.
+     */
+    public GameState redo() {
+        Preconditions.checkArgument(canRedo());
+        position += 1;
+        return current();
+    }
+
+    /**
+     * Retourne l'état de jeu courant, en le reconstruisant à partir du journal s'il a été évincé de l'anneau.
+     *
+     * @return L'état de jeu courant.
+     */
+    public GameState current() {
+        int slot = position % states.length;
+        if (moveIndexes[slot] != position) {
+            store(position, log.stateAt(position));
+        }
+        return states[slot];
+    }
+
+    /**
+     * Retourne le nombre d'actions menant à l'état courant.
+     *
+     * @return Le nombre d'actions menant à l'état courant.
+     */
+    public int position() {
+        return position;
+    }
+
+    /**
+     * Retourne le nombre maximal d'états conservés dans l'anneau.
+     *
+     * @return La capacité de l'anneau.
+     */
+    public int capacity() {
+        return states.length;
+    }
+
+    /**
+     * Retourne les actions menant à l'état courant, encodées en base32.
+     *
+     * @return La liste non modifiable des actions menant à l'état courant.
+     */
+    public List<String> actions() {
+        return log.actions().subList(0, position);
+    }
+
+    /**
+     * Retourne le journal complet de la partie, y compris les actions annulées.
+     *
+     * @return Le journal de la partie.
+     */
+    public GameLog log() {
+        return log;
+    }
+
+    /**
+     * Retourne une estimation de la mémoire retenue par l'historique, en octets : les états de l'anneau, les
+     * instantanés et les actions du journal. Chaque objet partagé n'est compté qu'une fois, et les objets du
+     * catalogue (tuiles, zones, animaux) ainsi que le générateur de textes, qui existent indépendamment de
+     * l'historique, ne sont pas comptés. L'estimation suppose une machine virtuelle 64 bits à références compressées.
+     *
+     * @return Le nombre estimé d'octets retenus par l'historique.
+     */
+    public long retainedBytes() {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        long bytes = 0;
+        for (GameState state : states) {
+            bytes += retainedBytes(state, visited);
+        }
+        // l'état après un multiple de l'intervalle est l'instantané lui-même, rien n'est rejoué
+        for (int i = 0; i < log.size(); i += log.snapshotInterval()) {
+            bytes += retainedBytes(log.stateAt(i), visited);
+        }
+        bytes += retainedBytes(log.lastState(), visited);
+        for (String action : log.actions()) {
+            bytes += retainedBytes(action, visited);
+        }
+        return bytes;
+    }
+
+    //place l'état donné dans l'anneau, en évinçant celui qui occupait sa case
+    private void store(int moveIndex, GameState state) {
+        int slot = moveIndex % states.length;
+        moveIndexes[slot] = moveIndex;
+        states[slot] = state;
+    }
+
+    //estime la taille des objets accessibles depuis l'objet donné qui n'ont pas encore été visités
+    private static long retainedBytes(Object object, Set<Object> visited) {
+        if (object == null || isShared(object) || !visited.add(object)) {
+            return 0;
+        }
+        return switch (object) {
+            case String s -> 40 + align(s.length());
+            case boolean[] array -> align(16 + array.length);
+            case byte[] array -> align(16 + array.length);
+            case short[] array -> align(16 + 2L * array.length);
+            case char[] array -> align(16 + 2L * array.length);
+            case int[] array -> align(16 + 4L * array.length);
+            case float[] array -> align(16 + 4L * array.length);
+            case long[] array -> align(16 + 8L * array.length);
+            case double[] array -> align(16 + 8L * array.length);
+            case Object[] array -> {
+                long bytes = align(16 + 4L * array.length);
+                for (Object element : array) bytes += retainedBytes(element, visited);
+                yield bytes;
+            }
+            case Map<?, ?> map -> {
+                long bytes = 64 + 36L * map.size();
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    bytes += retainedBytes(entry.getKey(), visited) + retainedBytes(entry.getValue(), visited);
+                }
+                yield bytes;
+            }
+            // les listes de messages partagent leur tableau, qui ne doit être compté qu'une fois : elles sont
+            // parcourues champ par champ
+            case Collection<?> collection when !(collection instanceof AppendOnlyList<?>) -> {
+                long bytes = collection instanceof Set<?> ? 64 + 36L * collection.size() : align(32 + 4L * collection.size());
+                for (Object element : collection) bytes += retainedBytes(element, visited);
+                yield bytes;
+            }
+            default -> {
+                long bytes = 12;
+                for (Class<?> c = object.getClass(); c != Object.class; c = c.getSuperclass()) {
+                    for (Field field : c.getDeclaredFields()) {
+                        if (Modifier.isStatic(field.getModifiers())) continue;
+                        bytes += field.getType() == long.class || field.getType() == double.class ? 8 : 4;
+                        if (!field.getType().isPrimitive()) {
+                            field.setAccessible(true);
+                            try {
+                                bytes += retainedBytes(field.get(object), visited);
+                            } catch (IllegalAccessException e) {
+                                throw new Error(e);
+                            }
+                        }
+                    }
+                }
+                yield align(bytes);
+            }
+        };
+    }
+
+    //retourne vrai si l'objet existe indépendamment de l'historique et ne doit donc pas être compté
+    private static boolean isShared(Object object) {
+        return object instanceof Tile || object instanceof Zone || object instanceof TileSide
+                || object instanceof Animal || object instanceof Enum<?> || object instanceof TextMaker
+                || object instanceof Number || object instanceof Boolean;
+    }
+
+    //arrondit la taille donnée au multiple de 8 supérieur
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
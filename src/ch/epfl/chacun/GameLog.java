@@ -0,0 +1,199 @@
+package ch.epfl.chacun;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Journal d'une partie : la liste des actions encodées en base32 depuis un état initial, accompagnée d'un instantané
+ * de l'état de jeu toutes les {@code snapshotInterval} actions.
+ * <p>
+ * L'état après n'importe quelle action s'obtient en partant de l'instantané le plus proche qui la précède, puis en
+ * rejouant au plus {@code snapshotInterval - 1} actions, ce qui rend le coût d'un déplacement dans la partie
+ * indépendant de sa longueur.
+ * <p>
+ * Le journal est immuable : l'ajout d'une action retourne un nouveau journal. Les versions successives partagent
+ * toutefois leurs listes d'actions et d'instantanés, qui ne sont qu'étendues lorsque l'ajout se fait à partir de
+ * la version la plus récente. Les ajouts ne doivent donc pas être faits depuis plusieurs fils d'exécution à la fois.
+ *
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
+public final class GameLog {
+
+    /**
+     * Le nombre d'actions séparant deux instantanés par défaut.
+     */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 16;
+
+    private final int snapshotInterval;
+    private final List<String> actions;
+    private final List<GameState> snapshots;
+    private final int size;
+    private final GameState lastState;
+
+    private GameLog(int snapshotInterval, List<String> actions, List<GameState> snapshots, int size, GameState lastState) {
+        this.snapshotInterval = snapshotInterval;
+        this.actions = actions;
+        this.snapshots = snapshots;
+        this.size = size;
+        this.lastState = lastState;
+    }
+
+    /**
+     * Crée un journal vide partant de l'état donné.
+     *
+     * @param initialState L'état de jeu à partir duquel les actions sont appliquées.
+     * @param snapshotInterval Le nombre d'actions séparant deux instantanés.
+     * @return Un journal ne contenant aucune action.
+     * @throws IllegalArgumentException si l'intervalle n'est pas strictement positif.
+     */
+    public static GameLog of(GameState initialState, int snapshotInterval) {
+        Objects.requireNonNull(initialState);
+        Preconditions.checkArgument(snapshotInterval > 0);
+        List<GameState> snapshots = new ArrayList<>();
+        snapshots.add(initialState);
+        return new GameLog(snapshotInterval, new ArrayList<>(), snapshots, 0, initialState);
+    }
+
+    /**
+     * Crée un journal vide partant de l'état donné, avec l'intervalle d'instantanés par défaut.
+     *
+     * @param initialState L'état de jeu à partir duquel les actions sont appliquées.
+     * @return Un journal ne contenant aucune action.
+     */
+    public static GameLog of(GameState initialState) {
+        return of(initialState, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Reconstruit le journal d'une partie en rejouant les actions données depuis l'état initial,
+     * par exemple pour reprendre une partie interrompue.
+     *
+     * @param initialState L'état de jeu à partir duquel les actions sont appliquées.
+     * @param actions Les actions encodées en base32, dans l'ordre où elles ont été jouées.
+     * @param snapshotInterval Le nombre d'actions séparant deux instantanés.
+     * @return Le journal contenant toutes les actions données.
+     * @throws IllegalArgumentException si l'une des actions ne peut pas être appliquée.
+     */
+    public static GameLog replayed(GameState initialState, List<String> actions, int snapshotInterval) {
+        GameLog log = of(initialState, snapshotInterval);
+        for (String action : actions) {
+            ActionEncoder.StateAction stateAction = ActionEncoder.decodeAndApply(log.lastState, action);
+            Preconditions.checkArgument(stateAction != null);
+            log = log.withAction(stateAction);
+        }
+        return log;
+    }
+
+    /**
+     * Retourne un journal identique à celui-ci auquel l'action donnée a été ajoutée.
+     *
+     * @param stateAction L'action encodée, accompagnée de l'état de jeu résultant de son application au dernier état du journal.
+     * @return Le journal contenant l'action supplémentaire.
+     */
+    public GameLog withAction(ActionEncoder.StateAction stateAction) {
+        Objects.requireNonNull(stateAction.action());
+        Objects.requireNonNull(stateAction.gameState());
+
+        int newSize = size + 1;
+        boolean isSnapshot = newSize % snapshotInterval == 0;
+        int snapshotCount = size / snapshotInterval + 1;
+
+        List<String> newActions = actions;
+        List<GameState> newSnapshots = snapshots;
+        if (actions.size() != size) {
+            // Une version plus récente a déjà étendu les listes partagées : on en copie le début
+            newActions = new ArrayList<>(actions.subList(0, size));
+            newSnapshots = new ArrayList<>(snapshots.subList(0, snapshotCount));
+        }
+        newActions.add(stateAction.action());
+        if (isSnapshot) {
+            newSnapshots.add(stateAction.gameState());
+        }
+        return new GameLog(snapshotInterval, newActions, newSnapshots, newSize, stateAction.gameState());
+    }
+
+    /**
+     * Retourne le journal limité à ses {@code size} premières actions, par exemple pour repartir d'un état antérieur.
+     * Le journal retourné partage ses listes avec celui-ci.
+     *
+     * @param size Le nombre d'actions à conserver, compris entre 0 et la taille du journal.
+     * @return Le journal contenant les {@code size} premières actions de celui-ci.
+     * @throws IndexOutOfBoundsException si la taille n'est pas comprise entre 0 et la taille du journal.
+     */
+    public GameLog truncated(int size) {
+        if (size == this.size) {
+            return this;
+        }
+        return new GameLog(snapshotInterval, actions, snapshots, size, stateAt(size));
+    }
+
+    /**
+     * Retourne le nombre d'actions du journal.
+     *
+     * @return Le nombre d'actions du journal.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retourne le nombre d'actions séparant deux instantanés.
+     *
+     * @return Le nombre d'actions séparant deux instantanés.
+     */
+    public int snapshotInterval() {
+        return snapshotInterval;
+    }
+
+    /**
+     * Retourne les actions du journal, encodées en base32.
+     *
+     * @return La liste non modifiable des actions du journal.
+     */
+    public List<String> actions() {
+        return Collections.unmodifiableList(actions.subList(0, size));
+    }
+
+    /**
+     * Retourne l'état de jeu à partir duquel les actions du journal sont appliquées.
+     *
+     * @return L'état initial du journal.
+     */
+    public GameState initialState() {
+        return snapshots.getFirst();
+    }
+
+    /**
+     * Retourne l'état de jeu résultant de l'application de toutes les actions du journal.
+     *
+     * @return Le dernier état du journal.
+     */
+    public GameState lastState() {
+        return lastState;
+    }
+
+    /**
+     * Retourne l'état de jeu après les {@code moveIndex} premières actions du journal, obtenu à partir de
+     * l'instantané le plus proche.
+     *
+     * @param moveIndex Le nombre d'actions appliquées, compris entre 0 et la taille du journal.
+     * @return L'état de jeu correspondant.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et la taille du journal.
+     */
+    public GameState stateAt(int moveIndex) {
+        Objects.checkIndex(moveIndex, size + 1);
+        if (moveIndex == size) {
+            return lastState;
+        }
+
+        int snapshotIndex = moveIndex / snapshotInterval;
+        GameState state = snapshots.get(snapshotIndex);
+        for (int i = snapshotIndex * snapshotInterval; i < moveIndex; i++) {
+            state = Objects.requireNonNull(ActionEncoder.decodeAndApply(state, actions.get(i))).gameState();
+        }
+        return state;
+    }
+}
@@ -0,0 +1,218 @@
+package ch.epfl.chacun;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Vérifie des journaux de parties archivés, en rejouant leurs actions encodées en base32.
+ * <p>
+ * Un journal archivé est un fichier texte dont la première ligne contient la graine avec laquelle les tuiles ont été
+ * mélangées et le nombre de joueurs, séparés par une espace, et dont les lignes suivantes contiennent les actions
+ * encodées en base32, séparées par des blancs. L'état initial d'un journal est celui d'une partie lancée avec la même
+ * graine et le même nombre de joueurs, une fois la tuile de départ posée.
+ * <p>
+ * Contrairement à {@link ActionEncoder#decodeAndApply(GameState, String)}, la vérification indique l'index de la
+ * première action invalide et la raison pour laquelle elle l'est.
+ *
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
+public final class GameLogVerifier {
+
+    private GameLogVerifier() {}
+
+    /**
+     * Raison pour laquelle un journal est invalide.
+     */
+    public enum Reason {
+        /** Le fichier n'a pas pu être lu. */
+        UNREADABLE,
+        /** La première ligne ne contient pas une graine et un nombre de joueurs valides. */
+        MALFORMED_HEADER,
+        /** L'action n'est pas une chaîne base32 de la longueur attendue pour l'action suivante. */
+        MALFORMED_ACTION,
+        /** L'action suit la fin de la partie. */
+        GAME_OVER,
+        /** L'action est bien formée, mais n'est pas une action légale dans l'état courant. */
+        ILLEGAL_ACTION
+    }
+
+    /**
+     * La première erreur d'un journal.
+     *
+     * @param actionIndex L'index de l'action invalide dans le journal, ou -1 si l'erreur ne concerne aucune action.
+     * @param action L'action invalide telle qu'elle figure dans le journal, ou null si l'erreur ne concerne aucune action.
+     * @param reason La raison de l'erreur.
+     */
+    public record Failure(int actionIndex, String action, Reason reason) {}
+
+    /**
+     * Le résultat de la vérification d'un journal.
+     *
+     * @param name Le nom du journal.
+     * @param actionCount Le nombre d'actions valides précédant l'éventuelle erreur.
+     * @param failure La première erreur du journal, ou null s'il est valide.
+     */
+    public record Result(String name, int actionCount, Failure failure) {
+
+        /**
+         * Retourne vrai si et seulement si le journal est valide.
+         *
+         * @return Vrai si le journal ne contient aucune erreur.
+         */
+        public boolean isValid() {
+            return failure == null;
+        }
+    }
+
+    /**
+     * Retourne l'état initial d'une partie lancée avec la graine et le nombre de joueurs donnés, la tuile de départ
+     * étant posée.
+     *
+     * @param seed La graine avec laquelle les tuiles sont mélangées.
+     * @param playerCount Le nombre de joueurs, qui reçoivent les premières couleurs.
+     * @return L'état de jeu à partir duquel les actions du journal sont appliquées.
+     * @throws IllegalArgumentException si le nombre de joueurs n'est pas compris entre 2 et le nombre de couleurs.
+     */
+    public static GameState initialState(long seed, int playerCount) {
+        Preconditions.checkArgument(playerCount >= 2 && playerCount <= PlayerColor.ALL.size());
+        return initialState(seed, PlayerColor.ALL.subList(0, playerCount));
+    }
+
+    /**
+     * Retourne l'état initial d'une partie lancée avec la graine et les joueurs donnés, la tuile de départ étant posée.
+     *
+     * @param seed La graine avec laquelle les tuiles sont mélangées.
+     * @param players Les couleurs des joueurs, dans l'ordre de jeu.
+     * @return L'état de jeu à partir duquel les actions du journal sont appliquées.
+     * @throws IllegalArgumentException s'il y a moins de deux joueurs, ou si une couleur est répétée.
+     */
+    public static GameState initialState(long seed, List<PlayerColor> players) {
+        Preconditions.checkArgument(players.size() >= 2 && EnumSet.copyOf(players).size() == players.size());
+        Map<PlayerColor, String> playerNames = new EnumMap<>(PlayerColor.class);
+        for (PlayerColor player : players) {
+            playerNames.put(player, player.name());
+        }
+        return GameState.initial(players, TileDecks.shuffled(seed), new TextMakerFr(playerNames))
+                .withStartingTilePlaced();
+    }
+
+    /**
+     * Vérifie les actions données en les rejouant depuis l'état initial donné.
+     *
+     * @param name Le nom du journal.
+     * @param initialState L'état de jeu à partir duquel les actions sont appliquées.
+     * @param actions Les actions encodées en base32.
+     * @return Le résultat de la vérification.
+     */
+    public static Result verify(String name, GameState initialState, List<String> actions) {
+        return verify(name, initialState, actions.iterator());
+    }
+
+    /**
+     * Vérifie le journal archivé dans le fichier donné. Les actions sont lues au fur et à mesure qu'elles sont
+     * rejouées, sans que le journal soit entièrement chargé en mémoire.
+     *
+     * @param file Le fichier contenant le journal.
+     * @return Le résultat de la vérification, dont le nom est celui du fichier.
+     */
+    public static Result verify(Path file) {
+        String name = file.getFileName().toString();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String[] header = Objects.requireNonNullElse(reader.readLine(), "").trim().split("\\s+");
+            GameState initialState;
+            try {
+                Preconditions.checkArgument(header.length == 2);
+                initialState = initialState(Long.parseUnsignedLong(header[0]), Integer.parseInt(header[1]));
+            } catch (IllegalArgumentException e) {
+                return new Result(name, 0, new Failure(-1, null, Reason.MALFORMED_HEADER));
+            }
+            Iterator<String> actions = reader.lines()
+                    .flatMap(line -> Arrays.stream(line.trim().split("\\s+")))
+                    .filter(action -> !action.isEmpty())
+                    .iterator();
+            return verify(name, initialState, actions);
+        } catch (IOException | UncheckedIOException e) {
+            return new Result(name, 0, new Failure(-1, null, Reason.UNREADABLE));
+        }
+    }
+
+    /**
+     * Vérifie en parallèle tous les journaux archivés dans le dossier donné. Les fichiers sont énumérés au fur et à
+     * mesure, et chacun n'est lu que pendant sa vérification, de sorte que la mémoire utilisée ne dépend pas du nombre
+     * de journaux.
+     *
+     * @param directory Le dossier contenant les journaux, un par fichier.
+     * @param consumer Le consommateur recevant le résultat de chaque journal, dans un ordre quelconque et
+     *                 éventuellement depuis plusieurs fils d'exécution à la fois.
+     * @throws IOException si le dossier ne peut pas être parcouru.
+     */
+    public static void verifyAll(Path directory, Consumer<Result> consumer) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.parallel()
+                    .filter(Files::isRegularFile)
+                    .map(GameLogVerifier::verify)
+                    .forEach(consumer);
+        }
+    }
+
+    /**
+     * Vérifie les journaux du dossier donné en argument et affiche ceux qui sont invalides.
+     *
+     * @param args Le chemin du dossier contenant les journaux.
+     * @throws IOException si le dossier ne peut pas être parcouru.
+     */
+    public static void main(String[] args) throws IOException {
+        Preconditions.checkArgument(args.length == 1);
+        LongAdder logCount = new LongAdder();
+        LongAdder invalidCount = new LongAdder();
+        verifyAll(Path.of(args[0]), result -> {
+            logCount.increment();
+            if (!result.isValid()) {
+                invalidCount.increment();
+                Failure failure = result.failure();
+                System.out.println(STR."\{result.name()}: \{failure.reason()} (action \{failure.actionIndex()}: \{failure.action()})");
+            }
+        });
+        System.out.println(STR."\{logCount.sum()} journaux vérifiés, \{invalidCount.sum()} invalides");
+    }
+
+    //rejoue les actions depuis l'état initial, en s'arrêtant à la première action invalide
+    private static Result verify(String name, GameState initialState, Iterator<String> actions) {
+        GameState state = initialState;
+        int index = 0;
+        while (actions.hasNext()) {
+            String action = actions.next();
+            Reason reason = null;
+            if (state.nextAction() == GameState.Action.END_GAME) {
+                reason = Reason.GAME_OVER;
+            } else if (action.length() != (state.nextAction() == GameState.Action.PLACE_TILE ? 2 : 1)
+                    || !Base32.isValid(action)) {
+                reason = Reason.MALFORMED_ACTION;
+            } else {
+                String code = action.toUpperCase();
+                Optional<GameState.Successor> successor = state.successors()
+                        .filter(s -> s.code().equals(code))
+                        .findFirst();
+                if (successor.isPresent()) {
+                    state = successor.get().gameState();
+                } else {
+                    reason = Reason.ILLEGAL_ACTION;
+                }
+            }
+
+            if (reason != null) {
+                return new Result(name, index, new Failure(index, action, reason));
+            }
+            index += 1;
+        }
+        return new Result(name, index, null);
+    }
+}
@@ -5,20 +5,31 @@ package ch.epfl.chacun;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 
 
 
 /**
- * L'enregistrement GameState représente l'état complet d'une partie de ChaCuN.
+ * La classe GameState représente l'état complet d'une partie de ChaCuN.
+ * <p>
+ * Lorsque la prochaine action est l'occupation de la dernière tuile posée, ses occupants potentiels sont calculés une
+ * seule fois, à la construction de l'état ; ils ne font pas partie des composantes de l'état, dont ils découlent, et ne
+ * sont donc pas pris en compte par son égalité.
  * @author Mehdi Boulaid (358117)
  * @author Adnane Jamil (356117)
  */
-public record GameState(List<PlayerColor> players, TileDecks tileDecks, Tile tileToPlace, Board board, Action nextAction, MessageBoard messageBoard) {
-
-
+public final class GameState {
 
+    private final List<PlayerColor> players;
+    private final TileDecks tileDecks;
+    private final Tile tileToPlace;
+    private final Board board;
+    private final Action nextAction;
+    private final MessageBoard messageBoard;
+    // occupants pouvant être placés sur la dernière tuile posée, vides si la prochaine action n'est pas OCCUPY_TILE
+    private final Set<Occupant> lastTilePotentialOccupants;
 
     /**
      * Enumération des actions possibles dans le jeu.
@@ -31,6 +42,86 @@ public record GameState(List<PlayerColor> players, TileDecks tileDecks, Tile til
         END_GAME;
     }
 
+    /**
+     * Action légale pouvant être jouée depuis un état de jeu, accompagnée de son encodage en base32.
+     * L'état de jeu résultant de l'action n'est calculé qu'à la première demande.
+     */
+    public static final class Successor {
+        private final GameState source;
+        private final PlacedTile placedTile;
+        private final Occupant occupant;
+        private final String code;
+        private GameState gameState;
+
+        private Successor(GameState source, PlacedTile placedTile, Occupant occupant, String code) {
+            this.source = source;
+            this.placedTile = placedTile;
+            this.occupant = occupant;
+            this.code = code;
+        }
+
+        /**
+         * Retourne la sorte de l'action, qui est l'action suivante de l'état de jeu dont elle est issue.
+         *
+         * @return La sorte de l'action.
+         */
+        public Action kind() {
+            return source.nextAction();
+        }
+
+        /**
+         * Retourne la tuile posée par l'action.
+         *
+         * @return La tuile posée, ou null si l'action n'est pas une pose de tuile.
+         */
+        public PlacedTile placedTile() {
+            return placedTile;
+        }
+
+        /**
+         * Retourne l'occupant posé ou repris par l'action.
+         *
+         * @return L'occupant posé ou repris, ou null si l'action n'est pas une pose de tuile et ne concerne aucun occupant.
+         */
+        public Occupant occupant() {
+            return occupant;
+        }
+
+        /**
+         * Retourne l'encodage en base32 de l'action, tel que produit par {@link ActionEncoder}.
+         *
+         * @return L'encodage de l'action.
+         */
+        public String code() {
+            return code;
+        }
+
+        /**
+         * Retourne l'état de jeu résultant de l'action, en le calculant lors du premier appel.
+         *
+         * @return L'état de jeu résultant de l'action.
+         */
+        public GameState gameState() {
+            if (gameState == null) {
+                gameState = switch (kind()) {
+                    case PLACE_TILE -> source.withPlacedTile(placedTile);
+                    case OCCUPY_TILE -> source.withNewOccupant(occupant);
+                    default -> source.withOccupantRemoved(occupant);
+                };
+            }
+            return gameState;
+        }
+
+        /**
+         * Retourne la paire d'état et d'action correspondant à cette action, ce qui calcule l'état de jeu résultant.
+         *
+         * @return La paire d'état et d'action correspondante.
+         */
+        public ActionEncoder.StateAction toStateAction() {
+            return new ActionEncoder.StateAction(gameState(), code);
+        }
+    }
+
 
 
 
@@ -44,17 +135,107 @@ public record GameState(List<PlayerColor> players, TileDecks tileDecks, Tile til
      * @param messageBoard Le tableau d'affichage contenant les messages générés jusqu'à présent dans la partie.
      * @throws IllegalArgumentException Si les joueurs sont moins de 2 ou si l'action suivante est une pose de tuile sans tuile à placer, ou si certains éléments sont nuls.
      */
-    public GameState{
+    public GameState(List<PlayerColor> players, TileDecks tileDecks, Tile tileToPlace, Board board, Action nextAction, MessageBoard messageBoard){
+        this(players, tileDecks, tileToPlace, board, nextAction, messageBoard, null);
+    }
+
+    //construit l'état donné, dont les occupants potentiels de la dernière tuile posée, s'ils sont donnés, ont été
+    //calculés pour le même plateau et le même joueur ; s'ils valent null, ils sont calculés si nécessaire
+    private GameState(List<PlayerColor> players, TileDecks tileDecks, Tile tileToPlace, Board board, Action nextAction,
+                      MessageBoard messageBoard, Set<Occupant> lastTilePotentialOccupants){
         Preconditions.checkArgument(players.size() >= 2);
-        players = List.copyOf(players);
-        Objects.requireNonNull(tileDecks);
+        this.players = List.copyOf(players);
+        this.tileDecks = Objects.requireNonNull(tileDecks);
         Preconditions.checkArgument(nextAction.equals(Action.PLACE_TILE ) ^ tileToPlace == null);
+        this.tileToPlace = tileToPlace;
+        this.board = Objects.requireNonNull(board);
+        this.nextAction = nextAction;
+        this.messageBoard = Objects.requireNonNull(messageBoard);
+
+        if (nextAction != Action.OCCUPY_TILE) {
+            this.lastTilePotentialOccupants = Set.of();
+        } else if (lastTilePotentialOccupants == null) {
+            this.lastTilePotentialOccupants = potentialOccupantsOf(board, this.players.getFirst());
+        } else {
+            this.lastTilePotentialOccupants = lastTilePotentialOccupants;
+        }
+    }
+
+    /**
+     * Retourne la liste de tous les joueurs de la partie, dans l'ordre dans lequel ils doivent jouer.
+     *
+     * @return La liste des joueurs.
+     */
+    public List<PlayerColor> players() {
+        return players;
+    }
 
+    /**
+     * Retourne les trois tas des tuiles restantes.
+     *
+     * @return Les tas de tuiles.
+     */
+    public TileDecks tileDecks() {
+        return tileDecks;
+    }
 
+    /**
+     * Retourne l'éventuelle tuile à placer.
+     *
+     * @return La tuile à placer, ou null si aucune tuile n'est à placer actuellement.
+     */
+    public Tile tileToPlace() {
+        return tileToPlace;
+    }
 
+    /**
+     * Retourne le plateau de jeu.
+     *
+     * @return Le plateau.
+     */
+    public Board board() {
+        return board;
+    }
+
+    /**
+     * Retourne la prochaine action à effectuer.
+     *
+     * @return La prochaine action.
+     */
+    public Action nextAction() {
+        return nextAction;
+    }
+
+    /**
+     * Retourne le tableau d'affichage contenant les messages générés jusqu'à présent dans la partie.
+     *
+     * @return Le tableau d'affichage.
+     */
+    public MessageBoard messageBoard() {
+        return messageBoard;
+    }
+
+    /**
+     * Retourne les occupants pouvant être placés sur la dernière tuile posée par le joueur courant, calculés une seule
+     * fois à la construction de l'état.
+     * <p>
+     * Ces occupants ne sont calculés que lorsque la prochaine action est l'occupation de la dernière tuile posée, seul
+     * cas où ils peuvent être utilisés : dans tout autre état, l'ensemble retourné est vide, alors qu'il contenait
+     * auparavant les occupants qu'aurait pu placer le joueur courant.
+     *
+     * @return Les occupants potentiels de la dernière tuile posée, ou un ensemble vide si la prochaine action n'est pas
+     *         l'occupation de cette tuile.
+     * @throws IllegalArgumentException Si le plateau est vide.
+     */
+    public Set<Occupant> lastTilePotentialOccupants() {
+        Preconditions.checkArgument(board != Board.EMPTY);
+        return lastTilePotentialOccupants;
+    }
 
-        Objects.requireNonNull(board);
-        Objects.requireNonNull(messageBoard);
+    //retourne l'état identique à celui-ci, muni du tableau d'affichage donné ; ses occupants potentiels, qui ne
+    //dépendent pas du tableau, ne sont pas recalculés
+    GameState withMessageBoard(MessageBoard messageBoard) {
+        return new GameState(players, tileDecks, tileToPlace, board, nextAction, messageBoard, lastTilePotentialOccupants);
     }
 
 
@@ -105,43 +286,58 @@ public record GameState(List<PlayerColor> players, TileDecks tileDecks, Tile til
 
 
     /**
-     * Calcule les occupants potentiels de la dernière tuile placée.
+     * Retourne les points qu'obtiendrait chaque joueur si la partie se terminait maintenant : ceux déjà obtenus,
+     * auxquels s'ajoutent ceux des prés et des réseaux hydrographiques lors du décompte final. Ces derniers étant
+     * tenus à jour par le plateau à chaque action, seule la table des joueurs est construite.
      *
-     * @return L'ensemble des occupants potentiels de la dernière tuile placée.
-     * @throws IllegalArgumentException Si le plateau est vide.
+     * @return La table associant à chaque joueur ses points provisoires ; une fois la partie terminée, ses points finaux.
      */
-    public Set<Occupant> lastTilePotentialOccupants(){//retourne l'ensemble des occupants potentiels de la DERNIERE placedTile
-        Preconditions.checkArgument(board != Board.EMPTY);
-        Set<Occupant> lastTilePotentialOccupants = board.lastPlacedTile().potentialOccupants();
+    public Map<PlayerColor, Integer> provisionalPoints(){
+        Map<PlayerColor, Integer> points = messageBoard.points();
+        Map<PlayerColor, Integer> provisionalPoints = new EnumMap<>(PlayerColor.class);
+        for (PlayerColor player : players) {
+            int endOfGamePoints = nextAction == Action.END_GAME ? 0 : board.endOfGamePoints(player);
+            provisionalPoints.put(player, points.getOrDefault(player, 0) + endOfGamePoints);
+        }
+        return provisionalPoints;
+    }
 
-        for(Occupant potentialOcpnt : board.lastPlacedTile().potentialOccupants()){
-            switch(board.lastPlacedTile().zoneWithId(potentialOcpnt.zoneId())){
-                case Zone.Meadow meadow
-                        when (freeOccupantsCount(currentPlayer(),potentialOcpnt.kind()) == 0 || board.meadowArea(meadow).isOccupied())->
-                        lastTilePotentialOccupants.remove(potentialOcpnt);
 
-                case Zone.Forest forest
-                        when (freeOccupantsCount(currentPlayer(),potentialOcpnt.kind()) == 0 || board.forestArea(forest).isOccupied())->
-                        lastTilePotentialOccupants.remove(potentialOcpnt);
 
-                case Zone.River river
-                        when potentialOcpnt.kind().equals(Occupant.Kind.PAWN) && (freeOccupantsCount(currentPlayer(),potentialOcpnt.kind()) == 0 ||
-                        board.riverArea(river).isOccupied()) ->
-                        lastTilePotentialOccupants.remove(potentialOcpnt);
 
-                case Zone.River river
-                        when (freeOccupantsCount(currentPlayer(),potentialOcpnt.kind()) == 0 || board.riverSystemArea(river).isOccupied()) &&
-                        potentialOcpnt.kind().equals(Occupant.Kind.HUT) ->
-                        lastTilePotentialOccupants.remove(potentialOcpnt);
+    //calcule les occupants potentiels de la dernière tuile posée, en ne comptant les occupants libres qu'une fois par sorte
+    private static Set<Occupant> potentialOccupantsOf(Board board, PlayerColor player){
+        PlacedTile lastTile = board.lastPlacedTile();
+        if (lastTile == null) {
+            return Set.of();
+        }
 
-                case Zone.Lake lake
-                        when freeOccupantsCount(currentPlayer(),potentialOcpnt.kind()) == 0 || board.riverSystemArea(lake).isOccupied() ->
-                        lastTilePotentialOccupants.remove(potentialOcpnt);
+        boolean hasFreePawn = board.occupantCount(player, Occupant.Kind.PAWN) < Occupant.occupantsCount(Occupant.Kind.PAWN);
+        boolean hasFreeHut = board.occupantCount(player, Occupant.Kind.HUT) < Occupant.occupantsCount(Occupant.Kind.HUT);
+        if (!hasFreePawn && !hasFreeHut) {
+            return Set.of();
+        }
 
-                default -> {}
+        Set<Occupant> lastTilePotentialOccupants = new HashSet<>();
+        for(Occupant potentialOcpnt : lastTile.potentialOccupants()){
+            boolean isPawn = potentialOcpnt.kind() == Occupant.Kind.PAWN;
+            if (isPawn ? !hasFreePawn : !hasFreeHut) {
+                continue;
+            }
+
+            boolean isOccupied = switch(lastTile.zoneWithId(potentialOcpnt.zoneId())){
+                case Zone.Meadow meadow -> board.meadowArea(meadow).isOccupied();
+                case Zone.Forest forest -> board.forestArea(forest).isOccupied();
+                case Zone.River river when isPawn -> board.riverArea(river).isOccupied();
+                case Zone.River river -> board.riverSystemArea(river).isOccupied();
+                case Zone.Lake lake -> board.riverSystemArea(lake).isOccupied();
+            };
+
+            if (!isOccupied) {
+                lastTilePotentialOccupants.add(potentialOcpnt);
             }
         }
-        return lastTilePotentialOccupants;
+        return Set.copyOf(lastTilePotentialOccupants);
     }
 
     /**
@@ -250,18 +446,58 @@ public record GameState(List<PlayerColor> players, TileDecks tileDecks, Tile til
         Preconditions.checkArgument(nextAction.equals(Action.OCCUPY_TILE));
 
 
-        if (occupant == null) {
-            return this.withTurnFinished();
-        } else {
-            //PlacedTile lastPlacedTile = board.lastPlacedTile();
-            //Zone zone = lastPlacedTile.zoneWithId(occupant.zoneId());
-            Board updatedBoard = board.withOccupant(occupant);
-            return new GameState(players, tileDecks, null, updatedBoard, nextAction, messageBoard).withTurnFinished();
-        }
+        Board updatedBoard = occupant == null ? board : board.withOccupant(occupant);
+        return withTurnFinished(updatedBoard);
+    }
+
+
+    /**
+     * Énumère les actions légales pouvant être jouées par le joueur courant : les poses de la tuile à placer, les
+     * occupations de la dernière tuile posée (y compris l'absence d'occupant) ou les reprises d'un de ses pions
+     * (y compris l'absence de reprise), selon l'action suivante.
+     * <p>
+     * Le flot est paresseux : les actions sont déterminées au fur et à mesure de son parcours, et les états résultants
+     * ne sont calculés qu'à la demande, ce qui permet d'interrompre une recherche sans tous les calculer.
+     *
+     * @return Le flot des actions légales, dans l'ordre de leur encodage ; vide si l'action suivante est
+     * {@code START_GAME} ou {@code END_GAME}, qui n'ont pas d'encodage.
+     */
+    public Stream<Successor> successors() {
+        return switch (nextAction) {
+            case PLACE_TILE -> {
+                List<Pos> positions = board.sortedInsertionPositions();
+                yield IntStream.range(0, positions.size()).boxed()
+                        .flatMap(i -> Rotation.ALL.stream()
+                                .map(rotation -> new PlacedTile(tileToPlace, currentPlayer(), rotation, positions.get(i)))
+                                .filter(board::sidesMatchNeighbors)
+                                .map(tile -> new Successor(this, tile, null, ActionEncoder.encodePlacement(i, tile.rotation()))));
+            }
+            case OCCUPY_TILE -> Stream.concat(
+                    Stream.of(new Successor(this, null, null, ActionEncoder.encodeOccupant(null))),
+                    lastTilePotentialOccupants.stream()
+                            .sorted(Comparator.comparing(Occupant::kind).thenComparingInt(Occupant::zoneId))
+                            .map(occupant -> new Successor(this, null, occupant, ActionEncoder.encodeOccupant(occupant))));
+            case RETAKE_PAWN -> {
+                List<Occupant> occupants = ActionEncoder.sortedOccupants(board);
+                yield Stream.concat(
+                        Stream.of(new Successor(this, null, null, ActionEncoder.encodeRetake(-1))),
+                        IntStream.range(0, occupants.size()).boxed()
+                                .filter(i -> occupants.get(i).kind() == Occupant.Kind.PAWN
+                                        && board.tileWithId(Zone.tileId(occupants.get(i).zoneId())).placer() == currentPlayer())
+                                .map(i -> new Successor(this, null, occupants.get(i), ActionEncoder.encodeRetake(i))));
+            }
+            default -> Stream.empty();
+        };
     }
 
 
     private GameState withTurnFinished() {
+        return withTurnFinished(board);
+    }
+
+    //termine le tour joué sur le plateau donné, qui remplace celui de cet état ; le tour se terminant, aucun état
+    //intermédiaire, dont il faudrait calculer les occupants potentiels, n'est construit pour ce plateau
+    private GameState withTurnFinished(Board board) {
         // Mise à jour des forêts et des rivières fermées par la dernière tuile placée
         Set<Area<Zone.Forest>> closedForests = new HashSet<>(board.forestsClosedByLastTile());
         Set<Area<Zone.River>> closedRivers = new HashSet<>(board.riversClosedByLastTile());
@@ -354,8 +590,7 @@ public record GameState(List<PlayerColor> players, TileDecks tileDecks, Tile til
 
 
     private GameState withTurnFinishedIfOccupationImpossible(){
-        GameState gameState = new GameState(players,tileDecks,null,board,Action.OCCUPY_TILE,messageBoard);
-        return lastTilePotentialOccupants().isEmpty() ? withTurnFinished() : gameState;
+        return lastTilePotentialOccupants.isEmpty() ? withTurnFinished() : this;
     }
 
     private GameState withFinalPointsCounted() {
@@ -366,9 +601,9 @@ public record GameState(List<PlayerColor> players, TileDecks tileDecks, Tile til
 
         // Parcours de toutes les zones de prairie et vérification des pouvoirs spéciaux
         for (Area<Zone.Meadow> meadow : newBoard.meadowAreas()) {
-            if(meadow.zoneWithSpecialPower(Zone.SpecialPower.WILD_FIRE) != null){
+            if(meadow.meadowCounts().hasFire()){
 
-                if(meadow.zoneWithSpecialPower(Zone.SpecialPower.PIT_TRAP) != null){
+                if(meadow.meadowCounts().hasPitTrap()){
                     updatedMessageBoard = updatedMessageBoard.withScoredMeadow(meadow,cancelledAnimalsUpdated);
                     updatedMessageBoard = updatedMessageBoard.withScoredPitTrap(meadow,cancelledAnimalsUpdated);
                 }
@@ -377,7 +612,7 @@ public record GameState(List<PlayerColor> players, TileDecks tileDecks, Tile til
 
             }else {
                 // Attribuer les potentiels points pour la fosse a pieux dans la prairie et les cerfs devorés
-                if(meadow.zoneWithSpecialPower(Zone.SpecialPower.PIT_TRAP) != null){
+                if(meadow.meadowCounts().hasPitTrap()){
                     newBoard = newBoard.withMoreCancelledAnimals(updateCancelledAnimalsForDeer(cancelledAnimalsUpdated));
                     updatedMessageBoard = updatedMessageBoard.withScoredPitTrap(meadow,newBoard.cancelledAnimals());
                 }
@@ -423,61 +658,54 @@ public record GameState(List<PlayerColor> players, TileDecks tileDecks, Tile til
 
 
         for (Area<Zone.Meadow> meadowArea : board.meadowAreas()) {
-            boolean hasFire = meadowArea.zones().stream()
-                    .anyMatch(zone -> zone.specialPower() == Zone.SpecialPower.WILD_FIRE);
-
-
-            boolean hasHuntingTrap = meadowArea.zones().stream()
-                    .anyMatch(zone -> zone.specialPower() == Zone.SpecialPower.HUNTING_TRAP);
-
-
-            Set<Animal> totalDeers = meadowArea.zones().stream()
-                    .flatMap(zone -> zone.animals().stream())
-                    .filter(animal -> animal.kind() == Animal.Kind.DEER && !updatedCancelledAnimals.contains(animal)).collect(Collectors.toSet());
-
-
-            int totalDeersCount = totalDeers.size();
+            Area.MeadowCounts counts = meadowArea.meadowCounts();
 
-
-            Set<Animal> totalSmilodons = meadowArea.zones().stream()
-                    .flatMap(zone -> zone.animals().stream())
-                    .filter(animal -> animal.kind() == Animal.Kind.TIGER)
-                    .collect(Collectors.toSet());
-
-
-            int totalSmilodonsCount = totalSmilodons.size();
-
-
-            if (!hasFire && totalSmilodonsCount > 0) {
-                int deerToCancel = Math.min(totalDeersCount, totalSmilodonsCount);
-                for (Zone.Meadow meadow : meadowArea.zones()) {
-                    for (Animal animal : meadow.animals()) {
-                        if (animal.kind() == Animal.Kind.DEER && deerToCancel > 0) {
-                            updatedCancelledAnimals.add(animal);
-                            deerToCancel--;
-                        }
-                    }
-                }
+            // Sans smilodon, même annulé, aucun cerf n'est dévoré et aucune zone n'a besoin d'être parcourue
+            if (counts.tigers() == 0) {
+                continue;
             }
 
-            if(hasHuntingTrap && totalSmilodonsCount > 0){
+            if (counts.hasHuntingTrap()) {
                 for (Zone.Meadow meadow : meadowArea.zones()) {
                     updatedCancelledAnimals.addAll(meadow.animals());
                 }
-                int deerToCancel = Math.min(totalDeersCount, totalSmilodonsCount);
-                for (Zone.Meadow meadow : meadowArea.zones()) {
-                    for (Animal animal : meadow.animals()) {
-                        if (animal.kind() == Animal.Kind.DEER && deerToCancel > 0) {
-                            updatedCancelledAnimals.add(animal);
-                            deerToCancel--;
-                        }
-                    }
-                }
+            } else if (!counts.hasFire()) {
+                updatedCancelledAnimals.addAll(deerEatenByTigers(meadowArea, counts.tigers(), initiallyCancelledAnimals));
             }
-
         }
         return updatedCancelledAnimals;
     }
 
-}
+    //choisit les cerfs dévorés par les smilodons donnés parmi les cerfs non annulés du pré, dans l'ordre de leurs
+    //identifiants afin que les mêmes soient choisis à chaque appel ; un cerf déjà annulé ne peut pas être dévoré
+    private static List<Animal> deerEatenByTigers(Area<Zone.Meadow> meadowArea, int tigers, Set<Animal> cancelledAnimals) {
+        return meadowArea.zones().stream()
+                .flatMap(zone -> zone.animals().stream())
+                .filter(animal -> animal.kind() == Animal.Kind.DEER && !cancelledAnimals.contains(animal))
+                .sorted(Comparator.comparingInt(Animal::id))
+                .limit(tigers)
+                .toList();
+    }
 
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof GameState that
+                && players.equals(that.players)
+                && tileDecks.equals(that.tileDecks)
+                && Objects.equals(tileToPlace, that.tileToPlace)
+                && board.equals(that.board)
+                && nextAction == that.nextAction
+                && messageBoard.equals(that.messageBoard);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(players, tileDecks, tileToPlace, board, nextAction, messageBoard);
+    }
+
+    @Override
+    public String toString() {
+        return STR."GameState[players=\{players}, tileDecks=\{tileDecks}, tileToPlace=\{tileToPlace}, board=\{board}, "
+                + STR."nextAction=\{nextAction}, messageBoard=\{messageBoard}]";
+    }
+}
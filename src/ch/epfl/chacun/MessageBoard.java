@@ -1,7 +1,6 @@
     package ch.epfl.chacun;
 
     import java.util.*;
-    import java.util.stream.Collectors;
 
     /**
      * Tableau d'affichage des évenements importants.
@@ -9,13 +8,20 @@
      * @author Mehdi Boulaid (358117)
      * @author Adnane Jamil (356117)
      */
-    public record MessageBoard(TextMaker textMaker, List<Message> messages) {
+    public final class MessageBoard {
+
+        private final TextMaker textMaker;
+        private final List<Message> messages;
+        // points de chaque joueur, déduits des messages et tenus à jour à chaque nouveau message
+        private final Map<PlayerColor, Integer> points;
+        // vrai si les messages ajoutés au tableau n'ont pas de texte
+        private final boolean silent;
 
         /**
          * Représente un message sur le tableau d'affichage.
          * Chaque message contient du texte, des points, des joueurs ayant marqué des points et des IDs de tuiles associés.
          */
-        public record Message (String text, int points, Set<PlayerColor> scorers, Set<Integer> tileIds) {
+        public record Message (String text, int points, Set<PlayerColor> scorers, TileIdSet tileIds) {
 
             /**
              * Construit un message avec les paramètres spécifiés.
@@ -33,34 +39,111 @@
                 Objects.requireNonNull(tileIds, "Tile IDs cannot be null");
                 Preconditions.checkArgument(points >= 0);
                 scorers = Set.copyOf(scorers);
-                tileIds = Set.copyOf(tileIds);
+            }
+
+            /**
+             * Construit un message avec les paramètres spécifiés, les IDs de tuiles étant donnés par un ensemble quelconque.
+             *
+             * @param text Le texte du message.
+             * @param points Les points associés au message.
+             * @param scorers L'ensemble des couleurs de joueur ayant marqué des points.
+             * @param tileIds L'ensemble des IDs de tuiles associés au message.
+             * @throws NullPointerException si l'un des paramètres est null.
+             * @throws IllegalArgumentException si points ou l'un des IDs de tuiles est négatif.
+             */
+            public Message(String text, int points, Set<PlayerColor> scorers, Set<Integer> tileIds) {
+                this(text, points, scorers, TileIdSet.copyOf(Objects.requireNonNull(tileIds, "Tile IDs cannot be null")));
             }
         }
-        public MessageBoard {
+        /**
+         * Constructeur du tableau d'affichage.
+         *
+         * @param textMaker Le générateur de texte des messages.
+         * @param messages Les messages du tableau, du plus ancien au plus récent.
+         */
+        public MessageBoard(TextMaker textMaker, List<Message> messages) {
             Preconditions.checkArgument(textMaker != null);
             Preconditions.checkArgument(messages != null);
-            messages = List.copyOf(messages);
+            this.textMaker = textMaker;
+            this.messages = AppendOnlyList.copyOf(messages);
+            this.points = pointsOf(this.messages);
+            this.silent = false;
+        }
+
+        //construit le tableau donné, dont les points ont été déduits des messages par l'appelant
+        private MessageBoard(TextMaker textMaker, List<Message> messages, Map<PlayerColor, Integer> points,
+                             boolean silent) {
+            this.textMaker = textMaker;
+            this.messages = messages;
+            this.points = points;
+            this.silent = silent;
+        }
+
+        /**
+         * Retourne le générateur de texte des messages.
+         *
+         * @return Le générateur de texte.
+         */
+        public TextMaker textMaker() {
+            return textMaker;
+        }
+
+        /**
+         * Retourne les messages du tableau, du plus ancien au plus récent.
+         *
+         * @return La liste non modifiable des messages.
+         */
+        public List<Message> messages() {
+            return messages;
         }
 
         /**
          * Retourne une table associant à tous les joueurs figurant dans les gagnants d'au moins un message,
-         * le nombre total de points obtenus.
+         * le nombre total de points obtenus. La table, déduite des messages, est tenue à jour à chaque message : son
+         * obtention ne dépend pas du nombre de messages.
          *
          * @return Une table associative associant les joueurs aux points obtenus.
          */
         public Map<PlayerColor, Integer> points() {
+            return points;
+        }
+
+        //retourne vrai si le tableau est muet, c.-à-d. si les messages qui lui sont ajoutés n'ont pas de texte ; un tel
+        //tableau tient à jour ses messages et les points des joueurs sans payer la production des textes
+        boolean isSilent() {
+            return silent;
+        }
+
+        //retourne le tableau ayant les mêmes messages que celui-ci, muet ou non selon la valeur donnée
+        MessageBoard withSilence(boolean silent) {
+            return silent == this.silent ? this : new MessageBoard(textMaker, messages, points, silent);
+        }
+
+        //retourne le générateur produisant le texte des messages ajoutés au tableau
+        private TextMaker texts() {
+            return silent ? SilentTextMaker.INSTANCE : textMaker;
+        }
+
+        //calcule les points de chaque joueur à partir de tous les messages
+        private static Map<PlayerColor, Integer> pointsOf(List<Message> messages) {
             Map<PlayerColor, Integer> pointsMap = new HashMap<>();
-            for (Message message : this.messages) {
-                Set<PlayerColor> scorers = message.scorers();
-                for (PlayerColor scorer : scorers) {
-                    Integer currentPoints = pointsMap.get(scorer);
-                    if (currentPoints == null) {
-                        currentPoints = 0;
-                    }
-                    pointsMap.put(scorer, currentPoints + message.points());
+            for (Message message : messages) {
+                for (PlayerColor scorer : message.scorers()) {
+                    pointsMap.merge(scorer, message.points(), Integer::sum);
                 }
             }
-            return pointsMap;
+            return Map.copyOf(pointsMap);
+        }
+
+        //retourne le tableau auquel le message donné a été ajouté, en ne mettant à jour que les points de ses gagnants ;
+        //la liste des messages n'est pas copiée, mais partagée avec celle du récepteur
+        private MessageBoard withMessage(Message message) {
+            List<Message> updatedMessages = ((AppendOnlyList<Message>) messages).withAppended(message);
+            Map<PlayerColor, Integer> updatedPoints = new HashMap<>(points);
+            for (PlayerColor scorer : message.scorers()) {
+                updatedPoints.merge(scorer, message.points(), Integer::sum);
+            }
+            return new MessageBoard(textMaker, updatedMessages, Map.copyOf(updatedPoints), silent);
         }
 
         /**
@@ -79,11 +162,9 @@
             int mushroomGroupCount = Area.mushroomGroupCount(forestArea);
             int points = Points.forClosedForest(tileCount, mushroomGroupCount);
             Set<PlayerColor> scorers = forestArea.majorityOccupants();
-            String messageText = textMaker.playersScoredForest(scorers, points, mushroomGroupCount, tileCount);
+            String messageText = texts().playersScoredForest(scorers, points, mushroomGroupCount, tileCount);
             Message newMessage = new Message(messageText, points, scorers, forestArea.tileIds());
-            List<Message> updatedMessages = new ArrayList<>(this.messages);
-            updatedMessages.add(newMessage);
-            return new MessageBoard(this.textMaker, updatedMessages);
+            return withMessage(newMessage);
         }
 
         /**
@@ -99,14 +180,9 @@
             boolean containsMenhir = forest.zones().stream()
                     .anyMatch(zone -> zone.kind() == Zone.Forest.Kind.WITH_MENHIR);
             if (containsMenhir) {
-                String messageText = textMaker.playerClosedForestWithMenhir(player);
-                Set<Integer> tileIds = forest.zones().stream()
-                        .map(Zone::tileId)
-                        .collect(Collectors.toSet());
-                Message newMessage = new Message(messageText, 0, Set.of(), tileIds);
-                List<Message> updatedMessages = new ArrayList<>(this.messages);
-                updatedMessages.add(newMessage);
-                return new MessageBoard(this.textMaker, updatedMessages);
+                String messageText = texts().playerClosedForestWithMenhir(player);
+                Message newMessage = new Message(messageText, 0, Set.of(), forest.tileIds());
+                return withMessage(newMessage);
             }
             return this;
         }
@@ -125,11 +201,9 @@
             if (majorityOccupants.isEmpty() || points == 0) {
                 return this;
             }
-            String messageText = textMaker.playersScoredRiver(majorityOccupants, points, Area.riverFishCount(river), river.tileIds().size());
+            String messageText = texts().playersScoredRiver(majorityOccupants, points, Area.riverFishCount(river), river.tileIds().size());
             Message newMessage = new Message(messageText, points, majorityOccupants, river.tileIds());
-            List<Message> updatedMessages = new ArrayList<>(this.messages);
-            updatedMessages.add(newMessage);
-            return new MessageBoard(this.textMaker, updatedMessages);
+            return withMessage(newMessage);
         }
 
         /**
@@ -159,11 +233,9 @@
 
 
             if (points > 0) {
-                String messageText = textMaker.playerScoredHuntingTrap(scorer, points, animalCounts);
+                String messageText = texts().playerScoredHuntingTrap(scorer, points, animalCounts);
                 Message newMessage = new Message(messageText, points, Set.of(scorer), adjacentMeadow.tileIds());
-                List<Message> updatedMessages = new ArrayList<>(this.messages);
-                updatedMessages.add(newMessage);
-                return new MessageBoard(this.textMaker, updatedMessages);
+                return withMessage(newMessage);
             }
             return this;
         }
@@ -180,11 +252,9 @@
         public MessageBoard withScoredLogboat(PlayerColor scorer, Area<Zone.Water> riverSystem) {
             int lakeCount = Area.lakeCount(riverSystem);
             int points = Points.forLogboat(lakeCount);
-            String messageText = textMaker.playerScoredLogboat(scorer, points, lakeCount);
+            String messageText = texts().playerScoredLogboat(scorer, points, lakeCount);
             Message newMessage = new Message(messageText, points, Set.of(scorer), riverSystem.tileIds());
-            List<Message> updatedMessages = new ArrayList<>(this.messages);
-            updatedMessages.add(newMessage);
-            return new MessageBoard(this.textMaker, updatedMessages);
+            return withMessage(newMessage);
         }
 
         /**
@@ -214,11 +284,9 @@
             );
             if (points > 0) {
                 Set<PlayerColor> majorityOccupants = meadow.majorityOccupants();
-                String messageText = textMaker.playersScoredMeadow(majorityOccupants, points, animalCounts);
+                String messageText = texts().playersScoredMeadow(majorityOccupants, points, animalCounts);
                 Message newMessage = new Message(messageText, points, majorityOccupants, meadow.tileIds());
-                List<Message> updatedMessages = new ArrayList<>(this.messages);
-                updatedMessages.add(newMessage);
-                return new MessageBoard(this.textMaker, updatedMessages);
+                return withMessage(newMessage);
             }
             return this;
         }
@@ -237,12 +305,9 @@
             if (fishCount > 0 && riverSystem.isOccupied()) {
                 Set<PlayerColor> majorityOccupants = riverSystem.majorityOccupants();
                 int points = Points.forRiverSystem(fishCount);
-                String messageText = textMaker.playersScoredRiverSystem(majorityOccupants, points, fishCount);
+                String messageText = texts().playersScoredRiverSystem(majorityOccupants, points, fishCount);
                 Message newMessage = new Message(messageText, points, majorityOccupants, riverSystem.tileIds());
-                List<Message> updatedMessages = new ArrayList<>(this.messages);
-                updatedMessages.add(newMessage);
-
-                return new MessageBoard(this.textMaker, updatedMessages);
+                return withMessage(newMessage);
             }
             return this;
         }
@@ -273,14 +338,11 @@
             if (points > 0 && !adjacentMeadow.occupants().isEmpty()) {
                 Set<PlayerColor> majorityOccupants = adjacentMeadow.majorityOccupants();
 
-                String messageText = textMaker.playersScoredPitTrap(majorityOccupants, points, animalCounts);
+                String messageText = texts().playersScoredPitTrap(majorityOccupants, points, animalCounts);
 
                 Message newMessage = new Message(messageText, points, majorityOccupants, adjacentMeadow.tileIds());
 
-                List<Message> updatedMessages = new ArrayList<>(this.messages);
-                updatedMessages.add(newMessage);
-
-                return new MessageBoard(this.textMaker, updatedMessages);
+                return withMessage(newMessage);
             }
 
             return this;
@@ -301,11 +363,9 @@
                 return this;
             }
             int points = Points.forRaft(lakeCount);
-            String messageText = textMaker.playersScoredRaft(majorityOccupants, points, lakeCount);
+            String messageText = texts().playersScoredRaft(majorityOccupants, points, lakeCount);
             Message newMessage = new Message(messageText, points, majorityOccupants, riverSystem.tileIds());
-            List<Message> updatedMessages = new ArrayList<>(this.messages);
-            updatedMessages.add(newMessage);
-            return new MessageBoard(this.textMaker, updatedMessages);
+            return withMessage(newMessage);
         }
 
         /**
@@ -319,11 +379,26 @@
          *                                  Si le nombre de points est négatif.
          */
         public MessageBoard withWinners(Set<PlayerColor> winners, int points) {
-            String messageText = textMaker.playersWon(winners, points);
-            Message finalMessage = new Message(messageText, 0, winners, Set.of());
-            List<Message> updatedMessages = new ArrayList<>(this.messages);
-            updatedMessages.add(finalMessage);
+            String messageText = texts().playersWon(winners, points);
+            Message finalMessage = new Message(messageText, 0, winners, TileIdSet.EMPTY);
+            return withMessage(finalMessage);
+        }
+    
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof MessageBoard that
+                    && textMaker.equals(that.textMaker)
+                    && messages.equals(that.messages)
+                    && silent == that.silent;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(textMaker, messages, silent);
+        }
 
-            return new MessageBoard(this.textMaker, updatedMessages);
+        @Override
+        public String toString() {
+            return STR."MessageBoard[textMaker=\{textMaker}, messages=\{messages}]";
         }
     }
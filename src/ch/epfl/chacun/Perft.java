@@ -0,0 +1,115 @@
+package ch.epfl.chacun;
+
+import java.io.Serial;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Compte les feuilles de l'arbre des actions légales d'une partie jusqu'à une profondeur donnée, à la manière du
+ * « perft » des moteurs d'échecs, afin de valider et de mesurer la génération des actions.
+ * <p>
+ * Chaque action (pose d'une tuile, occupation ou reprise d'un pion) compte pour un niveau de l'arbre, et la suite des
+ * tuiles est fixée par les paquets de l'état de départ. Seuls les états atteints après exactement le nombre d'actions
+ * demandé sont comptés : une partie terminée plus tôt ne contribue aucune feuille.
+ *
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
+public final class Perft {
+
+    // en dessous de cette profondeur, les sous-arbres sont parcourus séquentiellement
+    private static final int SEQUENTIAL_DEPTH = 2;
+
+    private Perft() {}
+
+    /**
+     * Compte séquentiellement les feuilles de l'arbre des actions à la profondeur donnée.
+     *
+     * @param state L'état de jeu à la racine de l'arbre.
+     * @param depth La profondeur de l'arbre.
+     * @return Le nombre d'états atteints après exactement {@code depth} actions.
+     * @throws IllegalArgumentException si la profondeur est négative.
+     */
+    public static long count(GameState state, int depth) {
+        Preconditions.checkArgument(depth >= 0);
+        return countSequentially(state, depth);
+    }
+
+    /**
+     * Compte en parallèle les feuilles de l'arbre des actions à la profondeur donnée, les sous-arbres étant répartis
+     * sur le réservoir commun de fils d'exécution.
+     *
+     * @param state L'état de jeu à la racine de l'arbre.
+     * @param depth La profondeur de l'arbre.
+     * @return Le nombre d'états atteints après exactement {@code depth} actions.
+     * @throws IllegalArgumentException si la profondeur est négative.
+     */
+    public static long countInParallel(GameState state, int depth) {
+        Preconditions.checkArgument(depth >= 0);
+        return ForkJoinPool.commonPool().invoke(new CountTask(state, depth));
+    }
+
+    /**
+     * Compte les feuilles de l'arbre des actions d'une partie et affiche le nombre de nœuds par seconde.
+     *
+     * @param args La graine, le nombre de joueurs et la profondeur maximale ; les profondeurs de 1 à celle-ci
+     *             sont comptées tour à tour.
+     */
+    public static void main(String[] args) {
+        Preconditions.checkArgument(args.length == 3);
+        GameState state = GameLogVerifier.initialState(Long.parseUnsignedLong(args[0]), Integer.parseInt(args[1]));
+        int maxDepth = Integer.parseInt(args[2]);
+
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            long start = System.nanoTime();
+            long nodes = countInParallel(state, depth);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println(STR."perft(\{depth}) = \{nodes} (\{(long) (nodes / Math.max(seconds, 1e-9))} nœuds/s)");
+        }
+    }
+
+    //compte les feuilles sans créer de tâche ; au dernier niveau, les états des feuilles ne sont pas calculés
+    private static long countSequentially(GameState state, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (depth == 1) {
+            return state.successors().count();
+        }
+        return state.successors()
+                .mapToLong(successor -> countSequentially(successor.gameState(), depth - 1))
+                .sum();
+    }
+
+    //tâche comptant les feuilles d'un sous-arbre, en parallélisant ses sous-arbres tant qu'ils sont assez profonds
+    private static final class CountTask extends RecursiveTask<Long> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // les tâches ne sont jamais sérialisées ; l'état, qui n'est pas sérialisable, n'a pas à l'être
+        private final transient GameState state;
+        private final int depth;
+
+        private CountTask(GameState state, int depth) {
+            this.state = state;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth <= SEQUENTIAL_DEPTH) {
+                return countSequentially(state, depth);
+            }
+            List<CountTask> subtasks = state.successors()
+                    .map(successor -> new CountTask(successor.gameState(), depth - 1))
+                    .toList();
+            invokeAll(subtasks);
+            long count = 0;
+            for (CountTask subtask : subtasks) {
+                count += subtask.join();
+            }
+            return count;
+        }
+    }
+}
@@ -1,6 +1,5 @@
     package ch.epfl.chacun;
 
-    import java.util.HashSet;
     import java.util.Objects;
     import java.util.Set;
 
@@ -42,8 +41,17 @@
          * @return le côté de la tuile dans la direction donnée
          */
         public TileSide side(Direction direction){
-            return tile.sides().get(direction.rotated(rotation.negated()).ordinal());
+            return tile.side(rotation, direction);
+        }
+
+        //retourne la sorte (voir Tile.sideKind) du côté de la tuile dans la direction donnée
+        byte sideKind(Direction direction) {
+            return tile.sideKind(rotation, direction);
+        }
 
+        //retourne vrai si le côté de la tuile dans la direction donnée est de même sorte que le côté opposé de la tuile donnée
+        boolean sideMatches(Direction direction, PlacedTile neighbor) {
+            return sideKind(direction) == neighbor.sideKind(direction.opposite());
         }
 
         /**
@@ -54,10 +62,17 @@
          * @throws IllegalArgumentException si la tuile ne possède pas de zone avec l'identifiant donné
          */
         public Zone zoneWithId(int id) {
-            for (Zone z : tile.zones()) {
-                if (z.id() == id) { return z;}
+            Zone zone = zoneWithIdOrNull(id);
+            if (zone == null) {
+                throw new IllegalArgumentException("La tuile ne possède pas de zone avec l'identifiant donné ");
             }
-            throw new IllegalArgumentException("La tuile ne possède pas de zone avec l'identifiant donné ");
+            return zone;
+        }
+
+        //retourne la zone de la tuile dont l'identifiant est celui donné, ou null s'il n'y en a aucune
+        Zone zoneWithIdOrNull(int id) {
+            Zone zone = id >= 0 ? tile.zoneWithLocalId(Zone.localId(id)) : null;
+            return zone != null && zone.id() == id ? zone : null;
         }
 
         /**
@@ -66,75 +81,44 @@
          * @return la zone de la tuile ayant un pouvoir spécial, ou null s'il n'y en a aucune
          */
         public Zone specialPowerZone(){
-            for (Zone z : tile.zones()) {
-                if(z.specialPower() != null){ return z;}
-            }
-            return null;
+            return tile.specialPowerZone();
         }
 
         /**
          * Retourne l'ensemble des zones forêt de la tuile.
          *
-         * @return l'ensemble des zones forêt de la tuile
+         * @return l'ensemble non modifiable des zones forêt de la tuile
          */
         public Set<Zone.Forest> forestZones(){
-            Set<Zone.Forest> zoneforest = new HashSet<>();
-            for(Zone z: tile.zones()){
-                if(z instanceof Zone.Forest forest){ zoneforest.add(forest);}
-            }
-            return zoneforest;
+            return tile.forestZones();
         }
 
         /**
          * Retourne l'ensemble des zones prairie de la tuile.
          *
-         * @return l'ensemble des zones prairie de la tuile
+         * @return l'ensemble non modifiable des zones prairie de la tuile
          */
         public Set<Zone.Meadow> meadowZones(){
-            Set<Zone.Meadow> zonemeadow = new HashSet<>();
-            for(Zone z: tile.zones()){
-                if(z instanceof Zone.Meadow meadow){ zonemeadow.add(meadow);}
-            }
-            return zonemeadow;
+            return tile.meadowZones();
         }
 
         /**
          * Retourne l'ensemble des zones rivière de la tuile.
          *
-         * @return l'ensemble des zones rivière de la tuile
+         * @return l'ensemble non modifiable des zones rivière de la tuile
          */
         public Set<Zone.River> riverZones(){
-            Set<Zone.River> zoneriver = new HashSet<>();
-            for(Zone z: tile.zones()){
-                if(z instanceof Zone.River river){ zoneriver.add(river);}
-            }
-            return zoneriver;
+            return tile.riverZones();
         }
 
         /**
-         * Retourne l'ensemble des occupants potentiels sur les zones adjacentes à la tuile.
+         * Retourne l'ensemble des occupants potentiels sur les zones adjacentes à la tuile, précalculé par celle-ci, ou
+         * l'ensemble vide si la tuile n'a pas été posée par un joueur.
          *
-         * @return l'ensemble des occupants potentiels sur les zones adjacentes à la tuile
+         * @return l'ensemble non modifiable des occupants potentiels sur les zones adjacentes à la tuile
          */
         public Set<Occupant> potentialOccupants(){
-            Set<Occupant> potentialoccupants = new HashSet<>();
-
-           if(placer == null){ return new HashSet<>();}
-           else{
-               for(Zone z: tile.sideZones()){
-                   if(z instanceof Zone.River river){
-                       if(river.hasLake()){
-                           potentialoccupants.add(new Occupant(Occupant.Kind.HUT,river.lake().id()));
-                       }
-                       else{
-                           potentialoccupants.add(new Occupant(Occupant.Kind.HUT,river.id()));
-                       }
-                   }
-                   potentialoccupants.add(new Occupant(Occupant.Kind.PAWN,z.id()));
-               }
-               return potentialoccupants;
-           }
-
+            return placer == null ? Set.of() : tile.potentialOccupants();
         }
 
         /**
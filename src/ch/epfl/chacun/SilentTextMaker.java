@@ -0,0 +1,91 @@
+package ch.epfl.chacun;
+
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Générateur de texte muet, utilisé par les tableaux d'affichage muets pour rejouer rapidement une partie : il ne
+ * produit que des chaînes vides.
+ *
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
+final class SilentTextMaker implements TextMaker {
+
+    /**
+     * L'unique instance du générateur muet.
+     */
+    static final SilentTextMaker INSTANCE = new SilentTextMaker();
+
+    private SilentTextMaker() {}
+
+    @Override
+    public String playerName(PlayerColor playerColor) {
+        return "";
+    }
+
+    @Override
+    public String points(int points) {
+        return "";
+    }
+
+    @Override
+    public String playerClosedForestWithMenhir(PlayerColor player) {
+        return "";
+    }
+
+    @Override
+    public String playersScoredForest(Set<PlayerColor> scorers, int points, int mushroomGroupCount, int tileCount) {
+        return "";
+    }
+
+    @Override
+    public String playersScoredRiver(Set<PlayerColor> scorers, int points, int fishCount, int tileCount) {
+        return "";
+    }
+
+    @Override
+    public String playerScoredHuntingTrap(PlayerColor scorer, int points, TreeMap<Animal.Kind, Integer> animals) {
+        return "";
+    }
+
+    @Override
+    public String playerScoredLogboat(PlayerColor scorer, int points, int lakeCount) {
+        return "";
+    }
+
+    @Override
+    public String playersScoredMeadow(Set<PlayerColor> scorers, int points, TreeMap<Animal.Kind, Integer> animals) {
+        return "";
+    }
+
+    @Override
+    public String playersScoredRiverSystem(Set<PlayerColor> scorers, int points, int fishCount) {
+        return "";
+    }
+
+    @Override
+    public String playersScoredPitTrap(Set<PlayerColor> scorers, int points, TreeMap<Animal.Kind, Integer> animals) {
+        return "";
+    }
+
+    @Override
+    public String playersScoredRaft(Set<PlayerColor> scorers, int points, int lakeCount) {
+        return "";
+    }
+
+    @Override
+    public String playersWon(Set<PlayerColor> winners, int points) {
+        return "";
+    }
+
+    @Override
+    public String clickToOccupy() {
+        return "";
+    }
+
+    @Override
+    public String clickToUnoccupy() {
+        return "";
+    }
+}
@@ -1,15 +1,46 @@
 package ch.epfl.chacun;
 
 import java.util.*;
-import java.util.stream.Collectors;
-
-import static java.lang.StringTemplate.STR;
 
+/**
+ * Générateur des textes des messages en français.
+ * <p>
+ * Chaque message est formé de fragments constants et de quelques valeurs, écrits dans un {@link StringBuilder}
+ * réutilisé par chaque fil d'exécution ; la liste des noms des joueurs de chaque ensemble possible de gagnants,
+ * triée et jointe, est calculée une fois pour toutes à la construction, et indexée par le masque de bits de cet
+ * ensemble. La génération d'un message ne coûte donc que l'écriture de ses caractères.
+ *
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
 public final class TextMakerFr implements TextMaker{
+
+    // tampon réutilisé par chaque fil d'exécution pour écrire les messages
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(192));
+    private static final Map<Animal.Kind, String> ANIMAL_NAMES = new EnumMap<>(Map.of(
+            Animal.Kind.MAMMOTH, "mammouth",
+            Animal.Kind.AUROCHS, "auroch",
+            Animal.Kind.DEER, "cerf"));
+
     private final Map<PlayerColor,String> playerNames;
+    // noms des joueurs de chaque ensemble, triés par couleur et joints, indexés par le masque de bits de l'ensemble
+    private final String[] namesByMask;
 
     public TextMakerFr(Map<PlayerColor, String> playerNames) {
         this.playerNames = Map.copyOf(playerNames);
+        this.namesByMask = new String[1 << PlayerColor.ALL.size()];
+        for (int mask = 1; mask < namesByMask.length; mask++) {
+            StringBuilder names = new StringBuilder();
+            int count = Integer.bitCount(mask);
+            int written = 0;
+            for (PlayerColor color : PlayerColor.ALL) {
+                if ((mask & 1 << color.ordinal()) == 0) continue;
+                if (written > 0) names.append(written == count - 1 ? " et " : ", ");
+                names.append(playerName(color));
+                written += 1;
+            }
+            namesByMask[mask] = names.toString();
+        }
     }
 
     @Override
@@ -20,66 +51,73 @@ public final class TextMakerFr implements TextMaker{
 
     @Override
     public String points(int points) {
-        return STR."\{points} point\{addS(points)}";
+        StringBuilder b = builder();
+        appendCount(b, points, "point");
+        return b.toString();
     }
 
     @Override
     public String playerClosedForestWithMenhir(PlayerColor player) {
-        return STR."\{playerName(player)} a fermé une forêt contenant un menhir et peut donc placer une tuile menhir.";
+        return builder()
+                .append(playerName(player))
+                .append(" a fermé une forêt contenant un menhir et peut donc placer une tuile menhir.")
+                .toString();
     }
 
     @Override
     public String playersScoredForest(Set<PlayerColor> scorers, int points, int mushroomGroupCount, int tileCount) {
         Preconditions.checkArgument(!scorers.isEmpty());
 
-        List<String> scorersList  = sortPlayers(scorers);
-        String allScorers = scorersList.stream().limit(scorersList.size() -1).collect(Collectors.joining(", "));
-
-        if(mushroomGroupCount == 0){
-            return STR."\{etOn(scorersList,allScorers)} remporté \{points} point\{addS(points)} en tant qu'\{occupantS(scorersList,allScorers)} d'une forêt " +
-            STR."composée de \{tileCount} tuile\{addS(tileCount)}.";
+        StringBuilder b = builder();
+        appendScorers(b, scorers, points);
+        b.append("d'une forêt composée de ");
+        appendCount(b, tileCount, "tuile");
+        if (mushroomGroupCount > 0) {
+            b.append(" et de ");
+            appendCount(b, mushroomGroupCount, "groupe");
+            b.append(" de champignons");
         }
-
-        return STR."\{etOn(scorersList,allScorers)} remporté \{points} point\{addS(points)} en tant qu'\{occupantS(scorersList,allScorers)} d'une forêt " +
-                STR."composée de \{tileCount} tuile\{addS(tileCount)} et de \{mushroomGroupCount} groupe\{addS(mushroomGroupCount)} de champignons.";
+        return b.append('.').toString();
     }
 
     @Override
     public String playersScoredRiver(Set<PlayerColor> scorers, int points, int fishCount, int tileCount) {
         Preconditions.checkArgument(!scorers.isEmpty());
 
-        List<String> scorersList  = sortPlayers(scorers);
-        String allScorers = scorersList.stream().limit(scorersList.size() -1).collect(Collectors.joining(", "));
-
-
-        return STR."\{etOn(scorersList,allScorers)} remporté \{points} point\{addS(points)} en tant qu'\{occupantS(scorersList,allScorers)} d'une " +
-        STR."rivière composée de \{tileCount} tuile\{addS(tileCount)}\{contains(fishCount,"poisson")}";
+        StringBuilder b = builder();
+        appendScorers(b, scorers, points);
+        b.append("d'une rivière composée de ");
+        appendCount(b, tileCount, "tuile");
+        if (fishCount > 0) {
+            b.append(" et contenant ");
+            appendCount(b, fishCount, "poisson");
+        }
+        return b.append('.').toString();
     }
 
     @Override
-    public String playerScoredHuntingTrap(PlayerColor scorer, int points, TreeMap<Animal.Kind, Integer> animals) {//dire pq on a mis des treempaps
+    public String playerScoredHuntingTrap(PlayerColor scorer, int points, TreeMap<Animal.Kind, Integer> animals) {
         Preconditions.checkArgument(!animals.isEmpty());
         Preconditions.checkArgument(scorer != null);
 
-        List<String> animalsList = animalsToFrench(animals);
-        String allAnimals = animalsList.stream().limit(animalsList.size() -1).collect(Collectors.joining(", "));
-
-        if(animals.size() == 1)
-            return STR."\{playerName(scorer)} a remporté \{points} point\{addS(points)} en plaçant la fosse à pieux dans un pré dans lequel elle est " +
-            STR."entourée de \{animalsList.getFirst()}.";
-
-
-        return STR."\{playerName(scorer)} a remporté \{points} point\{addS(points)} en plaçant la fosse à pieux dans un pré dans lequel elle est entourée " +
-        STR."de \{allAnimals} et \{animalsList.getLast()}.";
-
+        StringBuilder b = builder();
+        b.append(playerName(scorer)).append(" a remporté ");
+        appendCount(b, points, "point");
+        b.append(" en plaçant la fosse à pieux dans un pré dans lequel elle est entourée de ");
+        appendAnimals(b, animals);
+        return b.append('.').toString();
     }
 
     @Override
     public String playerScoredLogboat(PlayerColor scorer, int points, int lakeCount) {
         Preconditions.checkArgument(scorer != null);
 
-        return STR."\{playerName(scorer)} a remporté \{points} point\{addS(points)} en plaçant la pirogue dans un réseau hydrographique " +
-                STR."contenant \{lakeCount} lac\{addS(lakeCount)}.";
+        StringBuilder b = builder();
+        b.append(playerName(scorer)).append(" a remporté ");
+        appendCount(b, points, "point");
+        b.append(" en plaçant la pirogue dans un réseau hydrographique contenant ");
+        appendCount(b, lakeCount, "lac");
+        return b.append('.').toString();
     }
 
     @Override
@@ -87,31 +125,22 @@ public final class TextMakerFr implements TextMaker{
         Preconditions.checkArgument(!animals.isEmpty());
         Preconditions.checkArgument(!scorers.isEmpty());
 
-        List<String> animalsList = animalsToFrench(animals);
-        String allAnimals = animalsList.stream()
-                .limit(animalsList.size() -1).collect(Collectors.joining(", "));
-
-        List<String> scorersList  = sortPlayers(scorers);
-        String allScorers = scorersList.stream().limit(scorersList.size() -1).collect(Collectors.joining(", "));
-
-        if(animals.size() == 1)
-            return STR."\{etOn(scorersList,allScorers)} remporté \{points} point\{addS(points)} en tant qu'\{occupantS(scorersList,allScorers)} d'un pré " +
-            STR."contenant \{animalsList.getFirst()}.";
-
-
-        return STR."\{etOn(scorersList,allScorers)} remporté \{points} point\{addS(points)} en tant qu'\{occupantS(scorersList,allScorers)} " +
-        STR."d'un pré contenant \{allAnimals} et \{animalsList.getLast()}.";
+        StringBuilder b = builder();
+        appendScorers(b, scorers, points);
+        b.append("d'un pré contenant ");
+        appendAnimals(b, animals);
+        return b.append('.').toString();
     }
 
     @Override
     public String playersScoredRiverSystem(Set<PlayerColor> scorers, int points, int fishCount) {
         Preconditions.checkArgument(!scorers.isEmpty());
 
-        List<String> scorersList  = sortPlayers(scorers);
-        String allScorers = scorersList.stream().limit(scorersList.size() -1).collect(Collectors.joining(", "));
-
-        return STR."\{etOn(scorersList,allScorers)} remporté \{points} point\{addS(points)} en tant qu'\{occupantS(scorersList,allScorers)} d'un réseau " +
-                STR."hydrographique contenant \{fishCount} poisson\{addS(fishCount)}.";
+        StringBuilder b = builder();
+        appendScorers(b, scorers, points);
+        b.append("d'un réseau hydrographique contenant ");
+        appendCount(b, fishCount, "poisson");
+        return b.append('.').toString();
     }
 
     @Override
@@ -119,102 +148,83 @@ public final class TextMakerFr implements TextMaker{
         Preconditions.checkArgument(!animals.isEmpty());
         Preconditions.checkArgument(!scorers.isEmpty());
 
-        List<String> animalsList = animalsToFrench(animals);
-        String allAnimals = animalsList.stream().limit(animalsList.size() -1).collect(Collectors.joining(", "));
-
-        List<String> scorersList = sortPlayers(scorers);
-
-        String allScorers = scorersList.stream().limit(scorersList.size() -1).collect(Collectors.joining(", "));
-
-        if(animals.size() == 1)
-            return STR."\{etOn(scorersList,allScorers)} remporté \{points} point\{addS(points)} en tant qu'\{occupantS(scorersList,allScorers)} " +
-                    STR." d'un pré contenant la grande fosse à pieux entourée de \{animalsList.getFirst()}.";
-
-
-        return STR."\{etOn(scorersList,allScorers)} remporté \{points} point\{addS(points)} en tant qu'\{occupantS(scorersList,allScorers)} "
-                + STR."d'un pré contenant la grande fosse à pieux entourée de \{allAnimals} et \{animalsList.getLast()}.";
-
+        StringBuilder b = builder();
+        appendScorers(b, scorers, points);
+        b.append("d'un pré contenant la grande fosse à pieux entourée de ");
+        appendAnimals(b, animals);
+        return b.append('.').toString();
     }
 
     @Override
     public String playersScoredRaft(Set<PlayerColor> scorers, int points, int lakeCount) {
         Preconditions.checkArgument(!scorers.isEmpty());
 
-        List<String> scorersList  = sortPlayers(scorers);
-        String allScorers = scorersList.stream().limit(scorersList.size() -1).collect(Collectors.joining(", "));
-
-        return STR."\{etOn(scorersList,allScorers)} remporté \{points} point\{addS(points)} en tant qu'\{occupantS(scorersList,allScorers)} d'un " +
-        STR."réseau hydrographique contenant le radeau et \{lakeCount} lac\{addS(lakeCount)}.";
+        StringBuilder b = builder();
+        appendScorers(b, scorers, points);
+        b.append("d'un réseau hydrographique contenant le radeau et ");
+        appendCount(b, lakeCount, "lac");
+        return b.append('.').toString();
     }
 
     @Override
     public String playersWon(Set<PlayerColor> winners, int points) {
-        List<String> winnersList  = sortPlayers(winners);
-
-        if(winners.size() == 1){
-            return STR."\{winnersList.getFirst()} a remporté la partie avec \{points} point\{addS(points)} !";
-        }
-
-        if(!winners.isEmpty()){
-            String win = winnersList.stream().limit(winnersList.size() -1).collect(Collectors.joining(", "));
-
-            return STR."\{win} et \{winnersList.getLast()} ont remporté la partie avec \{points} point\{addS(points)} !";
-        }
+        if (winners.isEmpty()) return "La partie s'est terminée sans aucun gagnant.";
 
-         return "La partie s'est terminée sans aucun gagnant.";
+        int mask = maskOf(winners);
+        StringBuilder b = builder();
+        b.append(namesByMask[mask]).append(Integer.bitCount(mask) > 1 ? " ont" : " a").append(" remporté la partie avec ");
+        appendCount(b, points, "point");
+        return b.append(" !").toString();
     }
 
     @Override
     public String clickToOccupy() {
-        return STR."Cliquez sur le pion ou la hutte que vous désirez placer, ou ici pour ne pas en placer.";
+        return "Cliquez sur le pion ou la hutte que vous désirez placer, ou ici pour ne pas en placer.";
     }
 
     @Override
     public String clickToUnoccupy() {
-        return STR."Cliquez sur le pion que vous désirez reprendre, ou ici pour ne pas en reprendre.";
+        return "Cliquez sur le pion que vous désirez reprendre, ou ici pour ne pas en reprendre.";
     }
 
-
-    private List<String> animalsToFrench(TreeMap<Animal.Kind,Integer> animals){//traduit les animaux de l'anglais au francais
-        Map<Animal.Kind, String> frenchAnimalNames = new HashMap<>();
-        frenchAnimalNames.put(Animal.Kind.MAMMOTH, "mammouth");
-        frenchAnimalNames.put(Animal.Kind.AUROCHS, "auroch");
-        frenchAnimalNames.put(Animal.Kind.DEER, "cerf");
-
-        TreeMap<Animal.Kind,Integer> newAnimals = new TreeMap<>();
-        for(Map.Entry<Animal.Kind,Integer> entry : animals.entrySet()){
-            if(entry.getKey() != Animal.Kind.TIGER) newAnimals.put(entry.getKey(),entry.getValue());
-        }
-
-        return newAnimals.entrySet().stream().map(entry -> STR."\{entry.getValue()} \{frenchAnimalNames.get(entry.getKey())}\{addS(entry.getValue())}")
-                .toList();
+    //retourne le tampon du fil d'exécution courant, vidé
+    private static StringBuilder builder() {
+        StringBuilder b = BUILDER.get();
+        b.setLength(0);
+        return b;
     }
 
-    private String addS(int count){//détermine le pluriel ou le singulier
-        if(count > 1) return "s";
-        return "";
+    //retourne le masque de bits de l'ensemble de joueurs donné, le bit de chaque joueur étant celui de sa couleur
+    private static int maskOf(Set<PlayerColor> players) {
+        int mask = 0;
+        for (PlayerColor player : players) mask |= 1 << player.ordinal();
+        return mask;
     }
 
-    private List<String> sortPlayers(Set<PlayerColor> players){//crée une list triée avec les prénoms des joueurs
-        List<PlayerColor> playerColors = new ArrayList<>(players);
-        playerColors.sort(Comparator.comparingInt(PlayerColor::ordinal));
-
-        return new ArrayList<>(playerColors.stream().map(this::playerName).toList());
+    //ajoute le nombre donné suivi du nom donné, au pluriel si nécessaire
+    private static void appendCount(StringBuilder b, int count, String name) {
+        b.append(count).append(' ').append(name);
+        if (count > 1) b.append('s');
     }
 
-    private String contains(int animalCount, String animal){
-        if( animalCount > 0) return STR." et contenant \{animalCount} \{animal}\{addS(animalCount)}.";
-        return ".";
+    //ajoute les noms des occupants majoritaires donnés, les points remportés et leur qualité, jusqu'au « d' » suivant
+    private void appendScorers(StringBuilder b, Set<PlayerColor> scorers, int points) {
+        int mask = maskOf(scorers);
+        boolean plural = Integer.bitCount(mask) > 1;
+        b.append(namesByMask[mask]).append(plural ? " ont remporté " : " a remporté ");
+        appendCount(b, points, "point");
+        b.append(plural ? " en tant qu'occupant·e·s majoritaires " : " en tant qu'occupant·e majoritaire ");
     }
 
-    private String etOn(List<String> list, String s){
-        if(list.size() == 1) return STR."\{list.getFirst()} a";
-        return STR."\{s} et \{list.getLast()} ont";
-    }
-
-    private String occupantS(List<String> list,String s){//gere le pluriel ou singulier
-        if(Objects.equals(etOn(list, s), STR."\{list.getFirst()} a")) return "occupant·e majoritaire";
-        return "occupant·e·s majoritaires";
+    //ajoute les animaux donnés, sauf les tigres, avec leur nombre et leur nom en français, p. ex. "1 mammouth et 2 cerfs"
+    private static void appendAnimals(StringBuilder b, TreeMap<Animal.Kind, Integer> animals) {
+        int count = animals.size() - (animals.containsKey(Animal.Kind.TIGER) ? 1 : 0);
+        int written = 0;
+        for (Map.Entry<Animal.Kind, Integer> entry : animals.entrySet()) {
+            if (entry.getKey() == Animal.Kind.TIGER) continue;
+            if (written > 0) b.append(written == count - 1 ? " et " : ", ");
+            appendCount(b, entry.getValue(), ANIMAL_NAMES.get(entry.getKey()));
+            written += 1;
+        }
     }
-
 }
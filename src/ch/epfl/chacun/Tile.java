@@ -1,16 +1,56 @@
     package ch.epfl.chacun;
 
-    import java.util.HashSet;
+    import java.util.AbstractSet;
+    import java.util.Iterator;
     import java.util.List;
+    import java.util.NoSuchElementException;
+    import java.util.Objects;
     import java.util.Set;
 
     /**
      * Tuile du plateau de jeu.
+     * <p>
+     * Les identifiants locaux des zones d'une tuile étant compris entre 0 et 9, chaque tuile range ses zones dans une
+     * table indexée par identifiant local, calculée une fois pour toutes à sa construction ; les ensembles de zones
+     * qu'elle retourne sont des vues non modifiables sur cette table.
      *
      * @author Mehdi Boulaid (358117)
      * @author Adnane Jamil (356117)
      */
-    public record Tile(int id, Kind kind, TileSide n, TileSide e, TileSide s, TileSide w) {
+    public final class Tile {
+
+        // nombre maximal de zones d'une tuile, leur identifiant local étant un chiffre
+        private static final int MAX_ZONES = 10;
+
+        // sortes de côtés, telles que retournées par sideKind
+        private static final byte FOREST = 0;
+        private static final byte MEADOW = 1;
+        private static final byte RIVER = 2;
+
+        private final int id;
+        private final Kind kind;
+        private final TileSide n;
+        private final TileSide e;
+        private final TileSide s;
+        private final TileSide w;
+
+        // zones de la tuile, à l'index de leur identifiant local, et nombre de leurs connexions ouvertes
+        private final Zone[] zones = new Zone[MAX_ZONES];
+        private final byte[] openConnections = new byte[MAX_ZONES];
+        private final Set<Zone> sideZones;
+        private final Set<Zone> allZones;
+        private final Set<Zone.Forest> forestZones;
+        private final Set<Zone.Meadow> meadowZones;
+        private final Set<Zone.River> riverZones;
+        private final Set<Zone.Lake> lakeZones;
+        private final Zone specialPowerZone;
+        // côtés de la tuile tournée et leurs sortes, à l'index 4 * ordinal de la rotation + ordinal de la direction
+        private final TileSide[] rotatedSides = new TileSide[Rotation.COUNT * Direction.COUNT];
+        private final byte[] rotatedSideKinds = new byte[Rotation.COUNT * Direction.COUNT];
+        private final int sideSignature;
+        // occupants pouvant être placés sur la tuile : un pion par zone d'un côté, une hutte par lac ou par rivière
+        // sans lac, rangés par sorte puis par identifiant local
+        private final Set<Occupant> potentialOccupants;
 
         /**
          * Énumère les types de tuile possibles.
@@ -23,6 +63,237 @@
             MENHIR
         }
 
+        /**
+         * Construit une tuile.
+         *
+         * @param id L'identifiant de la tuile.
+         * @param kind La sorte de la tuile.
+         * @param n Le côté nord.
+         * @param e Le côté est.
+         * @param s Le côté sud.
+         * @param w Le côté ouest.
+         * @throws IllegalArgumentException si deux zones différentes de la tuile ont le même identifiant local.
+         */
+        public Tile(int id, Kind kind, TileSide n, TileSide e, TileSide s, TileSide w) {
+            this.id = id;
+            this.kind = kind;
+            this.n = n;
+            this.e = e;
+            this.s = s;
+            this.w = w;
+
+            List<TileSide> sides = sides();
+            for (Rotation rotation : Rotation.ALL) {
+                for (Direction direction : Direction.ALL) {
+                    int index = rotation.ordinal() * Direction.COUNT + direction.ordinal();
+                    rotatedSides[index] = sides.get(direction.rotated(rotation.negated()).ordinal());
+                    rotatedSideKinds[index] = sideKind(rotatedSides[index]);
+                }
+            }
+            sideSignature = rotatedSideKinds[0] | rotatedSideKinds[1] << 2 | rotatedSideKinds[2] << 4
+                    | rotatedSideKinds[3] << 6;
+
+            int sideMask = 0;
+            for (TileSide side : sides) {
+                for (Zone zone : side.zones()) {
+                    sideMask |= addZone(zone);
+                    openConnections[zone.localId()]++;
+                    if (zone instanceof Zone.River river && river.hasLake()) {
+                        openConnections[river.lake().localId()]++;
+                        openConnections[river.localId()]++;
+                    }
+                }
+            }
+            int allMask = sideMask;
+            for (int mask = sideMask; mask != 0; mask &= mask - 1) {
+                if (zones[Integer.numberOfTrailingZeros(mask)] instanceof Zone.River river && river.hasLake()) {
+                    allMask |= addZone(river.lake());
+                }
+            }
+
+            int forestMask = 0, meadowMask = 0, riverMask = 0, lakeMask = 0;
+            Zone powerZone = null;
+            for (int mask = allMask; mask != 0; mask &= mask - 1) {
+                int localId = Integer.numberOfTrailingZeros(mask);
+                // des tests de type plutôt qu'un switch, dont l'amorçage retarderait le chargement des tuiles
+                if (zones[localId] instanceof Zone.Forest) forestMask |= 1 << localId;
+                else if (zones[localId] instanceof Zone.Meadow) meadowMask |= 1 << localId;
+                else if (zones[localId] instanceof Zone.River) riverMask |= 1 << localId;
+                else lakeMask |= 1 << localId;
+                if (powerZone == null && zones[localId].specialPower() != null) {
+                    powerZone = zones[localId];
+                }
+            }
+            sideZones = new ZoneSet<>(zones, sideMask);
+            allZones = new ZoneSet<>(zones, allMask);
+            forestZones = new ZoneSet<>(zones, forestMask);
+            meadowZones = new ZoneSet<>(zones, meadowMask);
+            riverZones = new ZoneSet<>(zones, riverMask);
+            lakeZones = new ZoneSet<>(zones, lakeMask);
+            specialPowerZone = powerZone;
+
+            int hutMask = lakeMask;
+            for (int mask = riverMask; mask != 0; mask &= mask - 1) {
+                int localId = Integer.numberOfTrailingZeros(mask);
+                if (!((Zone.River) zones[localId]).hasLake()) hutMask |= 1 << localId;
+            }
+            potentialOccupants = new OccupantSet(zones, sideMask, hutMask);
+        }
+
+        //retourne la sorte du côté donné
+        private static byte sideKind(TileSide side) {
+            if (side instanceof TileSide.Forest) return FOREST;
+            return side instanceof TileSide.Meadow ? MEADOW : RIVER;
+        }
+
+        //range la zone donnée dans la table et retourne le bit de son identifiant local
+        private int addZone(Zone zone) {
+            int localId = zone.localId();
+            Preconditions.checkArgument(zones[localId] == null || zones[localId] == zone || zones[localId].equals(zone));
+            zones[localId] = zone;
+            return 1 << localId;
+        }
+
+        //ensemble non modifiable des zones d'une table dont l'identifiant local appartient à un masque donné
+        private static final class ZoneSet<Z extends Zone> extends AbstractSet<Z> {
+            private final Zone[] table;
+            private final int mask;
+
+            private ZoneSet(Zone[] table, int mask) {
+                this.table = table;
+                this.mask = mask;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof Zone zone)) return false;
+                int localId = zone.localId();
+                return localId >= 0 && (mask & 1 << localId) != 0 && table[localId].equals(zone);
+            }
+
+            @Override
+            public Iterator<Z> iterator() {
+                return new Iterator<>() {
+                    private int remaining = mask;
+
+                    @Override
+                    public boolean hasNext() {
+                        return remaining != 0;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Z next() {
+                        if (remaining == 0) throw new NoSuchElementException();
+                        int localId = Integer.numberOfTrailingZeros(remaining);
+                        remaining &= remaining - 1;
+                        return (Z) table[localId];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return Integer.bitCount(mask);
+            }
+        }
+
+        //ensemble non modifiable des occupants d'une table de zones : un pion par zone dont l'identifiant local
+        //appartient à un premier masque, et une hutte par zone dont l'identifiant local appartient à un second
+        private static final class OccupantSet extends AbstractSet<Occupant> {
+            private final Zone[] table;
+            private final int pawnMask;
+            private final int hutMask;
+            private final List<Occupant> occupants;
+
+            private OccupantSet(Zone[] table, int pawnMask, int hutMask) {
+                this.table = table;
+                this.pawnMask = pawnMask;
+                this.hutMask = hutMask;
+                Occupant[] occupants = new Occupant[Integer.bitCount(pawnMask) + Integer.bitCount(hutMask)];
+                int i = 0;
+                for (int mask = pawnMask; mask != 0; mask &= mask - 1) {
+                    occupants[i++] = new Occupant(Occupant.Kind.PAWN, table[Integer.numberOfTrailingZeros(mask)].id());
+                }
+                for (int mask = hutMask; mask != 0; mask &= mask - 1) {
+                    occupants[i++] = new Occupant(Occupant.Kind.HUT, table[Integer.numberOfTrailingZeros(mask)].id());
+                }
+                this.occupants = List.of(occupants);
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof Occupant occupant)) return false;
+                int localId = Zone.localId(occupant.zoneId());
+                int mask = occupant.kind() == Occupant.Kind.PAWN ? pawnMask : hutMask;
+                return (mask & 1 << localId) != 0 && table[localId].id() == occupant.zoneId();
+            }
+
+            @Override
+            public Iterator<Occupant> iterator() {
+                return occupants.iterator();
+            }
+
+            @Override
+            public int size() {
+                return occupants.size();
+            }
+        }
+
+        /**
+         * Retourne l'identifiant de la tuile.
+         *
+         * @return L'identifiant de la tuile.
+         */
+        public int id() {
+            return id;
+        }
+
+        /**
+         * Retourne la sorte de la tuile.
+         *
+         * @return La sorte de la tuile.
+         */
+        public Kind kind() {
+            return kind;
+        }
+
+        /**
+         * Retourne le côté nord de la tuile.
+         *
+         * @return Le côté nord.
+         */
+        public TileSide n() {
+            return n;
+        }
+
+        /**
+         * Retourne le côté est de la tuile.
+         *
+         * @return Le côté est.
+         */
+        public TileSide e() {
+            return e;
+        }
+
+        /**
+         * Retourne le côté sud de la tuile.
+         *
+         * @return Le côté sud.
+         */
+        public TileSide s() {
+            return s;
+        }
+
+        /**
+         * Retourne le côté ouest de la tuile.
+         *
+         * @return Le côté ouest.
+         */
+        public TileSide w() {
+            return w;
+        }
+
         /**
          * Retourne les côtés de la tuile.
          *
@@ -35,37 +306,130 @@
         /**
          * Retourne l'ensemble des zones associées aux côtés de la tuile.
          *
-         * @return L'ensemble des zones associées aux côtés de la tuile.
+         * @return L'ensemble non modifiable des zones associées aux côtés de la tuile.
          */
         public Set<Zone> sideZones() {
-            Set<Zone> mysideZones = new HashSet<>();
-            mysideZones.addAll(n.zones());
-            mysideZones.addAll(e.zones());
-            mysideZones.addAll(s.zones());
-            mysideZones.addAll(w.zones());
-
-            return Set.copyOf(mysideZones);
-
+            return sideZones;
         }
 
         /**
          * Retourne l'ensemble de toutes les zones présentes sur la tuile, y compris les lacs associés aux rivières.
          *
-         * @return L'ensemble de toutes les zones présentes sur la tuile.
+         * @return L'ensemble non modifiable de toutes les zones présentes sur la tuile.
          */
         public Set<Zone> zones() {
-            Set<Zone> nzone = new HashSet<>();
-            nzone.addAll(sideZones());
+            return allZones;
+        }
 
-            for (Zone z : sideZones()) {
-                if (z instanceof Zone.River river) {
-                    if (river.hasLake()) {
-                        nzone.add(river.lake());
-                    }
-                }
-            }
+        /**
+         * Retourne l'ensemble des zones forêt de la tuile.
+         *
+         * @return L'ensemble non modifiable des zones forêt de la tuile.
+         */
+        public Set<Zone.Forest> forestZones() {
+            return forestZones;
+        }
+
+        /**
+         * Retourne l'ensemble des zones pré de la tuile.
+         *
+         * @return L'ensemble non modifiable des zones pré de la tuile.
+         */
+        public Set<Zone.Meadow> meadowZones() {
+            return meadowZones;
+        }
+
+        /**
+         * Retourne l'ensemble des zones rivière de la tuile.
+         *
+         * @return L'ensemble non modifiable des zones rivière de la tuile.
+         */
+        public Set<Zone.River> riverZones() {
+            return riverZones;
+        }
+
+        /**
+         * Retourne l'ensemble des zones lac de la tuile.
+         *
+         * @return L'ensemble non modifiable des zones lac de la tuile.
+         */
+        public Set<Zone.Lake> lakeZones() {
+            return lakeZones;
+        }
+
+        /**
+         * Retourne l'ensemble des occupants pouvant être placés sur la tuile, c.-à-d. un pion sur chaque zone touchant
+         * l'un de ses côtés et une hutte sur chaque lac, ou sur chaque rivière n'aboutissant pas à un lac. Cet ensemble
+         * est calculé une fois pour toutes à la construction de la tuile.
+         *
+         * @return L'ensemble non modifiable des occupants potentiels de la tuile.
+         */
+        public Set<Occupant> potentialOccupants() {
+            return potentialOccupants;
+        }
+
+        /**
+         * Retourne la zone de la tuile ayant l'identifiant local donné.
+         *
+         * @param localId L'identifiant local de la zone.
+         * @return La zone ayant cet identifiant local, ou null si la tuile n'en a aucune.
+         */
+        public Zone zoneWithLocalId(int localId) {
+            return localId >= 0 && localId < MAX_ZONES ? zones[localId] : null;
+        }
+
+        /**
+         * Retourne la zone de la tuile ayant un pouvoir spécial, ou null s'il n'y en a aucune.
+         *
+         * @return La zone de la tuile ayant un pouvoir spécial, ou null s'il n'y en a aucune.
+         */
+        public Zone specialPowerZone() {
+            return specialPowerZone;
+        }
+
+        //retourne le côté de la tuile tournée de la rotation donnée, dans la direction donnée
+        TileSide side(Rotation rotation, Direction direction) {
+            return rotatedSides[rotation.ordinal() * Direction.COUNT + direction.ordinal()];
+        }
+
+        //retourne la sorte du côté de la tuile tournée de la rotation donnée, dans la direction donnée
+        byte sideKind(Rotation rotation, Direction direction) {
+            return rotatedSideKinds[rotation.ordinal() * Direction.COUNT + direction.ordinal()];
+        }
+
+        //retourne la signature des côtés de la tuile, qui détermine seule les positions et rotations auxquelles elle
+        //peut être posée : les bits 2i et 2i + 1 contiennent la sorte du côté d'index i, dans l'ordre nord, est, sud,
+        //ouest
+        int sideSignature() {
+            return sideSignature;
+        }
+
+        //retourne le nombre de connexions ouvertes de la zone d'identifiant local donné, c.-à-d. le nombre de côtés
+        //qu'elle touche, une rivière aboutissant à un lac comptant en plus sa connexion à celui-ci, et le lac une
+        //connexion vers chacune de ses rivières
+        int openConnections(int localId) {
+            return openConnections[localId];
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Tile that
+                    && id == that.id
+                    && kind == that.kind
+                    && Objects.equals(n, that.n)
+                    && Objects.equals(e, that.e)
+                    && Objects.equals(s, that.s)
+                    && Objects.equals(w, that.w);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, kind, n, e, s, w);
+        }
 
-            return nzone;
+        @Override
+        public String toString() {
+            return STR."Tile[id=\{id}, kind=\{kind}, n=\{n}, e=\{e}, s=\{s}, w=\{w}]";
         }
 
     }
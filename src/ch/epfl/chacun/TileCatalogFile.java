@@ -0,0 +1,276 @@
+package ch.epfl.chacun;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Format binaire d'un catalogue de tuiles, permettant de charger un jeu de tuiles depuis un fichier plutôt que de le
+ * créer par le code de {@link Tiles}.
+ * <p>
+ * Le fichier commence par un nombre magique, la version du format et le nombre de tuiles. Chaque tuile est ensuite
+ * décrite par son identifiant, qui doit être égal à son index dans le catalogue, sa sorte, ses zones et ses quatre
+ * côtés. Chaque zone est décrite par son identifiant local, sa sorte puis ses attributs ; un lac précède les
+ * rivières qui s'y jettent. Chaque côté est décrit par sa sorte puis par les identifiants locaux de ses zones.
+ * <p>
+ * Le chargement lit le fichier au travers d'une projection en mémoire, et crée une seule instance de chaque zone,
+ * partagée par tous les côtés qui la bordent.
+ *
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
+public final class TileCatalogFile {
+
+    private static final int MAGIC = 0x43_68_43_4E; // "ChCN"
+    private static final int VERSION = 1;
+
+    // sortes de zones et de côtés telles qu'encodées dans le fichier
+    private static final byte FOREST = 0;
+    private static final byte MEADOW = 1;
+    private static final byte RIVER = 2;
+    private static final byte LAKE = 3;
+    // valeur encodant l'absence de pouvoir spécial ou de lac
+    private static final byte NONE = -1;
+
+    private static final int MAX_ZONES = 10;
+    // taille minimale d'une tuile : identifiant, sorte, nombre de zones, une forêt et quatre côtés forêt
+    private static final int MIN_TILE_BYTES = 4 + 1 + 1 + 3 + Direction.COUNT * 2;
+
+    private static final Tile.Kind[] TILE_KINDS = Tile.Kind.values();
+    private static final Zone.Forest.Kind[] FOREST_KINDS = Zone.Forest.Kind.values();
+    private static final Zone.SpecialPower[] SPECIAL_POWERS = Zone.SpecialPower.values();
+    private static final Animal.Kind[] ANIMAL_KINDS = Animal.Kind.values();
+
+    private TileCatalogFile() {}
+
+    /**
+     * Charge le catalogue de tuiles contenu dans le fichier donné.
+     *
+     * @param file Le fichier du catalogue.
+     * @return La liste non modifiable des tuiles du catalogue, rangées par identifiant.
+     * @throws IOException si le fichier ne peut pas être lu.
+     * @throws IllegalArgumentException si le contenu du fichier n'est pas un catalogue valide.
+     */
+    public static List<Tile> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(buffer);
+        }
+    }
+
+    /**
+     * Écrit les tuiles données dans le fichier donné, au format du catalogue.
+     *
+     * @param tiles Les tuiles, dont chacune doit avoir pour identifiant son index dans la liste.
+     * @param file Le fichier du catalogue, remplacé s'il existe.
+     * @throws IOException si le fichier ne peut pas être écrit.
+     * @throws IllegalArgumentException si les tuiles ne peuvent pas former un catalogue.
+     */
+    public static void write(List<Tile> tiles, Path file) throws IOException {
+        Files.write(file, encode(tiles));
+    }
+
+    /**
+     * Décode le catalogue contenu dans le tampon donné, de sa position à sa limite.
+     *
+     * @param buffer Le tampon.
+     * @return La liste non modifiable des tuiles du catalogue, rangées par identifiant.
+     * @throws IllegalArgumentException si le contenu du tampon n'est pas un catalogue valide.
+     */
+    static List<Tile> decode(ByteBuffer buffer) {
+        try {
+            Preconditions.checkArgument(buffer.getInt() == MAGIC);
+            Preconditions.checkArgument(buffer.getShort() == VERSION);
+            int tileCount = buffer.getInt();
+            Preconditions.checkArgument(tileCount >= 0 && tileCount <= buffer.remaining() / MIN_TILE_BYTES);
+            Tile[] tiles = new Tile[tileCount];
+            Zone[] zones = new Zone[MAX_ZONES];
+            for (int i = 0; i < tileCount; i++) {
+                tiles[i] = decodeTile(buffer, i, zones);
+            }
+            Preconditions.checkArgument(!buffer.hasRemaining());
+            return List.of(tiles);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Encode les tuiles données au format du catalogue.
+     *
+     * @param tiles Les tuiles, dont chacune doit avoir pour identifiant son index dans la liste.
+     * @return Le contenu du fichier du catalogue.
+     * @throws IllegalArgumentException si les tuiles ne peuvent pas former un catalogue, p. ex. parce que l'identifiant
+     *                                  d'une de leurs zones ou de leurs animaux ne dérive pas de celui de la tuile.
+     */
+    static byte[] encode(List<Tile> tiles) {
+        // en-tête de 6 octets et au plus 4 octets par côté, 4 octets par zone et 2 octets par animal
+        int capacity = 4 + 2 + 4;
+        for (Tile tile : tiles) {
+            capacity += 6 + Direction.COUNT * 4;
+            for (Zone zone : tile.zones()) {
+                capacity += zone instanceof Zone.Meadow meadow ? 4 + 2 * meadow.animals().size() : 4;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(capacity);
+        buffer.putInt(MAGIC).putShort((short) VERSION).putInt(tiles.size());
+        for (int i = 0; i < tiles.size(); i++) {
+            Tile tile = tiles.get(i);
+            Preconditions.checkArgument(tile.id() == i);
+            encodeTile(buffer, tile);
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    //décode la tuile d'identifiant donné, en rangeant ses zones dans le tableau donné, réutilisé d'une tuile à l'autre
+    private static Tile decodeTile(ByteBuffer buffer, int expectedId, Zone[] zones) {
+        Preconditions.checkArgument(buffer.getInt() == expectedId);
+        Tile.Kind kind = TILE_KINDS[index(buffer.get(), TILE_KINDS.length)];
+        int zoneCount = buffer.get();
+        Preconditions.checkArgument(zoneCount > 0 && zoneCount <= MAX_ZONES);
+        Arrays.fill(zones, null);
+        // zones qu'un côté ou une rivière doit référencer pour qu'elles fassent partie de la tuile
+        int unreferenced = 0;
+        for (int z = 0; z < zoneCount; z++) {
+            int localId = index(buffer.get(), MAX_ZONES);
+            Preconditions.checkArgument(zones[localId] == null);
+            Zone zone = decodeZone(buffer, expectedId * 10 + localId, zones);
+            zones[localId] = zone;
+            unreferenced |= 1 << localId;
+            if (zone instanceof Zone.River river && river.lake() != null) {
+                unreferenced &= ~(1 << river.lake().localId());
+            }
+        }
+        TileSide[] sides = new TileSide[Direction.COUNT];
+        for (int d = 0; d < Direction.COUNT; d++) {
+            byte sideKind = buffer.get();
+            if (sideKind == FOREST) {
+                sides[d] = new TileSide.Forest(zone(buffer, zones, Zone.Forest.class));
+            } else if (sideKind == MEADOW) {
+                sides[d] = new TileSide.Meadow(zone(buffer, zones, Zone.Meadow.class));
+            } else {
+                Preconditions.checkArgument(sideKind == RIVER);
+                sides[d] = new TileSide.River(
+                        zone(buffer, zones, Zone.Meadow.class),
+                        zone(buffer, zones, Zone.River.class),
+                        zone(buffer, zones, Zone.Meadow.class));
+            }
+            for (Zone zone : sides[d].zones()) {
+                unreferenced &= ~(1 << zone.localId());
+            }
+        }
+        Preconditions.checkArgument(unreferenced == 0);
+        return new Tile(expectedId, kind, sides[0], sides[1], sides[2], sides[3]);
+    }
+
+    //décode la zone d'identifiant donné, les lacs de sa tuile déjà décodés se trouvant dans le tableau donné
+    private static Zone decodeZone(ByteBuffer buffer, int id, Zone[] zones) {
+        byte zoneKind = buffer.get();
+        if (zoneKind == FOREST) {
+            return new Zone.Forest(id, FOREST_KINDS[index(buffer.get(), FOREST_KINDS.length)]);
+        } else if (zoneKind == MEADOW) {
+            Zone.SpecialPower specialPower = specialPower(buffer.get());
+            int animalCount = Byte.toUnsignedInt(buffer.get());
+            Animal[] animals = new Animal[animalCount];
+            for (int a = 0; a < animalCount; a++) {
+                int animalId = id * 10 + index(buffer.get(), 10);
+                animals[a] = new Animal(animalId, ANIMAL_KINDS[index(buffer.get(), ANIMAL_KINDS.length)]);
+            }
+            return new Zone.Meadow(id, List.of(animals), specialPower);
+        } else if (zoneKind == RIVER) {
+            int fishCount = Byte.toUnsignedInt(buffer.get());
+            byte lakeId = buffer.get();
+            Zone.Lake lake = lakeId == NONE ? null : zone(lakeId, zones, Zone.Lake.class);
+            return new Zone.River(id, fishCount, lake);
+        } else {
+            Preconditions.checkArgument(zoneKind == LAKE);
+            int fishCount = Byte.toUnsignedInt(buffer.get());
+            return new Zone.Lake(id, fishCount, specialPower(buffer.get()));
+        }
+    }
+
+    //lit l'identifiant local d'une zone et retourne cette zone, qui doit être de la sorte donnée
+    private static <Z extends Zone> Z zone(ByteBuffer buffer, Zone[] zones, Class<Z> zoneClass) {
+        return zone(buffer.get(), zones, zoneClass);
+    }
+
+    //retourne la zone d'identifiant local donné, qui doit exister et être de la sorte donnée
+    private static <Z extends Zone> Z zone(byte localId, Zone[] zones, Class<Z> zoneClass) {
+        Zone zone = zones[index(localId, MAX_ZONES)];
+        Preconditions.checkArgument(zoneClass.isInstance(zone));
+        return zoneClass.cast(zone);
+    }
+
+    //retourne le pouvoir spécial d'index donné, ou null s'il vaut NONE
+    private static Zone.SpecialPower specialPower(byte index) {
+        return index == NONE ? null : SPECIAL_POWERS[index(index, SPECIAL_POWERS.length)];
+    }
+
+    //retourne l'index donné, s'il est compris entre 0 (inclus) et la borne donnée (exclue)
+    private static int index(byte index, int bound) {
+        Preconditions.checkArgument(index >= 0 && index < bound);
+        return index;
+    }
+
+    //encode la tuile donnée, ses lacs précédant ses autres zones
+    private static void encodeTile(ByteBuffer buffer, Tile tile) {
+        buffer.putInt(tile.id()).put((byte) tile.kind().ordinal()).put((byte) tile.zones().size());
+        for (Zone lake : tile.lakeZones()) {
+            encodeZone(buffer, tile, lake);
+        }
+        for (Zone zone : tile.zones()) {
+            if (!(zone instanceof Zone.Lake)) encodeZone(buffer, tile, zone);
+        }
+        for (TileSide side : tile.sides()) {
+            switch (side) {
+                case TileSide.Forest(Zone.Forest forest) -> buffer.put(FOREST).put(localId(tile, forest));
+                case TileSide.Meadow(Zone.Meadow meadow) -> buffer.put(MEADOW).put(localId(tile, meadow));
+                case TileSide.River(Zone.Meadow meadow1, Zone.River river, Zone.Meadow meadow2) -> buffer.put(RIVER)
+                        .put(localId(tile, meadow1)).put(localId(tile, river)).put(localId(tile, meadow2));
+            }
+        }
+    }
+
+    //encode la zone donnée de la tuile donnée
+    private static void encodeZone(ByteBuffer buffer, Tile tile, Zone zone) {
+        buffer.put(localId(tile, zone));
+        switch (zone) {
+            case Zone.Forest forest -> buffer.put(FOREST).put((byte) forest.kind().ordinal());
+            case Zone.Meadow meadow -> {
+                Preconditions.checkArgument(meadow.animals().size() <= 0xFF);
+                buffer.put(MEADOW).put(specialPowerIndex(meadow.specialPower())).put((byte) meadow.animals().size());
+                for (Animal animal : meadow.animals()) {
+                    Preconditions.checkArgument(animal.id() / 10 == meadow.id() && animal.id() >= 0);
+                    buffer.put((byte) (animal.id() % 10)).put((byte) animal.kind().ordinal());
+                }
+            }
+            case Zone.River river -> buffer.put(RIVER).put(fishCount(river))
+                    .put(river.hasLake() ? localId(tile, river.lake()) : NONE);
+            case Zone.Lake lake -> buffer.put(LAKE).put(fishCount(lake)).put(specialPowerIndex(lake.specialPower()));
+        }
+    }
+
+    //retourne l'identifiant local de la zone donnée, dont l'identifiant doit dériver de celui de la tuile donnée
+    private static byte localId(Tile tile, Zone zone) {
+        Preconditions.checkArgument(zone.id() >= 0 && zone.tileId() == tile.id());
+        return (byte) zone.localId();
+    }
+
+    //retourne le nombre de poissons de la zone aquatique donnée, qui doit tenir dans un octet non signé
+    private static byte fishCount(Zone.Water water) {
+        Preconditions.checkArgument(water.fishCount() >= 0 && water.fishCount() <= 0xFF);
+        return (byte) water.fishCount();
+    }
+
+    //retourne l'index du pouvoir spécial donné, ou NONE s'il est nul
+    private static byte specialPowerIndex(Zone.SpecialPower specialPower) {
+        return specialPower == null ? NONE : (byte) specialPower.ordinal();
+    }
+}
@@ -1,11 +1,22 @@
     package ch.epfl.chacun;
 
+    import java.util.AbstractList;
     import java.util.ArrayList;
+    import java.util.Collections;
     import java.util.List;
+    import java.util.Map;
+    import java.util.Objects;
+    import java.util.RandomAccess;
     import java.util.function.Predicate;
+    import java.util.random.RandomGeneratorFactory;
+    import java.util.stream.Collectors;
 
     /**
      * Paquets de tuiles du plateau de jeu.
+     * <p>
+     * Chaque tas est une vue non modifiable sur un tableau de tuiles partagé par toutes les versions successives des
+     * paquets, accompagnée de l'index de sa première tuile : tirer une tuile ne fait qu'avancer cet index, sans rien
+     * copier.
      *
      * @author Mehdi Boulaid (358117)
      * @author Adnane Jamil (356117)
@@ -20,9 +31,102 @@
          * @param menhirTiles   Les tuiles menhir.
          */
         public TileDecks {
-            startTiles = List.copyOf(startTiles);
-            normalTiles = List.copyOf(normalTiles);
-            menhirTiles = List.copyOf(menhirTiles);
+            startTiles = Deck.of(startTiles);
+            normalTiles = Deck.of(normalTiles);
+            menhirTiles = Deck.of(menhirTiles);
+        }
+
+        //tas de tuiles : vue non modifiable des tuiles d'un tableau partagé à partir d'un index donné
+        private static final class Deck extends AbstractList<Tile> implements RandomAccess {
+            private final Tile[] tiles;
+            private final int cursor;
+            private final DeckComposition.Table composition;
+
+            private Deck(Tile[] tiles, int cursor, DeckComposition.Table composition) {
+                this.tiles = tiles;
+                this.cursor = cursor;
+                this.composition = composition;
+            }
+
+            //retourne le tas correspondant à la liste donnée, sans copie s'il s'agit déjà d'un tas
+            private static Deck of(List<Tile> tiles) {
+                if (tiles instanceof Deck deck) {
+                    return deck;
+                }
+                Tile[] array = tiles.toArray(new Tile[0]);
+                for (Tile tile : array) {
+                    Objects.requireNonNull(tile);
+                }
+                return new Deck(array, 0, new DeckComposition.Table(array));
+            }
+
+            //retourne la tuile au sommet du tas, ou null s'il est vide
+            private Tile top() {
+                return cursor < tiles.length ? tiles[cursor] : null;
+            }
+
+            //retourne le tas privé de ses n premières tuiles
+            private Deck drawn(int n) {
+                return new Deck(tiles, cursor + n, composition);
+            }
+
+            @Override
+            public Tile get(int index) {
+                Objects.checkIndex(index, size());
+                return tiles[cursor + index];
+            }
+
+            @Override
+            public int size() {
+                return tiles.length - cursor;
+            }
+        }
+
+        //retourne le tas de la sorte donnée
+        private Deck deck(Tile.Kind kind) {
+            return (Deck) switch (kind) {
+                case START -> startTiles;
+                case NORMAL -> normalTiles;
+                case MENHIR -> menhirTiles;
+            };
+        }
+
+        //retourne les paquets dont le tas de la sorte donnée a été remplacé par celui donné
+        private TileDecks withDeck(Tile.Kind kind, Deck deck) {
+            return switch (kind) {
+                case START -> new TileDecks(deck, normalTiles, menhirTiles);
+                case NORMAL -> new TileDecks(startTiles, deck, menhirTiles);
+                case MENHIR -> new TileDecks(startTiles, normalTiles, deck);
+            };
+        }
+
+        /**
+         * Crée les paquets de toutes les tuiles du jeu, mélangées avec le générateur par défaut initialisé avec la
+         * graine donnée ; deux appels avec la même graine produisent donc les mêmes paquets.
+         *
+         * @param seed La graine du générateur aléatoire.
+         * @return Les paquets de tuiles mélangés.
+         */
+        public static TileDecks shuffled(long seed) {
+            return shuffled(Tiles.TILES, seed);
+        }
+
+        /**
+         * Crée les paquets des tuiles du catalogue donné, p. ex. chargé au moyen de {@link TileCatalogFile#read}, mélangées
+         * avec le générateur par défaut initialisé avec la graine donnée.
+         *
+         * @param catalog Les tuiles du catalogue.
+         * @param seed La graine du générateur aléatoire.
+         * @return Les paquets de tuiles mélangés.
+         */
+        public static TileDecks shuffled(List<Tile> catalog, long seed) {
+            List<Tile> tiles = new ArrayList<>(catalog);
+            Collections.shuffle(tiles, RandomGeneratorFactory.getDefault().create(seed));
+            Map<Tile.Kind, List<Tile>> tilesByKind = tiles.stream().collect(Collectors.groupingBy(Tile::kind));
+            return new TileDecks(
+                    tilesByKind.getOrDefault(Tile.Kind.START, List.of()),
+                    tilesByKind.getOrDefault(Tile.Kind.NORMAL, List.of()),
+                    tilesByKind.getOrDefault(Tile.Kind.MENHIR, List.of()));
         }
 
         /**
@@ -32,11 +136,7 @@
          * @return      La taille du deck pour le type de tuile spécifié.
          */
         public int deckSize(Tile.Kind kind) {
-            return switch (kind) {
-                case START -> startTiles.size();
-                case NORMAL -> normalTiles.size();
-                case MENHIR -> menhirTiles.size();
-            };
+            return deck(kind).size();
         }
 
         /**
@@ -47,13 +147,19 @@
          */
         public Tile topTile(Tile.Kind kind) {
             Preconditions.checkArgument(kind != null);
+            return deck(kind).top();
+        }
 
-
-            return switch (kind) {
-                case START -> startTiles.isEmpty() ? null : startTiles.get(0);
-                case NORMAL -> normalTiles.isEmpty() ? null : normalTiles.get(0);
-                case MENHIR -> menhirTiles.isEmpty() ? null : menhirTiles.get(0);
-            };
+        /**
+         * Retourne la composition du deck pour un type de tuile spécifié, c.-à-d. le nombre de ses tuiles présentant
+         * chaque caractéristique.
+         *
+         * @param kind  Le type de tuile.
+         * @return      La composition du deck pour le type de tuile spécifié.
+         */
+        public DeckComposition composition(Tile.Kind kind) {
+            Deck deck = deck(kind);
+            return new DeckComposition(deck.composition, deck.cursor);
         }
 
         /**
@@ -65,11 +171,7 @@
          */
         public TileDecks withTopTileDrawn(Tile.Kind kind) {
             Preconditions.checkArgument(deckSize(kind) > 0);
-            return switch (kind) {
-                case START -> new TileDecks(startTiles.subList(1, startTiles.size()), normalTiles, menhirTiles);
-                case NORMAL -> new TileDecks(startTiles, normalTiles.subList(1, normalTiles.size()), menhirTiles);
-                case MENHIR -> new TileDecks(startTiles, normalTiles, menhirTiles.subList(1, menhirTiles.size()));
-            };
+            return withDeck(kind, deck(kind).drawn(1));
         }
 
         /**
@@ -81,14 +183,14 @@
          * @throws IllegalArgumentException si le deck est vide pour le type de tuile spécifié.
          */
         public TileDecks withTopTileDrawnUntil(Tile.Kind kind, Predicate<Tile> predicate) {
-            TileDecks current = this;
-
             Preconditions.checkArgument(deckSize(kind) > 0);
-            while (current.deckSize(kind) > 0 && !predicate.test(current.topTile(kind))) {
-                current = current.withTopTileDrawn(kind);
+            Deck deck = deck(kind);
+            int drawnCount = 0;
+            while (drawnCount < deck.size() && !predicate.test(deck.get(drawnCount))) {
+                drawnCount += 1;
             }
 
-            return current;
+            return drawnCount == 0 ? this : withDeck(kind, deck.drawn(drawnCount));
         }
 
     }
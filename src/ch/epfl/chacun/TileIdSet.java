@@ -0,0 +1,166 @@
+package ch.epfl.chacun;
+
+import java.util.*;
+
+/**
+ * Ensemble immuable d'identifiants de tuiles, représenté par un vecteur de bits : le bit d'index i du mot d'index
+ * w vaut 1 si et seulement si l'identifiant 64w + i appartient à l'ensemble.
+ * <p>
+ * Les 95 tuiles du jeu tiennent ainsi dans deux mots, et le test d'appartenance d'un identifiant, p. ex. pour la mise
+ * en évidence des tuiles d'un message, ne coûte que la lecture d'un mot. L'ensemble peut néanmoins contenir
+ * n'importe quel identifiant positif ou nul, le vecteur ayant autant de mots que nécessaire.
+ *
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
+public final class TileIdSet extends AbstractSet<Integer> {
+
+    /**
+     * L'ensemble vide.
+     */
+    public static final TileIdSet EMPTY = new TileIdSet(new long[0]);
+
+    // mots du vecteur de bits, dont le dernier n'est jamais nul, afin que deux ensembles égaux aient les mêmes mots
+    private final long[] words;
+    private final int size;
+
+    private TileIdSet(long[] words) {
+        this.words = words;
+        int size = 0;
+        for (long word : words) size += Long.bitCount(word);
+        this.size = size;
+    }
+
+    /**
+     * Retourne l'ensemble des identifiants donnés.
+     *
+     * @param ids Les identifiants.
+     * @return L'ensemble de ces identifiants.
+     * @throws IllegalArgumentException si l'un des identifiants est négatif.
+     */
+    public static TileIdSet of(int... ids) {
+        Builder builder = new Builder();
+        for (int id : ids) builder.add(id);
+        return builder.build();
+    }
+
+    /**
+     * Retourne l'ensemble des identifiants de la collection donnée, ou cette collection elle-même si elle est déjà un
+     * ensemble d'identifiants de tuiles.
+     *
+     * @param ids La collection d'identifiants.
+     * @return L'ensemble de ces identifiants.
+     * @throws NullPointerException si la collection ou l'un de ses éléments est null.
+     * @throws IllegalArgumentException si l'un des identifiants est négatif.
+     */
+    public static TileIdSet copyOf(Collection<Integer> ids) {
+        if (ids instanceof TileIdSet tileIds) return tileIds;
+        Builder builder = new Builder();
+        for (int id : ids) builder.add(id);
+        return builder.build();
+    }
+
+    /**
+     * Retourne vrai si et seulement si l'ensemble contient l'identifiant donné.
+     *
+     * @param id L'identifiant.
+     * @return Vrai si l'identifiant appartient à l'ensemble.
+     */
+    public boolean contains(int id) {
+        int w = id >>> 6;
+        return id >= 0 && w < words.length && (words[w] & 1L << id) != 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer id && contains(id.intValue());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Retourne les identifiants de l'ensemble, par ordre croissant ; l'itérateur ne permet pas de les supprimer.
+     *
+     * @return Un itérateur sur les identifiants.
+     */
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            private int w = 0;
+            private long word = words.length > 0 ? words[0] : 0;
+
+            @Override
+            public boolean hasNext() {
+                while (word == 0 && w < words.length - 1) word = words[++w];
+                return word != 0;
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                int id = w * Long.SIZE + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                return id;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof TileIdSet that) return Arrays.equals(words, that.words);
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        // somme des hachages des éléments, comme l'exige Set, c.-à-d. somme des identifiants
+        int hash = 0;
+        for (int w = 0; w < words.length; w++) {
+            for (long word = words[w]; word != 0; word &= word - 1) {
+                hash += w * Long.SIZE + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Un bâtisseur d'ensemble d'identifiants de tuiles.
+     */
+    public static final class Builder {
+        private long[] words = new long[2];
+
+        /**
+         * Ajoute l'identifiant donné à l'ensemble en cours de construction.
+         *
+         * @param id L'identifiant à ajouter.
+         * @return Le bâtisseur.
+         * @throws IllegalArgumentException si l'identifiant est négatif.
+         */
+        public Builder add(int id) {
+            Preconditions.checkArgument(id >= 0);
+            int w = id >>> 6;
+            if (w >= words.length) words = Arrays.copyOf(words, Math.max(w + 1, 2 * words.length));
+            words[w] |= 1L << id;
+            return this;
+        }
+
+        /**
+         * Retourne l'ensemble construit.
+         *
+         * @return L'ensemble des identifiants ajoutés.
+         */
+        public TileIdSet build() {
+            int length = words.length;
+            while (length > 0 && words[length - 1] == 0) length -= 1;
+            return length == 0 ? EMPTY : new TileIdSet(Arrays.copyOf(words, length));
+        }
+    }
+}
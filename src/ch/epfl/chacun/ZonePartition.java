@@ -54,7 +54,12 @@
          * @param <Z> Le type de zone contenu dans la partition.
          */
         public static final class Builder<Z extends Zone>{
+            private final ZonePartition<Z> initial;
+            // les aires ne sont copiées qu'à la première modification, afin qu'une partition inchangée soit partagée
             private HashSet<Area<Z>> areas;
+            // aires ajoutées et retirées depuis la création du bâtisseur, y compris les aires intermédiaires
+            private final List<Area<Z>> addedAreas = new ArrayList<>();
+            private final List<Area<Z>> removedAreas = new ArrayList<>();
 
             /**
              * Crée un nouveau constructeur de partition à partir d'une partition existante.
@@ -62,7 +67,36 @@
              * @param zonePartition La partition existante à partir de laquelle créer le constructeur.
              */
             public Builder(ZonePartition<Z> zonePartition){
-                areas = new HashSet<>(zonePartition.areas);
+                initial = zonePartition;
+            }
+
+            //retourne l'ensemble modifiable des aires, en le créant si nécessaire
+            private HashSet<Area<Z>> areas(){
+                if(areas == null){ areas = new HashSet<>(initial.areas); }
+                return areas;
+            }
+
+            //ajoute l'aire donnée à la partition en cours de construction
+            private void add(Area<Z> area){
+                areas().add(area);
+                addedAreas.add(area);
+            }
+
+            //retire l'aire donnée de la partition en cours de construction
+            private void remove(Area<Z> area){
+                areas().remove(area);
+                removedAreas.add(area);
+            }
+
+            //retourne les aires ajoutées depuis la création du bâtisseur, dans l'ordre des ajouts ; une aire ajoutée
+            //puis retirée figure aussi parmi les aires retirées
+            List<Area<Z>> addedAreas(){
+                return Collections.unmodifiableList(addedAreas);
+            }
+
+            //retourne les aires retirées depuis la création du bâtisseur, dans l'ordre des retraits
+            List<Area<Z>> removedAreas(){
+                return Collections.unmodifiableList(removedAreas);
             }
 
             /**
@@ -72,7 +106,7 @@
              * @param openConnections Le nombre de connexions ouvertes de la zone.
              */
             public void addSingleton(Z zone,int openConnections){
-                areas.add(new Area<>(Set.of(zone), List.of(),openConnections));
+                add(new Area<>(Set.of(zone), List.of(),openConnections));
             }
 
             /**
@@ -83,13 +117,13 @@
              * @throws IllegalArgumentException Si la zone est déjà occupée.
              */
             public void addInitialOccupant(Z zone, PlayerColor color){
-                Area<Z> area = areaContaining(zone,areas);
+                Area<Z> area = areaContaining(zone,areas());
                 Preconditions.checkArgument(!area.isOccupied());
 
-                areas.remove(area);
+                remove(area);
 
                 Area<Z> newArea = area.withInitialOccupant(color);
-                areas.add(newArea);
+                add(newArea);
             }
 
             /**
@@ -100,10 +134,10 @@
              * @throws IllegalArgumentException Si la zone ne contient pas l'occupant spécifié.
              */
             public void removeOccupant(Z zone, PlayerColor color){
-                Area<Z> area = areaContaining(zone,this.areas);
+                Area<Z> area = areaContaining(zone,areas());
                 Preconditions.checkArgument(area.occupants().contains(color));
-                areas.remove(area);
-                areas.add(area.withoutOccupant(color));
+                remove(area);
+                add(area.withoutOccupant(color));
             }
 
             /**
@@ -113,9 +147,22 @@
              * @throws IllegalArgumentException Si l'aire spécifiée n'est pas présente dans la partition.
              */
             public void removeAllOccupantsOf(Area<Z> area){
-                Preconditions.checkArgument(areas.contains(area));
-                areas.remove(area);
-                areas.add(area.withoutOccupants());
+                Preconditions.checkArgument(areas().contains(area));
+                remove(area);
+                add(area.withoutOccupants());
+            }
+
+            /**
+             * Ajuste le résumé de l'aire contenant la zone spécifiée pour tenir compte de l'annulation d'un de ses animaux.
+             *
+             * @param zone La zone contenant l'animal annulé.
+             * @param animal L'animal annulé.
+             * @throws IllegalArgumentException Si la zone spécifiée n'appartient à aucune aire de la partition.
+             */
+            public void cancelAnimal(Z zone, Animal animal){
+                Area<Z> area = areaContaining(zone,areas());
+                remove(area);
+                add(area.withCancelledAnimal(animal));
             }
 
             /**
@@ -125,17 +172,17 @@
              * @param zone2 La deuxième zone à fusionner.
              */
             public void union(Z zone1, Z zone2){
-                Area<Z> area1 = areaContaining(zone1,areas);
-                Area<Z> area2 = areaContaining(zone2,areas);
+                Area<Z> area1 = areaContaining(zone1,areas());
+                Area<Z> area2 = areaContaining(zone2,areas());
                 Area<Z> newArea = area1.connectTo(area2);
 
                 if(area1.equals(area2)){
-                    areas.remove(area1);}
+                    remove(area1);}
                 else{
-                    areas.remove(area1);
-                    areas.remove(area2);
+                    remove(area1);
+                    remove(area2);
                 }
-                areas.add(newArea);
+                add(newArea);
             }
 
             /**
@@ -144,7 +191,7 @@
              * @return Une nouvelle partition de zones.
              */
             public ZonePartition<Z> build(){
-                return new ZonePartition<>(this.areas);
+                return areas == null ? initial : new ZonePartition<>(areas);
             }
 
         }
@@ -45,38 +45,21 @@
              * @param tile La tuile à ajouter.
              */
             public void addTile(Tile tile) {
-                int[] openConnections = new int[10];
-
-                for (TileSide side : tile.sides()) {
-                    for (Zone zone : side.zones()) {
-                        openConnections[zone.localId()]++;
-                        if (zone instanceof Zone.River river && river.hasLake()) {
-                            openConnections[river.lake().localId()]++;
-                            openConnections[river.localId()]++;
-                        }
-                    }
-                }
-
                 for (Zone zone : tile.zones()) {
+                    int openConnections = tile.openConnections(zone.localId());
                     switch (zone) {
-                        case Zone.Forest forest -> forestBuilder.addSingleton(forest, openConnections[zone.localId()]);
-                        case Zone.Meadow meadow -> meadowBuilder.addSingleton(meadow, openConnections[zone.localId()]);
+                        case Zone.Forest forest -> forestBuilder.addSingleton(forest, openConnections);
+                        case Zone.Meadow meadow -> meadowBuilder.addSingleton(meadow, openConnections);
                         case Zone.River river -> {
-                            if (river.hasLake()) {
-                                riverBuilder.addSingleton(river, openConnections[zone.localId()] -1);
-                            } else {
-                                riverBuilder.addSingleton(river, openConnections[zone.localId()]);
-                            }
-                            riverSystemsBuilder.addSingleton(river, openConnections[zone.localId()]);
+                            riverBuilder.addSingleton(river, river.hasLake() ? openConnections - 1 : openConnections);
+                            riverSystemsBuilder.addSingleton(river, openConnections);
                         }
-                        case Zone.Lake lake -> riverSystemsBuilder.addSingleton(lake, openConnections[zone.localId()]);
+                        case Zone.Lake lake -> riverSystemsBuilder.addSingleton(lake, openConnections);
                     }
                 }
-                for(Zone zone : tile.zones()){
-                    if(zone instanceof Zone.River river){
-                        if(river.hasLake()){
-                            riverSystemsBuilder.union(river,river.lake());
-                        }
+                for (Zone.River river : tile.riverZones()) {
+                    if (river.hasLake()) {
+                        riverSystemsBuilder.union(river, river.lake());
                     }
                 }
             }
@@ -181,6 +164,26 @@
                 riverBuilder.removeAllOccupantsOf(river);
             }
 
+            /**
+             * Tient compte de l'annulation d'un animal dans le résumé de l'aire prairie contenant sa zone.
+             *
+             * @param meadow La zone prairie contenant l'animal.
+             * @param animal L'animal annulé.
+             */
+            public void cancelAnimal(Zone.Meadow meadow, Animal animal){
+                meadowBuilder.cancelAnimal(meadow, animal);
+            }
+
+            //retourne le bâtisseur de la partition des prés
+            ZonePartition.Builder<Zone.Meadow> meadowBuilder(){
+                return meadowBuilder;
+            }
+
+            //retourne le bâtisseur de la partition des réseaux hydrographiques
+            ZonePartition.Builder<Zone.Water> riverSystemsBuilder(){
+                return riverSystemsBuilder;
+            }
+
             /**
              * Construit une nouvelle instance de {@code ZonePartitions} à partir des partitions construites.
              *
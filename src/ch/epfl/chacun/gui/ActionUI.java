@@ -49,7 +49,8 @@ public final class ActionUI {
         actionField.setId("action-field");
         actionField.setTextFormatter(new TextFormatter<>(change -> {
             change.setText(change.getText().toUpperCase());
-            return change.getControlNewText().chars().allMatch(c -> Base32.ALPHABET.indexOf(c) >= 0) ? change : null;
+            // le texte déjà saisi étant valide, seuls les caractères ajoutés sont vérifiés
+            return Base32.isValid(change.getText()) ? change : null;
         }));
 
 
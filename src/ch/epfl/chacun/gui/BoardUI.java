@@ -48,7 +48,7 @@ public final class BoardUI {
      * @return un nœud représentant le plateau de jeu
      */
     public static  Node create(int reach, ObservableValue<GameState> gameState, ObservableValue<Rotation> tileRotation,
-                              ObservableValue<Set<Occupant>> visibleOccupants, ObservableValue<Set<Integer>> tilesIds,
+                              ObservableValue<Set<Occupant>> visibleOccupants, ObservableValue<TileIdSet> tilesIds,
                                Consumer<Rotation> rotationManager, Consumer<Pos> posManager, Consumer<Occupant> occupantManager){
 
         GridPane gridPane = new GridPane();
@@ -5,6 +5,10 @@ import javafx.application.Application;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.ObservableValue;
 import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
@@ -12,8 +16,6 @@ import javafx.stage.Stage;
 import javax.security.auth.login.AccountExpiredException;
 import java.util.*;
 import java.util.function.Consumer;
-import java.util.random.RandomGeneratorFactory;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -56,17 +58,7 @@ public final class Main extends Application {
         // On prend la seed value si elle nous est donnée
         long seed = namedArgs.containsKey("seed") ? Long.parseUnsignedLong(namedArgs.get("seed")) : new Random().nextLong();
 
-        var randomGenerator = RandomGeneratorFactory.getDefault().create(seed);
-
-        var tiles = new ArrayList<>(Tiles.TILES);
-        Collections.shuffle(tiles, randomGenerator);
-        var tilesByKind = tiles.stream().collect(Collectors.groupingBy(Tile::kind));
-
-        var tileDecks = new TileDecks(
-                tilesByKind.get(Tile.Kind.START),
-                tilesByKind.get(Tile.Kind.NORMAL),
-                tilesByKind.getOrDefault(Tile.Kind.MENHIR,List.of())
-        );
+        var tileDecks = TileDecks.shuffled(seed);
 
 
         // On map le nom des joueurs à leur couleur respective
@@ -95,7 +87,14 @@ public final class Main extends Application {
             default -> "";
         });
 
-        var actions = new SimpleObjectProperty<List<String>>(new ArrayList<>());
+        // On prend la taille de l'historique si elle nous est donnée
+        int historyCapacity = namedArgs.containsKey("history")
+                ? Integer.parseInt(namedArgs.get("history"))
+                : GameHistory.DEFAULT_CAPACITY;
+
+        var startingState = gameState.withStartingTilePlaced();
+        var history = new GameHistory(GameLog.of(startingState), historyCapacity);
+        var actions = new SimpleObjectProperty<>(history.actions());
         var tileToPlaceRotationP = new SimpleObjectProperty<>(Rotation.NONE);
 
 
@@ -109,44 +108,44 @@ public final class Main extends Application {
             return potentialOccupants;
         }));
 
-        var tileIds = new SimpleObjectProperty<>(Set.<Integer>of());
+        var tileIds = new SimpleObjectProperty<>(TileIdSet.EMPTY);
 
 
         // On définit les consumers
+        Runnable historyChanged = () -> {
+            gameState0.set(history.current());
+            actions.set(history.actions());
+        };
+
+        Consumer<ActionEncoder.StateAction> stateActionConsumer = stateAction -> {
+            history.record(stateAction);
+            historyChanged.run();
+        };
+
         Consumer<Occupant> occupantConsumer = e ->{
             if(gameState0.get().nextAction() == GameState.Action.OCCUPY_TILE){
                 if(e == null){
-                    ActionEncoder.StateAction stateAction = ActionEncoder.withNewOccupant(gameState0.get(), e);
-                    actions.setValue(actionList(stateAction,actions));
-
-                    gameState0.set(gameState0.get().withNewOccupant(null));
+                    stateActionConsumer.accept(ActionEncoder.withNewOccupant(gameState0.get(), null));
                 }
                 else{
                     PlacedTile tile = gameState0.get().board().tileWithId(Zone.tileId(e.zoneId()));
 
                     if(tile.placer() == gameState0.get().currentPlayer()){
-                        ActionEncoder.StateAction stateAction = ActionEncoder.withNewOccupant(gameState0.get(), e);
-                        actions.setValue(actionList(stateAction,actions));
-
-                        gameState0.set(gameState0.get().withNewOccupant(e));
+                        stateActionConsumer.accept(ActionEncoder.withNewOccupant(gameState0.get(), e));
                     }
                 }
             }
 
-            if(gameState0.get().nextAction() == GameState.Action.RETAKE_PAWN){
+            else if(gameState0.get().nextAction() == GameState.Action.RETAKE_PAWN){
                 if(e == null) {
-                    gameState0.set(gameState0.get().withOccupantRemoved(null));
-                    ActionEncoder.StateAction stateAction = ActionEncoder.withOccupantRemoved(gameState0.get(), null);
-                    actions.setValue(actionList(stateAction,actions));
+                    stateActionConsumer.accept(ActionEncoder.withOccupantRemoved(gameState0.get(), null));
                 }
 
                 else{
                     PlacedTile tile = gameState0.get().board().tileWithId(Zone.tileId(e.zoneId()));
 
                     if(tile.placer() == gameState0.get().currentPlayer() && e.kind() == Occupant.Kind.PAWN){
-                        ActionEncoder.StateAction stateAction = ActionEncoder.withOccupantRemoved(gameState0.get(), e);
-                        actions.setValue(actionList(stateAction,actions));
-                        gameState0.set(gameState0.get().withOccupantRemoved(e));
+                        stateActionConsumer.accept(ActionEncoder.withOccupantRemoved(gameState0.get(), e));
                     }
                 }
             }
@@ -155,8 +154,7 @@ public final class Main extends Application {
         Consumer<String> actionConsumer = string -> {
             var result = ActionEncoder.decodeAndApply(gameState0.get(), string);
             if (result != null) {
-                actions.set(actionList(result,actions));
-                gameState0.set(result.gameState());
+                stateActionConsumer.accept(result);
             }
         };
 
@@ -170,10 +168,7 @@ public final class Main extends Application {
                     ,gameState0.get().currentPlayer(),tileToPlaceRotationP.getValue(),e);
 
             if(gameState0.get().nextAction() == GameState.Action.PLACE_TILE && gameState0.get().board().canAddTile(tile)){
-                ActionEncoder.StateAction stateAction = ActionEncoder.withPlacedTile(gameState0.get(),tile);
-                actions.setValue(actionList(stateAction,actions));
-
-                gameState0.set(gameState0.get().withPlacedTile(tile));
+                stateActionConsumer.accept(ActionEncoder.withPlacedTile(gameState0.get(),tile));
                 tileToPlaceRotationP.set(Rotation.NONE);
             }
         };
@@ -193,21 +188,37 @@ public final class Main extends Application {
         var rightBorderPane = new BorderPane(messagesNode, playersNode, null, bottomVbox, null);
         var finalBorderPane = new BorderPane(boardNode,null,rightBorderPane,null,null);
 
-        gameState0.set(gameState.withStartingTilePlaced());
-
+        historyChanged.run();
+
+        // On annule et rétablit les actions au clavier ; F12 journalise la mémoire retenue par l'historique, dont
+        // l'estimation parcourt tous les états conservés et n'est donc faite qu'à la demande
+        var scene = new Scene(finalBorderPane);
+        KeyCombination undo = new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN);
+        KeyCombination redo = new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN, KeyCombination.SHIFT_DOWN);
+        scene.addEventFilter(KeyEvent.KEY_PRESSED, e -> {
+            if (e.getCode() == KeyCode.F12) {
+                System.getLogger(Main.class.getName())
+                        .log(System.Logger.Level.INFO, STR."Historique : \{history.retainedBytes() / 1024} Kio");
+                e.consume();
+                return;
+            }
+            if (redo.match(e) && history.canRedo()) {
+                history.redo();
+            } else if (undo.match(e) && history.canUndo()) {
+                history.undo();
+            } else {
+                return;
+            }
+            tileToPlaceRotationP.set(Rotation.NONE);
+            historyChanged.run();
+            e.consume();
+        });
 
         primaryStage.setTitle("ChaCuN");
         primaryStage.setHeight(1080);
         primaryStage.setWidth(1440);
-        primaryStage.setScene(new Scene(finalBorderPane));
+        primaryStage.setScene(scene);
         primaryStage.show();
 
     }
-
-    //gère les actions à mettre à jour
-    private static List<String> actionList(ActionEncoder.StateAction stateActions, SimpleObjectProperty<List<String>> actionsOb){
-        List<String> newActions = new ArrayList<>(actionsOb.get());
-        newActions.add(stateActions.action());
-        return newActions;
-    }
 }
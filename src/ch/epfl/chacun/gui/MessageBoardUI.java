@@ -1,20 +1,23 @@
 package ch.epfl.chacun.gui;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.value.ObservableValue;
+import javafx.collections.ObservableList;
 import javafx.scene.Node;
-import javafx.scene.control.ScrollPane;
-import javafx.scene.layout.VBox;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.text.Text;
 import ch.epfl.chacun.MessageBoard;
 import ch.epfl.chacun.MessageBoard.Message;
+import ch.epfl.chacun.TileIdSet;
 
 import java.util.List;
-import java.util.Set;
-
-import static javafx.application.Platform.runLater;
 
 /**
  * Interface graphique du tableau d'affichage.
+ * <p>
+ * Les messages sont affichés dans une liste virtualisée : seules les lignes visibles sont réalisées, par des cellules
+ * réutilisées d'un message à l'autre, et les messages ajoutés au tableau depuis le dernier état sont simplement
+ * ajoutés à la fin de la liste, sans reconstruire les messages déjà affichés.
  *
  *@author Mehdi Boulaid (358117)
  * @author Adnane Jamil (356117)
@@ -23,43 +26,69 @@ public final class MessageBoardUI {
 
     private static final double LARGE_TILE_FIT_SIZE = 256 * 0.8; //la taille de la tuile adaptée aux dimensions du tableau
 
+    private MessageBoardUI() {}
+
     /**
      * Crée un noeud représentant le tableau d'affichage.
      * @param messageListObs La version observable des messages affichés sur le tableau d'affichage.
      * @param intSetObs L'ensemble des identités des tuiles à mettre en évidence sur le plateau.
      * @return un noeud représentant le tableau d'affichage.
      */
-    public static Node create(ObservableValue<List<MessageBoard.Message>> messageListObs, ObjectProperty<Set<Integer>> intSetObs){
-        VBox messageContainer = new VBox(10);
-        ScrollPane messageScrollPane = new ScrollPane();
+    public static Node create(ObservableValue<List<MessageBoard.Message>> messageListObs, ObjectProperty<TileIdSet> intSetObs){
+        ListView<Message> messageListView = new ListView<>();
+        messageListView.setId("message-board");
+        messageListView.getStylesheets().add("message-board.css");
+        messageListView.setFocusTraversable(false);
+        messageListView.setCellFactory(_ -> new MessageCell(intSetObs));
 
-        messageScrollPane.setContent(messageContainer);
-        messageScrollPane.setId("message-board");
-        messageScrollPane.getStylesheets().add("message-board.css");
-        messageScrollPane.setFitToWidth(true);
+        ObservableList<Message> shownMessages = messageListView.getItems();
+        if (messageListObs.getValue() != null) shownMessages.setAll(messageListObs.getValue());
 
         messageListObs.addListener((_, _, newMessageList) -> {
-            messageContainer.getChildren().clear();
+            int shownCount = shownMessages.size();
+            if (isContinuation(newMessageList, shownMessages)) {
+                if (newMessageList.size() == shownCount) return;
+                shownMessages.addAll(newMessageList.subList(shownCount, newMessageList.size()));
+            } else {
+                shownMessages.setAll(newMessageList);
+            }
+            if (!shownMessages.isEmpty()) messageListView.scrollTo(shownMessages.size() - 1);
+        });
 
-            for (Message message : newMessageList) {
-                Text messageText = new Text(message.text());
+        return messageListView;
+    }
 
-                messageText.setOnMouseEntered(_ ->
-                        intSetObs.set(message.tileIds())
-                );
+    //retourne vrai si les messages donnés commencent par les messages affichés ; les messages d'un tableau n'étant
+    //jamais modifiés, mais seulement ajoutés, il suffit de comparer le dernier message affiché
+    private static boolean isContinuation(List<Message> messages, List<Message> shownMessages) {
+        int shownCount = shownMessages.size();
+        return shownCount == 0
+                || messages.size() >= shownCount && messages.get(shownCount - 1) == shownMessages.get(shownCount - 1);
+    }
 
-                messageText.setOnMouseExited(_ ->
-                        intSetObs.set(Set.of())
-                );
+    //cellule affichant le texte d'un message, et mettant ses tuiles en évidence lorsqu'elle est survolée ; ses
+    //gestionnaires d'événements sont installés une seule fois, et lisent le message affiché au moment de l'événement
+    private static final class MessageCell extends ListCell<Message> {
+        private final Text messageText = new Text();
 
-                messageText.setWrappingWidth(LARGE_TILE_FIT_SIZE);
-                messageContainer.getChildren().add(messageText);
+        private MessageCell(ObjectProperty<TileIdSet> intSetObs) {
+            messageText.setWrappingWidth(LARGE_TILE_FIT_SIZE);
+            setOnMouseEntered(_ -> {
+                if (getItem() != null) intSetObs.set(getItem().tileIds());
+            });
+            setOnMouseExited(_ -> intSetObs.set(TileIdSet.EMPTY));
+        }
 
+        @Override
+        protected void updateItem(Message message, boolean empty) {
+            super.updateItem(message, empty);
+            setText(null);
+            if (empty || message == null) {
+                setGraphic(null);
+            } else {
+                messageText.setText(message.text());
+                setGraphic(messageText);
             }
-            messageScrollPane.layout();
-            messageScrollPane.setVvalue(1.0);
-        });
-
-        return messageScrollPane;
+        }
     }
-}
\ No newline at end of file
+}
@@ -36,11 +36,10 @@ public final class PlayersUI {
             playerDisplays.put(p, playerInfo);
         });
 
-        ObservableValue<Map<PlayerColor, Integer>> playerScores =
-                gameStateObservable.map(state -> state.messageBoard().points());
-
         playerDisplays.keySet().forEach(e -> {
-            ObservableValue<String> scoreText = playerScores.map(scores -> STR."\{textMaker.playerName(e)}: \{scores.getOrDefault(e, 0)} points \n");
+            // les points provisoires sont tenus à jour par l'état de jeu et ne sont donc pas recalculés à l'affichage
+            ObservableValue<String> scoreText = gameStateObservable.map(state ->
+                    STR."\{textMaker.playerName(e)}: \{state.messageBoard().points().getOrDefault(e, 0)} points (\{state.provisionalPoints().get(e)} en fin de partie) \n");
             Text scoreDisplay = new Text();
             scoreDisplay.textProperty().bind(scoreText);
             playerDisplays.get(e).getStyleClass().add("player");
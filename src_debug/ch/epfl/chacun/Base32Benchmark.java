@@ -0,0 +1,90 @@
+package ch.epfl.chacun;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Compare le décodage et l'encodage en base32 au moyen des tables de {@link Base32} avec ceux qu'il effectuait
+ * auparavant, qui cherchaient chaque caractère dans l'alphabet et construisaient une nouvelle chaîne par valeur.
+ * <p>
+ * Chaque mesure est précédée de tours de chauffe, afin que le compilateur à la volée ait optimisé le code mesuré, et
+ * son résultat est accumulé pour qu'il ne puisse pas être éliminé.
+ *
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
+public final class Base32Benchmark {
+
+    private static final int ACTION_COUNT = 1 << 16;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 100;
+    private static final int TRIALS = 3;
+
+    private Base32Benchmark() {}
+
+    /**
+     * Mesure et affiche le temps moyen par action de chaque variante.
+     *
+     * @param args Ignorés.
+     */
+    public static void main(String[] args) {
+        // actions de un ou deux chiffres, en alternance, comme dans un journal de partie
+        String[] actions = new String[ACTION_COUNT];
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < ACTION_COUNT; i++) {
+            actions[i] = i % 2 == 0 ? Base32.encodeBits10(i % 1023) : Base32.encodeBits5(i % 32);
+            log.append(actions[i]).append(' ');
+        }
+        String logText = log.toString();
+        int[] values = new int[ACTION_COUNT];
+        char[] chars = new char[2 * ACTION_COUNT];
+        String[] strings = new String[ACTION_COUNT];
+
+        // les variantes sont mesurées en alternance, pour que l'ordre des mesures ne les avantage pas
+        for (int trial = 0; trial < TRIALS; trial++) {
+            measure("décodage par recherche", () -> {
+                long sum = 0;
+                for (String action : actions) sum += indexOfDecode(action);
+                return sum;
+            });
+            measure("décodage par table", () -> {
+                long sum = 0;
+                for (String action : actions) sum += Base32.decode(action);
+                return sum;
+            });
+            measure("décodage groupé", () -> Base32.decodeAll(logText, values) + values[ACTION_COUNT - 1]);
+            measure("encodage en chaînes", () -> {
+                for (int i = 0; i < ACTION_COUNT; i++) strings[i] = indexOfEncodeBits10(i % 1023);
+                return strings[ACTION_COUNT - 1].length();
+            });
+            measure("encodage en tableau", () -> {
+                int offset = 0;
+                for (int i = 0; i < ACTION_COUNT; i++) offset += Base32.encodeBits10(i % 1023, chars, offset);
+                return offset + chars[offset - 1];
+            });
+        }
+    }
+
+    //mesure le temps moyen par action de l'opération donnée, qui traite toutes les actions
+    private static void measure(String name, LongSupplier operation) {
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) sink += operation.getAsLong();
+        long start = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) sink += operation.getAsLong();
+        double nanosPerAction = (double) (System.nanoTime() - start) / ((long) MEASURED_ROUNDS * ACTION_COUNT);
+        System.out.println(STR."\{name} : \{String.format("%.2f", nanosPerAction)} ns/action (\{sink})");
+    }
+    //décode la chaîne donnée comme le faisait Base32.decode avant l'introduction des tables
+    private static int indexOfDecode(String base32) {
+        base32 = base32.toUpperCase();
+        int value = 0;
+        for (int i = 0; i < base32.length(); i++) {
+            value = (value << 5) + Base32.ALPHABET.indexOf(base32.charAt(i));
+        }
+        return value;
+    }
+
+    //encode la valeur donnée comme le faisait Base32.encodeBits10 avant l'introduction des tables
+    private static String indexOfEncodeBits10(int value) {
+        return STR."\{Base32.ALPHABET.charAt(value >> 5 & 0b11111)}\{Base32.ALPHABET.charAt(value & 0b11111)}";
+    }
+}
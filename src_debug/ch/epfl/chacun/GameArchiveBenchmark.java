@@ -0,0 +1,107 @@
+package ch.epfl.chacun;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Mesure le débit d'ajout, de lecture par identifiant et de parcours complet d'une {@link GameArchive} synthétique.
+ * <p>
+ * Quelques parties complètes sont d'abord jouées par le moteur, chaque joueur choisissant une action légale au
+ * hasard ; l'archive est ensuite formée de copies de ces parties, sous des identifiants distincts, jusqu'au nombre de
+ * parties demandé.
+ *
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
+public final class GameArchiveBenchmark {
+
+    private static final int DISTINCT_GAMES = 32;
+    private static final int LOOKUPS = 1_000_000;
+    private static final int REPLAYS = 100;
+
+    private GameArchiveBenchmark() {}
+
+    /**
+     * Crée l'archive dans un fichier temporaire, puis mesure et affiche le temps de chaque opération.
+     *
+     * @param args Le nombre de parties de l'archive ; 1 000 000 par défaut.
+     * @throws IOException si le fichier temporaire ne peut pas être écrit ou lu.
+     */
+    public static void main(String[] args) throws IOException {
+        int gameCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        RandomGenerator random = RandomGeneratorFactory.getDefault().create(2024);
+
+        long start = System.nanoTime();
+        List<ByteBuffer> games = new ArrayList<>();
+        long actionCount = 0;
+        for (int seed = 0; seed < DISTINCT_GAMES; seed++) {
+            List<String> actions = randomGame(seed, random);
+            actionCount += actions.size();
+            games.add(ActionEncoder.pack(actions));
+        }
+        System.out.println(STR."\{DISTINCT_GAMES} parties jouées en \{millisSince(start)} ms, \{actionCount / DISTINCT_GAMES} actions en moyenne");
+
+        Path path = Files.createTempFile("games", ".bin");
+        try {
+            start = System.nanoTime();
+            try (GameArchive.Writer writer = GameArchive.append(path)) {
+                for (int id = 0; id < gameCount; id++) {
+                    writer.append(id, id % DISTINCT_GAMES, PlayerColor.ALL.subList(0, 2), games.get(id % DISTINCT_GAMES));
+                }
+            }
+            long appendNanos = System.nanoTime() - start;
+            System.out.println(STR."\{gameCount} parties ajoutées en \{appendNanos / 1_000_000} ms (\{appendNanos / gameCount} ns/partie), \{Files.size(path) / 1024} Kio");
+
+            start = System.nanoTime();
+            GameArchive archive = GameArchive.open(path);
+            System.out.println(STR."archive ouverte en \{millisSince(start)} ms");
+
+            for (int trial = 0; trial < 2; trial++) {
+                start = System.nanoTime();
+                long sink = 0;
+                for (int i = 0; i < LOOKUPS; i++) {
+                    sink += archive.game(random.nextInt(gameCount)).actionCount();
+                }
+                System.out.println(STR."lecture par identifiant : \{(System.nanoTime() - start) / LOOKUPS} ns/partie (\{sink})");
+
+                start = System.nanoTime();
+                long[] scanned = new long[1];
+                archive.forEach(game -> scanned[0] += game.actionCount());
+                long scanNanos = System.nanoTime() - start;
+                System.out.println(STR."parcours complet : \{scanNanos / 1_000_000} ms (\{scanNanos / gameCount} ns/partie, \{scanned[0]} actions)");
+
+                start = System.nanoTime();
+                for (int i = 0; i < REPLAYS; i++) {
+                    sink += archive.game(random.nextInt(gameCount)).replayed().board().insertionPositionCount();
+                }
+                System.out.println(STR."partie rejouée : \{(System.nanoTime() - start) / REPLAYS / 1000} µs/partie (\{sink})");
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    //joue une partie complète à deux joueurs, lancée avec la graine donnée, en choisissant chaque action au hasard
+    private static List<String> randomGame(long seed, RandomGenerator random) {
+        List<String> actions = new ArrayList<>();
+        GameState state = GameLogVerifier.initialState(seed, 2);
+        while (state.nextAction() != GameState.Action.END_GAME) {
+            List<GameState.Successor> successors = state.successors().toList();
+            GameState.Successor successor = successors.get(random.nextInt(successors.size()));
+            actions.add(successor.code());
+            state = successor.gameState();
+        }
+        return actions;
+    }
+
+    //retourne le nombre de millisecondes écoulées depuis l'instant donné
+    private static long millisSince(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
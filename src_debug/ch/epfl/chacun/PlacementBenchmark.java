@@ -0,0 +1,92 @@
+package ch.epfl.chacun;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Compare, sur un plateau de milieu de partie, la recherche exhaustive des poses possibles de chaque tuile restante
+ * selon que les côtés tournés des tuiles sont lus dans les tables précalculées par {@link Tile}, ou recalculés à
+ * chaque appel comme le faisait auparavant {@link PlacedTile#side(Direction)}, ainsi que le temps de
+ * {@link Board#couldPlaceTile(Tile)}, qui ne fait plus de recherche une fois le plateau interrogé.
+ * <p>
+ * Chaque mesure est précédée de tours de chauffe, afin que le compilateur à la volée ait optimisé le code mesuré, et
+ * son résultat est accumulé pour qu'il ne puisse pas être éliminé.
+ *
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
+public final class PlacementBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 200;
+    private static final int TRIALS = 3;
+
+    private PlacementBenchmark() {}
+
+    /**
+     * Mesure et affiche le temps moyen par tuile de chaque variante.
+     *
+     * @param args La graine et le nombre de tuiles à poser avant la mesure ; 2024 et 40 par défaut.
+     */
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseUnsignedLong(args[0]) : 2024;
+        int placedTiles = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+
+        GameState state = GameLogVerifier.initialState(seed, 2);
+        int tileCount = 1;
+        while (tileCount < placedTiles && state.nextAction() != GameState.Action.END_GAME) {
+            if (state.nextAction() == GameState.Action.PLACE_TILE) tileCount += 1;
+            state = state.successors().findFirst().orElseThrow().gameState();
+        }
+        Board board = state.board();
+        List<Tile> tiles = state.tileDecks().normalTiles();
+        System.out.println(STR."plateau de \{tileCount} tuiles, \{board.insertionPositions().size()} positions d'insertion, \{tiles.size()} tuiles restantes");
+
+        List<Pos> positions = List.copyOf(board.insertionPositions());
+        // les variantes sont mesurées en alternance, pour que l'ordre des mesures ne les avantage pas
+        for (int trial = 0; trial < TRIALS; trial++) {
+            measure("côtés précalculés", tiles, tile -> placements(board, positions, tile, true));
+            measure("côtés recalculés", tiles, tile -> placements(board, positions, tile, false));
+            measure("couldPlaceTile", tiles, tile -> board.couldPlaceTile(tile) ? 1 : 0);
+        }
+    }
+
+    //mesure le temps moyen d'application de la fonction donnée à chacune des tuiles données
+    private static void measure(String name, List<Tile> tiles, ToIntFunction<Tile> operation) {
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (Tile tile : tiles) sink += operation.applyAsInt(tile);
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            for (Tile tile : tiles) sink += operation.applyAsInt(tile);
+        }
+        long nanosPerTile = (System.nanoTime() - start) / ((long) MEASURED_ROUNDS * tiles.size());
+        System.out.println(STR."\{name} : \{nanosPerTile} ns/tuile (\{sink})");
+    }
+
+    //compte les poses possibles de la tuile donnée aux positions données du plateau donné, en lisant ou en recalculant ses côtés
+    private static int placements(Board board, List<Pos> positions, Tile tile, boolean precomputed) {
+        int count = 0;
+        for (Pos pos : positions) {
+            for (Rotation rotation : Rotation.ALL) {
+                boolean fits = true;
+                for (Direction direction : Direction.ALL) {
+                    PlacedTile neighbor = board.tileAt(pos.neighbor(direction));
+                    if (neighbor != null) {
+                        TileSide side = precomputed
+                                ? tile.side(rotation, direction)
+                                : tile.sides().get(direction.rotated(rotation.negated()).ordinal());
+                        Direction opposite = direction.opposite();
+                        TileSide neighborSide = precomputed
+                                ? neighbor.side(opposite)
+                                : neighbor.tile().sides().get(opposite.rotated(neighbor.rotation().negated()).ordinal());
+                        fits &= side.isSameKindAs(neighborSide);
+                    }
+                }
+                if (fits) count += 1;
+            }
+        }
+        return count;
+    }
+}
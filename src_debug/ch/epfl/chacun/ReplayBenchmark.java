@@ -0,0 +1,79 @@
+package ch.epfl.chacun;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Compare, sur une partie complète à deux joueurs, jouée jusqu'à épuisement des tuiles, le rejeu normal des actions,
+ * qui produit le texte de chaque message, à leur rejeu rapide par {@link ActionEncoder#fastForward(GameState, List)},
+ * depuis les actions en base32 ou depuis leur flot compacté.
+ * <p>
+ * Chaque mesure est précédée de tours de chauffe, afin que le compilateur à la volée ait optimisé le code mesuré, et
+ * son résultat est accumulé pour qu'il ne puisse pas être éliminé.
+ *
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
+public final class ReplayBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 100;
+    private static final int TRIALS = 3;
+
+    private ReplayBenchmark() {}
+
+    /**
+     * Joue une partie complète, puis mesure et affiche le temps moyen de son rejeu selon chaque variante.
+     *
+     * @param args La graine de la partie ; 2024 par défaut.
+     */
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseUnsignedLong(args[0]) : 2024;
+        RandomGenerator random = RandomGeneratorFactory.getDefault().create(seed);
+
+        GameState initial = GameLogVerifier.initialState(seed, 2);
+        List<String> actions = new ArrayList<>();
+        GameState state = initial;
+        while (state.nextAction() != GameState.Action.END_GAME) {
+            List<GameState.Successor> successors = state.successors().toList();
+            GameState.Successor successor = successors.get(random.nextInt(successors.size()));
+            actions.add(successor.code());
+            state = successor.gameState();
+        }
+        ByteBuffer packed = ActionEncoder.pack(actions);
+        System.out.println(STR."partie de \{actions.size()} actions, \{state.messageBoard().messages().size()} messages, points \{state.messageBoard().points()}");
+
+        // les variantes sont mesurées en alternance, pour que l'ordre des mesures ne les avantage pas
+        for (int trial = 0; trial < TRIALS; trial++) {
+            measure("rejeu normal", initial, s -> replayed(s, actions).messageBoard().messages().size());
+            measure("rejeu rapide", initial, s -> ActionEncoder.fastForward(s, actions).messageBoard().points().size());
+            measure("rejeu rapide compacté", initial, s -> ActionEncoder.fastForward(s, packed).messageBoard().points().size());
+        }
+    }
+
+    //mesure le temps moyen d'un rejeu complet de la partie depuis l'état initial donné
+    private static void measure(String name, GameState initial, ToIntFunction<GameState> replay) {
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            sink += replay.applyAsInt(initial);
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            sink += replay.applyAsInt(initial);
+        }
+        long microsPerGame = (System.nanoTime() - start) / MEASURED_ROUNDS / 1000;
+        System.out.println(STR."\{name} : \{microsPerGame} µs/partie (\{sink})");
+    }
+
+    //rejoue les actions données une à une, comme le fait l'interface graphique
+    private static GameState replayed(GameState state, List<String> actions) {
+        for (String action : actions) {
+            state = ActionEncoder.decodeAndApply(state, action).gameState();
+        }
+        return state;
+    }
+}
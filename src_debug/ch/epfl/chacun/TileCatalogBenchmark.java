@@ -0,0 +1,82 @@
+package ch.epfl.chacun;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mesure le temps de chargement d'un catalogue de tuiles au format de {@link TileCatalogFile}.
+ *
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
+public final class TileCatalogBenchmark {
+
+    // nombre maximal de zones d'une tuile
+    private static final int MAX_ZONES = 10;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 1000;
+
+    private TileCatalogBenchmark() {}
+
+    /**
+     * Écrit dans un fichier temporaire un catalogue formé de copies des tuiles de {@link Tiles#TILES}, renumérotées,
+     * puis mesure et affiche le temps moyen de son chargement.
+     *
+     * @param args Le nombre de copies de chaque tuile ; 10 par défaut.
+     * @throws IOException si le fichier temporaire ne peut pas être écrit ou lu.
+     */
+    public static void main(String[] args) throws IOException {
+        int copies = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        List<Tile> tiles = new ArrayList<>();
+        for (int c = 0; c < copies; c++) {
+            for (Tile tile : Tiles.TILES) tiles.add(renumbered(tile, tiles.size()));
+        }
+        Path file = Files.createTempFile("tiles", ".bin");
+        try {
+            TileCatalogFile.write(tiles, file);
+            long sink = 0;
+            for (int round = 0; round < WARMUP_ROUNDS; round++) sink += TileCatalogFile.read(file).size();
+            long start = System.nanoTime();
+            for (int round = 0; round < MEASURED_ROUNDS; round++) sink += TileCatalogFile.read(file).size();
+            long nanos = (System.nanoTime() - start) / MEASURED_ROUNDS;
+            System.out.println(STR."\{tiles.size()} tuiles, \{Files.size(file)} octets, chargées en \{nanos / 1000} µs, soit \{nanos * 100 / tiles.size() / 1000} µs par centaine de tuiles (\{sink})");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    //retourne une copie de la tuile donnée ayant l'identifiant donné, ses zones et animaux étant renumérotés en conséquence
+    private static Tile renumbered(Tile tile, int id) {
+        Zone[] zones = new Zone[MAX_ZONES];
+        for (Zone.Lake lake : tile.lakeZones()) {
+            zones[lake.localId()] = new Zone.Lake(id * 10 + lake.localId(), lake.fishCount(), lake.specialPower());
+        }
+        for (Zone zone : tile.zones()) {
+            int zoneId = id * 10 + zone.localId();
+            zones[zone.localId()] = switch (zone) {
+                case Zone.Forest forest -> new Zone.Forest(zoneId, forest.kind());
+                case Zone.Meadow meadow -> new Zone.Meadow(zoneId, meadow.animals().stream()
+                        .map(animal -> new Animal(zoneId * 10 + animal.id() % 10, animal.kind()))
+                        .toList(), meadow.specialPower());
+                case Zone.River river -> new Zone.River(zoneId, river.fishCount(),
+                        river.hasLake() ? (Zone.Lake) zones[river.lake().localId()] : null);
+                case Zone.Lake _ -> zones[zone.localId()];
+            };
+        }
+        TileSide[] sides = new TileSide[Direction.COUNT];
+        for (int d = 0; d < Direction.COUNT; d++) {
+            sides[d] = switch (tile.sides().get(d)) {
+                case TileSide.Forest(Zone.Forest forest) -> new TileSide.Forest((Zone.Forest) zones[forest.localId()]);
+                case TileSide.Meadow(Zone.Meadow meadow) -> new TileSide.Meadow((Zone.Meadow) zones[meadow.localId()]);
+                case TileSide.River(Zone.Meadow meadow1, Zone.River river, Zone.Meadow meadow2) -> new TileSide.River(
+                        (Zone.Meadow) zones[meadow1.localId()],
+                        (Zone.River) zones[river.localId()],
+                        (Zone.Meadow) zones[meadow2.localId()]);
+            };
+        }
+        return new Tile(id, tile.kind(), sides[0], sides[1], sides[2], sides[3]);
+    }
+}
@@ -0,0 +1,56 @@
+package ch.epfl.chacun;
+
+import java.util.List;
+
+/**
+ * Mesure le temps de création des tuiles de {@link Tiles#TILES}, qui comprend le calcul des tables que chaque tuile
+ * précalcule à sa construction (zones par identifiant local, connexions ouvertes, côtés et sortes de côtés par
+ * rotation), ainsi que la taille en mémoire de ces tables.
+ * <p>
+ * La création n'a lieu qu'une fois, lors de l'initialisation de la classe {@link Tiles} : elle est donc mesurée au
+ * premier accès à ses tuiles, dans une machine virtuelle qui ne l'a pas encore chargée.
+ * <p>
+ * La taille est mesurée en créant de nombreuses copies des tuiles, qui partagent leurs côtés et leurs zones avec les
+ * originales : l'augmentation du tas occupé, après ramasse-miettes, est donc due aux seules tuiles et à ce qu'elles
+ * précalculent.
+ *
+ * @author Mehdi Boulaid (358117)
+ * @author Adnane Jamil (356117)
+ */
+public final class TileTablesBenchmark {
+
+    private static final int COPIES = 200;
+    private static final int GC_ROUNDS = 5;
+
+    private TileTablesBenchmark() {}
+
+    /**
+     * Affiche le temps de création des tuiles et la taille mesurée de chaque tuile et de ses tables précalculées.
+     *
+     * @param args Ignorés.
+     */
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        List<Tile> tiles = Tiles.TILES;
+        long nanos = System.nanoTime() - start;
+        System.out.println(STR."\{tiles.size()} tuiles créées en \{nanos / 1000} µs");
+
+        Tile[] copies = new Tile[COPIES * tiles.size()];
+        long before = usedHeap();
+        for (int i = 0; i < copies.length; i++) {
+            Tile tile = tiles.get(i % tiles.size());
+            copies[i] = new Tile(tile.id(), tile.kind(), tile.n(), tile.e(), tile.s(), tile.w());
+        }
+        long after = usedHeap();
+        System.out.println(STR."tuile et tables précalculées : \{(after - before) / copies.length} octets par tuile, mesurés sur \{copies.length} copies");
+        // garde les copies atteignables jusqu'après la seconde mesure
+        System.out.println(STR."(\{copies[copies.length - 1].id()})");
+    }
+
+    //retourne la taille du tas occupé, mesurée après quelques passes du ramasse-miettes
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int round = 0; round < GC_ROUNDS; round++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,65 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppendOnlyListTest {
+
+    @Test
+    void appendOnlyListBehavesLikeEqualList() {
+        AppendOnlyList<Integer> list = AppendOnlyList.of();
+        var expected = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            list = list.withAppended(i);
+            expected.add(i);
+            assertEquals(expected, list);
+            assertEquals(list, expected);
+            assertEquals(expected.hashCode(), list.hashCode());
+        }
+        assertEquals(List.of(1, 2, 3), AppendOnlyList.copyOf(List.of(1, 2, 3)));
+        assertEquals(List.of(), AppendOnlyList.of());
+    }
+
+    @Test
+    void appendOnlyListAppendsDoNotAffectOtherLists() {
+        var base = AppendOnlyList.copyOf(List.of("a", "b")).withAppended("c");
+        var first = base.withAppended("d");
+        var second = base.withAppended("e");
+        var third = first.withAppended("f");
+        assertEquals(List.of("a", "b", "c"), base);
+        assertEquals(List.of("a", "b", "c", "d"), first);
+        assertEquals(List.of("a", "b", "c", "e"), second);
+        assertEquals(List.of("a", "b", "c", "d", "f"), third);
+        assertEquals(List.of("a", "b", "c", "e", "g"), second.withAppended("g"));
+    }
+
+    @Test
+    void appendOnlyListIsImmutableAndRejectsNull() {
+        var list = AppendOnlyList.copyOf(List.of(1, 2));
+        assertSame(list, AppendOnlyList.copyOf(list));
+        assertThrows(UnsupportedOperationException.class, () -> list.add(3));
+        assertThrows(UnsupportedOperationException.class, () -> list.set(0, 3));
+        assertThrows(UnsupportedOperationException.class, list::clear);
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(2));
+        assertThrows(NullPointerException.class, () -> list.withAppended(null));
+        assertThrows(NullPointerException.class, () -> AppendOnlyList.copyOf(Arrays.asList(1, null)));
+    }
+
+    @Test
+    void messageBoardSuccessorsDoNotAffectEachOther() {
+        var board = new MessageBoard(new TextMakerFr(Map.of(PlayerColor.RED, "Rouge", PlayerColor.BLUE, "Bleu")), List.of());
+        var plain = Zone.Forest.Kind.PLAIN;
+        var forest1 = new Area<>(Set.of(new Zone.Forest(10, plain), new Zone.Forest(20, plain)), List.of(PlayerColor.RED), 0);
+        var forest2 = new Area<>(Set.of(new Zone.Forest(30, plain), new Zone.Forest(40, plain)), List.of(PlayerColor.BLUE), 0);
+        var red = board.withScoredForest(forest1);
+        var blue = board.withScoredForest(forest2);
+        assertEquals(List.of(), board.messages());
+        assertEquals(Set.of(PlayerColor.RED), red.messages().getFirst().scorers());
+        assertEquals(Set.of(PlayerColor.BLUE), blue.messages().getFirst().scorers());
+        assertEquals(2, red.withScoredForest(forest2).messages().size());
+        assertEquals(red.messages(), new MessageBoard(red.textMaker(), new ArrayList<>(red.messages())).messages());
+    }
+}
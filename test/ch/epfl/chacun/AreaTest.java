@@ -515,4 +515,38 @@ class AreaTest {
         assertEquals(zones.get(3), area.zoneWithSpecialPower(Zone.SpecialPower.PIT_TRAP));
         assertEquals(zones.get(5), area.zoneWithSpecialPower(Zone.SpecialPower.WILD_FIRE));
     }
-}
\ No newline at end of file
+
+    @Test
+    void areaMeadowCountsAreMergedByConnectTo() {
+        var meadow1 = new Zone.Meadow(10, List.of(
+                new Animal(100, Animal.Kind.DEER),
+                new Animal(101, Animal.Kind.TIGER)), Zone.SpecialPower.HUNTING_TRAP);
+        var meadow2 = new Zone.Meadow(20, List.of(
+                new Animal(200, Animal.Kind.MAMMOTH),
+                new Animal(201, Animal.Kind.DEER),
+                new Animal(202, Animal.Kind.AUROCHS)), Zone.SpecialPower.WILD_FIRE);
+        var area1 = new Area<>(Set.of(meadow1), List.of(), 2);
+        var area2 = new Area<>(Set.of(meadow2), List.of(), 2);
+
+        var expected = new Area.MeadowCounts(1, 1, 2, 1, true, true, false);
+        assertEquals(expected, area1.connectTo(area2).meadowCounts());
+        assertEquals(area1.meadowCounts(), area1.connectTo(area1).meadowCounts());
+        assertEquals(Area.MeadowCounts.NONE,
+                new Area<>(Set.of(new Zone.Forest(0, Zone.Forest.Kind.PLAIN)), List.of(), 1).meadowCounts());
+    }
+
+    @Test
+    void areaWithCancelledAnimalAdjustsMeadowCounts() {
+        var deer = new Animal(100, Animal.Kind.DEER);
+        var tiger = new Animal(101, Animal.Kind.TIGER);
+        var area = new Area<>(Set.of(new Zone.Meadow(10, List.of(deer, tiger), null)), List.of(), 0);
+
+        var withoutDeer = area.withCancelledAnimal(deer);
+        assertEquals(0, withoutDeer.meadowCounts().deer());
+        assertEquals(1, withoutDeer.meadowCounts().tigers());
+        // un smilodon annulé dévore toujours un cerf lors du décompte final, et reste donc compté
+        assertEquals(area.meadowCounts(), area.withCancelledAnimal(tiger).meadowCounts());
+        assertEquals(area.zones(), withoutDeer.zones());
+        assertThrows(IllegalArgumentException.class, () -> withoutDeer.withCancelledAnimal(deer));
+    }
+}
@@ -0,0 +1,72 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Base32Test {
+
+    @Test
+    void base32DigitValueWorks() {
+        for (int i = 0; i < 32; i++) {
+            assertEquals(i, Base32.digitValue(Base32.ALPHABET.charAt(i)));
+            assertEquals(i, Base32.digitValue(Character.toLowerCase(Base32.ALPHABET.charAt(i))));
+        }
+        for (var c : "0189 ,=éı".toCharArray()) {
+            assertEquals(-1, Base32.digitValue(c));
+        }
+        assertEquals(-1, Base32.digitValue(-1));
+    }
+
+    @Test
+    void base32EncodeIntoArraysMatchesStrings() {
+        var chars = new char[3];
+        var bytes = new byte[3];
+        for (int value = 0; value < 1023; value++) {
+            assertEquals(2, Base32.encodeBits10(value, chars, 1));
+            assertEquals(2, Base32.encodeBits10(value, bytes, 1));
+            assertEquals(Base32.encodeBits10(value), new String(chars, 1, 2));
+            assertEquals(Base32.encodeBits10(value), new String(bytes, 1, 2, StandardCharsets.US_ASCII));
+            assertEquals(value, Base32.decode(Base32.encodeBits10(value)));
+        }
+        for (int value = 0; value < 32; value++) {
+            assertEquals(1, Base32.encodeBits5(value, chars, 0));
+            assertEquals(1, Base32.encodeBits5(value, bytes, 0));
+            assertEquals(Base32.encodeBits5(value), String.valueOf(chars[0]));
+            assertEquals(Base32.encodeBits5(value), String.valueOf((char) bytes[0]));
+        }
+        assertThrows(IllegalArgumentException.class, () -> Base32.encodeBits10(1023, chars, 0));
+        assertThrows(IllegalArgumentException.class, () -> Base32.encodeBits5(-1, bytes, 0));
+    }
+
+    @Test
+    void base32DecodeAllWorks() {
+        var values = new int[8];
+        var text = " AB c,\n77  D ";
+        assertEquals(4, Base32.decodeAll(text, values));
+        assertArrayEquals(new int[]{1, 2, 1023, 3, 0, 0, 0, 0}, values);
+
+        Arrays.fill(values, 0);
+        var buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+        assertEquals(4, Base32.decodeAll(buffer, values));
+        assertArrayEquals(new int[]{1, 2, 1023, 3, 0, 0, 0, 0}, values);
+        assertEquals(0, buffer.position());
+
+        assertEquals(0, Base32.decodeAll("", values));
+        assertThrows(IllegalArgumentException.class, () -> Base32.decodeAll("ABC", values));
+        assertThrows(IllegalArgumentException.class, () -> Base32.decodeAll("AB 1", values));
+        assertThrows(IllegalArgumentException.class, () -> Base32.decodeAll("A B", new int[1]));
+    }
+
+    @Test
+    void base32IsValidAcceptsOnlyAlphabet() {
+        assertTrue(Base32.isValid(""));
+        assertTrue(Base32.isValid("AZ27az"));
+        assertFalse(Base32.isValid("A1"));
+        assertFalse(Base32.isValid("A "));
+    }
+}
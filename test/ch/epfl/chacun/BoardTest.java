@@ -947,6 +947,53 @@ class BoardTest {
         assertEquals(board1.hashCode(), board2.hashCode());
     }
 
+    @Test
+    void boardCouldPlaceTileMatchesExhaustiveSearch() {
+        var stateActions = TestGames.play(TestGames.startingState(2024), 120);
+        var boards = new ArrayList<Board>();
+        boards.add(Board.EMPTY);
+        stateActions.forEach(stateAction -> boards.add(stateAction.gameState().board()));
+
+        var tiles = new ArrayList<>(Tiles.TILES);
+        tiles.addAll(allTiles());
+        for (var board : boards) {
+            for (var tile : tiles) {
+                var couldPlace = false;
+                for (var pos : board.insertionPositions()) {
+                    for (var rotation : Rotation.ALL) {
+                        couldPlace |= board.canAddTile(new PlacedTile(tile, null, rotation, pos));
+                    }
+                }
+                assertEquals(couldPlace, board.couldPlaceTile(tile));
+            }
+        }
+    }
+
+    @Test
+    void boardInsertionPositionIndexesMatchSortedPositions() {
+        var stateActions = TestGames.play(TestGames.startingState(2024), 120);
+        var boards = new ArrayList<Board>();
+        boards.add(Board.EMPTY);
+        stateActions.forEach(stateAction -> boards.add(stateAction.gameState().board()));
+        var corner = new Pos(Board.REACH, -Board.REACH);
+        boards.add(Board.EMPTY.withNewTile(new PlacedTile(Tiles.TILES.get(56), null, Rotation.NONE, corner)));
+
+        for (var board : boards) {
+            var expected = board.insertionPositions().stream()
+                    .sorted(Comparator.comparingInt(Pos::x).thenComparingInt(Pos::y))
+                    .toList();
+            assertEquals(expected, board.sortedInsertionPositions());
+            assertEquals(expected.size(), board.insertionPositionCount());
+            for (var i = 0; i < expected.size(); i++) {
+                assertEquals(i, board.insertionPositionIndex(expected.get(i)));
+                assertEquals(expected.get(i), board.insertionPositionAt(i));
+            }
+            assertEquals(-1, board.insertionPositionIndex(new Pos(Board.REACH + 1, 0)));
+            assertThrows(IndexOutOfBoundsException.class, () -> board.insertionPositionAt(expected.size()));
+            assertThrows(IndexOutOfBoundsException.class, () -> board.insertionPositionAt(-1));
+        }
+    }
+
     //<editor-fold desc="Tiles">
     private static List<Tile> allTiles() {
         ArrayList<Tile> tiles = new ArrayList<>();
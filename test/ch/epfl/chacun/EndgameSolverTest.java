@@ -0,0 +1,65 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndgameSolverTest {
+    private static GameState lastTileState() {
+        var state = GameLogVerifier.initialState(2024, 2);
+        while (!(state.nextAction() == GameState.Action.PLACE_TILE && state.tileDecks().deckSize(Tile.Kind.NORMAL) == 0))
+            state = state.successors().findFirst().orElseThrow().gameState();
+        return state;
+    }
+
+    private static int margin(GameState finalState, PlayerColor player) {
+        var points = finalState.messageBoard().points();
+        int best = Integer.MIN_VALUE;
+        for (var opponent : finalState.players())
+            if (opponent != player) best = Math.max(best, points.getOrDefault(opponent, 0));
+        return points.getOrDefault(player, 0) - best;
+    }
+
+    @Test
+    void endgameSolverFindsBestLastTurnExactly() {
+        var state = lastTileState();
+        var player = state.currentPlayer();
+
+        int bestMargin = Integer.MIN_VALUE;
+        for (var placement : state.successors().toList()) {
+            var afterPlacement = placement.gameState();
+            if (afterPlacement.nextAction() == GameState.Action.END_GAME) {
+                bestMargin = Math.max(bestMargin, margin(afterPlacement, player));
+                continue;
+            }
+            for (var occupation : afterPlacement.successors().toList())
+                bestMargin = Math.max(bestMargin, margin(occupation.gameState(), player));
+        }
+
+        var solution = EndgameSolver.solve(state, 60_000);
+        assertTrue(solution.exact());
+        assertEquals(bestMargin, solution.expectedMargin());
+        assertTrue(state.successors().map(GameState.Successor::code).collect(Collectors.toSet())
+                .contains(solution.action().code()));
+    }
+
+    @Test
+    void endgameSolverReturnsShallowSolutionWhenDeadlineIsExceeded() {
+        var state = GameLogVerifier.initialState(2024, 2);
+        var solution = EndgameSolver.solve(state, 0);
+        assertEquals(1, solution.depth());
+        assertFalse(solution.exact());
+        assertNotNull(solution.action());
+        assertThrows(IllegalArgumentException.class, () -> EndgameSolver.solve(state, -1));
+    }
+
+    @Test
+    void endgameSolverReturnsNullAtEndOfGame() {
+        var state = lastTileState();
+        while (state.nextAction() != GameState.Action.END_GAME)
+            state = state.successors().findFirst().orElseThrow().gameState();
+        assertNull(EndgameSolver.solve(state, 1_000));
+    }
+}
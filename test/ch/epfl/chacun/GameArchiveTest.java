@@ -0,0 +1,152 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameArchiveTest {
+
+    // retourne les actions jouées par TestGames.play depuis l'état initial d'une partie archivée
+    private static List<String> actions(long seed, List<PlayerColor> players, int maxActions) {
+        var state = GameLogVerifier.initialState(seed, players);
+        return TestGames.play(state, maxActions).stream().map(ActionEncoder.StateAction::action).toList();
+    }
+
+    private static GameState replayed(long seed, List<PlayerColor> players, List<String> actions) {
+        var state = GameLogVerifier.initialState(seed, players);
+        for (var action : actions) state = ActionEncoder.decodeAndApply(state, action).gameState();
+        return state;
+    }
+
+    // les plateaux et les générateurs de textes n'étant comparés que par identité, deux parties rejouées séparément
+    // sont comparées par leurs composantes
+    private static void assertSameGame(GameState expected, GameState actual) {
+        assertEquals(expected.players(), actual.players());
+        assertEquals(expected.tileDecks(), actual.tileDecks());
+        assertEquals(expected.tileToPlace(), actual.tileToPlace());
+        assertEquals(expected.nextAction(), actual.nextAction());
+        assertEquals(expected.board().lastPlacedTile(), actual.board().lastPlacedTile());
+        assertEquals(expected.board().occupants(), actual.board().occupants());
+        assertEquals(expected.board().sortedInsertionPositions(), actual.board().sortedInsertionPositions());
+        assertEquals(expected.messageBoard().messages(), actual.messageBoard().messages());
+    }
+
+    @Test
+    void gameArchiveReadsGamesById() throws IOException {
+        var players1 = List.of(PlayerColor.RED, PlayerColor.BLUE);
+        var players2 = List.of(PlayerColor.YELLOW, PlayerColor.RED, PlayerColor.PURPLE);
+        var actions1 = actions(1, players1, 40);
+        var actions2 = actions(2, players2, 25);
+        Path path = Files.createTempFile("games", ".bin");
+        try {
+            try (var writer = GameArchive.append(path)) {
+                writer.append(30, 1, players1, actions1);
+                writer.append(10, 2, players2, actions2);
+                writer.append(20, 3, players1, List.of());
+            }
+            var archive = GameArchive.open(path);
+            assertEquals(3, archive.size());
+            assertEquals(List.of(10L, 20L, 30L), List.of(archive.gameId(0), archive.gameId(1), archive.gameId(2)));
+            assertThrows(IndexOutOfBoundsException.class, () -> archive.gameId(3));
+
+            var game = archive.game(10);
+            assertEquals(10, game.id());
+            assertEquals(2, game.seed());
+            assertEquals(players2, game.players());
+            assertEquals(actions2.size(), game.actionCount());
+            assertSameGame(replayed(2, players2, actions2), game.replayed());
+            assertSameGame(replayed(1, players1, actions1), archive.game(30).replayed());
+            assertSameGame(GameLogVerifier.initialState(3, players1), archive.game(20).replayed());
+            assertNull(archive.game(15));
+
+            var scanned = new ArrayList<Long>();
+            archive.forEach(g -> scanned.add(g.id()));
+            assertEquals(List.of(30L, 10L, 20L), scanned);
+
+            var actions3 = actions(4, players2, 3);
+            try (var writer = GameArchive.append(path)) {
+                writer.append(5, 4, players2, actions3);
+            }
+            var appended = GameArchive.open(path);
+            assertEquals(4, appended.size());
+            assertEquals(5, appended.gameId(0));
+            assertSameGame(replayed(4, players2, actions3), appended.game(5).replayed());
+            assertSameGame(replayed(1, players1, actions1), appended.game(30).replayed());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void gameArchiveRejectsDuplicateIdsAndInvalidFiles() throws IOException {
+        var players = List.of(PlayerColor.RED, PlayerColor.BLUE);
+        Path path = Files.createTempFile("games", ".bin");
+        try {
+            try (var writer = GameArchive.append(path)) {
+                writer.append(1, 1, players, List.of());
+                assertThrows(IllegalArgumentException.class, () -> writer.append(1, 2, players, List.of()));
+                writer.append(2, 2, players, List.of());
+            }
+            try (var writer = GameArchive.append(path)) {
+                assertThrows(IllegalArgumentException.class, () -> writer.append(2, 3, players, List.of()));
+                writer.append(0, 3, players, List.of());
+                assertThrows(IllegalArgumentException.class, () -> writer.append(0, 4, players, List.of()));
+            }
+            var archive = GameArchive.open(path);
+            assertEquals(3, archive.size());
+            assertEquals(List.of(0L, 1L, 2L), List.of(archive.gameId(0), archive.gameId(1), archive.gameId(2)));
+            assertEquals(2, archive.game(2).seed());
+
+            Files.write(path, new byte[0]);
+            try (var emptyWriter = GameArchive.append(path)) {
+                assertThrows(IllegalArgumentException.class,
+                        () -> emptyWriter.append(1, 1, List.of(PlayerColor.RED), List.of()));
+            }
+            assertEquals(0, GameArchive.open(path).size());
+
+            var bytes = Files.readAllBytes(path);
+            bytes[0] ^= 1;
+            Files.write(path, bytes);
+            assertThrows(IllegalArgumentException.class, () -> GameArchive.open(path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void gameArchiveStaysValidUntilWriterIsClosed() throws IOException {
+        var players = List.of(PlayerColor.RED, PlayerColor.BLUE);
+        var actions = actions(1, players, 20);
+        Path path = Files.createTempFile("games", ".bin");
+        try {
+            try (var writer = GameArchive.append(path)) {
+                writer.append(1, 1, players, actions);
+            }
+            var before = Files.readAllBytes(path);
+
+            // un écrivain jamais fermé, comme lors d'un arrêt brutal, ne modifie pas l'archive
+            var writer = GameArchive.append(path);
+            writer.append(2, 1, players, actions);
+            assertArrayEquals(before, Files.readAllBytes(path));
+            assertEquals(1, GameArchive.open(path).size());
+
+            writer.close();
+            writer.close();
+            var archive = GameArchive.open(path);
+            assertEquals(2, archive.size());
+            assertSameGame(archive.game(1).replayed(), archive.game(2).replayed());
+            try (var files = Files.list(path.toAbsolutePath().getParent())) {
+                assertTrue(files.noneMatch(file -> file.getFileName().toString().startsWith(path.getFileName().toString())
+                        && file.toString().endsWith(".tmp")));
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameHistoryTest {
+    @Test
+    void gameHistoryUndoAndRedoReturnPreviousStatesBeyondRing() {
+        var initial = TestGames.startingState(2024);
+        var stateActions = TestGames.play(initial, 50);
+        var history = new GameHistory(GameLog.of(initial, 5), 4);
+        for (var stateAction : stateActions)
+            history.record(stateAction);
+
+        for (int i = stateActions.size() - 1; i > 0; i -= 1)
+            assertEquals(stateActions.get(i - 1).gameState(), history.undo());
+        assertEquals(initial, history.undo());
+        assertFalse(history.canUndo());
+        assertThrows(IllegalArgumentException.class, history::undo);
+
+        for (var stateAction : stateActions)
+            assertEquals(stateAction.gameState(), history.redo());
+        assertFalse(history.canRedo());
+        assertThrows(IllegalArgumentException.class, history::redo);
+    }
+
+    @Test
+    void gameHistoryRecordAfterUndoDropsUndoneActions() {
+        var initial = TestGames.startingState(7);
+        var stateActions = TestGames.play(initial, 20);
+        var history = new GameHistory(GameLog.of(initial, 3), 8);
+        for (var stateAction : stateActions)
+            history.record(stateAction);
+
+        for (int i = 0; i < 6; i += 1)
+            history.undo();
+        var branch = TestGames.play(history.current(), 1).getFirst();
+        history.record(branch);
+
+        assertEquals(15, history.position());
+        assertEquals(15, history.log().size());
+        assertFalse(history.canRedo());
+        assertEquals(branch.gameState(), history.current());
+        assertEquals(branch.action(), history.actions().getLast());
+        assertEquals(stateActions.get(13).gameState(), history.undo());
+        assertEquals(stateActions.get(3).action(), history.actions().get(3));
+    }
+
+    @Test
+    void gameHistoryRetainedStatesShareStructure() {
+        var initial = TestGames.startingState(3);
+        var stateActions = TestGames.play(initial, 200);
+        var history = new GameHistory(GameLog.of(initial), stateActions.size() + 1);
+        for (var stateAction : stateActions)
+            history.record(stateAction);
+
+        var lastStateOnly = new GameHistory(GameLog.of(stateActions.getLast().gameState()), 1);
+        assertTrue(history.retainedBytes() < stateActions.size() * lastStateOnly.retainedBytes() / 4);
+        assertTrue(new GameHistory(GameLog.of(initial), 1).retainedBytes() > 0);
+        assertThrows(IllegalArgumentException.class, () -> new GameHistory(GameLog.of(initial), 0));
+        assertEquals(List.of(), new GameHistory(GameLog.of(initial)).actions());
+    }
+}
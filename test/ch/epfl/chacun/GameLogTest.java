@@ -0,0 +1,73 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameLogTest {
+    @Test
+    void gameLogStateAtReturnsStateAfterEachAction() {
+        var initial = TestGames.startingState(2024);
+        var stateActions = TestGames.play(initial, 60);
+
+        for (var interval : List.of(1, 4, 7, GameLog.DEFAULT_SNAPSHOT_INTERVAL, 100)) {
+            var log = GameLog.of(initial, interval);
+            for (var stateAction : stateActions)
+                log = log.withAction(stateAction);
+
+            assertEquals(stateActions.size(), log.size());
+            assertEquals(initial, log.stateAt(0));
+            for (int i = 0; i < stateActions.size(); i += 1)
+                assertEquals(stateActions.get(i).gameState(), log.stateAt(i + 1));
+            assertEquals(stateActions.getLast().gameState(), log.lastState());
+        }
+    }
+
+    @Test
+    void gameLogStateAtThrowsOutsideOfLog() {
+        var log = GameLog.of(TestGames.startingState(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> log.stateAt(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> log.stateAt(1));
+        assertThrows(IllegalArgumentException.class, () -> GameLog.of(TestGames.startingState(1), 0));
+    }
+
+    @Test
+    void gameLogReplayedProducesSameLog() {
+        var initial = TestGames.startingState(65536);
+        var stateActions = TestGames.play(initial, 40);
+        var actions = stateActions.stream().map(ActionEncoder.StateAction::action).toList();
+
+        var log = GameLog.replayed(initial, actions, 5);
+        assertEquals(actions, log.actions());
+        assertEquals(stateActions.getLast().gameState(), log.lastState());
+        assertThrows(IllegalArgumentException.class,
+                () -> GameLog.replayed(initial, List.of("AA", "77", "77"), 5));
+    }
+
+    @Test
+    void gameLogOlderVersionsAreUnaffectedByLaterBranches() {
+        var initial = TestGames.startingState(7);
+        var stateActions = TestGames.play(initial, 20);
+
+        var log = GameLog.of(initial, 3);
+        var versions = new ArrayList<GameLog>();
+        for (var stateAction : stateActions) {
+            versions.add(log);
+            log = log.withAction(stateAction);
+        }
+        var longest = log;
+
+        var branchPoint = versions.get(10);
+        var branchAction = TestGames.nextStateAction(branchPoint.lastState(), 1);
+        var branch = branchPoint.withAction(branchAction);
+
+        assertEquals(11, branch.size());
+        assertEquals(branchAction.gameState(), branch.lastState());
+        assertEquals(stateActions.size(), longest.size());
+        for (int i = 0; i < stateActions.size(); i += 1)
+            assertEquals(stateActions.get(i).gameState(), longest.stateAt(i + 1));
+        assertEquals(stateActions.get(9).action(), versions.get(10).actions().getLast());
+    }
+}
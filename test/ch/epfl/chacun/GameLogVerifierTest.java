@@ -0,0 +1,97 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameLogVerifierTest {
+    private static List<String> playedActions(GameState initialState, int count) {
+        var actions = new ArrayList<String>();
+        var state = initialState;
+        for (int i = 0; i < count && state.nextAction() != GameState.Action.END_GAME; i += 1) {
+            var successors = state.successors().toList();
+            var successor = successors.get(i % successors.size());
+            actions.add(successor.code());
+            state = successor.gameState();
+        }
+        return actions;
+    }
+
+    @Test
+    void gameLogVerifierAcceptsPlayedLog() {
+        var initial = GameLogVerifier.initialState(12, 3);
+        var actions = playedActions(initial, 50);
+        var result = GameLogVerifier.verify("log", initial, actions);
+        assertTrue(result.isValid());
+        assertEquals(actions.size(), result.actionCount());
+    }
+
+    @Test
+    void gameLogVerifierReportsFirstInvalidActionAndReason() {
+        var initial = GameLogVerifier.initialState(12, 2);
+        var actions = new ArrayList<>(playedActions(initial, 30));
+        var firstPlacement = actions.getFirst();
+
+        var malformed = new ArrayList<>(actions);
+        malformed.set(7, "!");
+        assertEquals(new GameLogVerifier.Failure(7, "!", GameLogVerifier.Reason.MALFORMED_ACTION),
+                GameLogVerifier.verify("log", initial, malformed).failure());
+
+        var wrongLength = new ArrayList<>(actions);
+        wrongLength.set(0, "A");
+        assertEquals(GameLogVerifier.Reason.MALFORMED_ACTION,
+                GameLogVerifier.verify("log", initial, wrongLength).failure().reason());
+
+        var illegal = new ArrayList<>(actions);
+        illegal.set(0, "77");
+        var result = GameLogVerifier.verify("log", initial, illegal);
+        assertEquals(new GameLogVerifier.Failure(0, "77", GameLogVerifier.Reason.ILLEGAL_ACTION), result.failure());
+        assertEquals(0, result.actionCount());
+
+        assertTrue(GameLogVerifier.verify("log", initial, List.of(firstPlacement.toLowerCase())).isValid());
+    }
+
+    @Test
+    void gameLogVerifierReportsActionsAfterEndOfGame() {
+        var initial = GameLogVerifier.initialState(5, 2);
+        var actions = new ArrayList<>(playedActions(initial, 1000));
+        actions.add("A");
+        var failure = GameLogVerifier.verify("log", initial, actions).failure();
+        assertEquals(new GameLogVerifier.Failure(actions.size() - 1, "A", GameLogVerifier.Reason.GAME_OVER), failure);
+    }
+
+    @Test
+    void gameLogVerifierVerifiesAllFilesOfDirectory() throws IOException {
+        var directory = Files.createTempDirectory("logs");
+        try {
+            var validActions = playedActions(GameLogVerifier.initialState(1, 2), 40);
+            Files.writeString(directory.resolve("valid"), "1 2\n" + String.join(" ", validActions.subList(0, 20))
+                    + "\n" + String.join("\n", validActions.subList(20, validActions.size())));
+            Files.writeString(directory.resolve("illegal"), "1 2\n77 " + validActions.get(1));
+            Files.writeString(directory.resolve("header"), "graine 2\n" + validActions.getFirst());
+            Files.writeString(directory.resolve("empty"), "");
+
+            var results = new ConcurrentHashMap<String, GameLogVerifier.Result>();
+            GameLogVerifier.verifyAll(directory, result -> results.put(result.name(), result));
+
+            assertEquals(Set.of("valid", "illegal", "header", "empty"), results.keySet());
+            assertTrue(results.get("valid").isValid());
+            assertEquals(validActions.size(), results.get("valid").actionCount());
+            assertEquals(new GameLogVerifier.Failure(0, "77", GameLogVerifier.Reason.ILLEGAL_ACTION),
+                    results.get("illegal").failure());
+            assertEquals(GameLogVerifier.Reason.MALFORMED_HEADER, results.get("header").failure().reason());
+            assertEquals(GameLogVerifier.Reason.MALFORMED_HEADER, results.get("empty").failure().reason());
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (var file : files.toList()) Files.delete(file);
+            }
+            Files.delete(directory);
+        }
+    }
+}
@@ -572,6 +572,130 @@ class GameStateTest {
         assertEquals(expectedOccupants, state.lastTilePotentialOccupants());
     }
 
+    @Test
+    void gameStateLastTilePotentialOccupantsAreMemoizedForOccupyTileOnly() {
+        var state = initialGameState(List.of(0), List.of());
+        assertEquals(Set.of(), state.lastTilePotentialOccupants());
+
+        var placedTile0 = new PlacedTile(state.tileToPlace(), PlayerColor.RED, Rotation.NONE, new Pos(1, 0));
+        var state1 = state.withPlacedTile(placedTile0);
+        assertEquals(placedTile0.potentialOccupants(), state1.lastTilePotentialOccupants());
+
+        var recomputed = new GameState(state1.players(), state1.tileDecks(), state1.tileToPlace(),
+                state1.board(), state1.nextAction(), state1.messageBoard());
+        assertEquals(state1, recomputed);
+        assertEquals(state1.hashCode(), recomputed.hashCode());
+        assertEquals(state1.lastTilePotentialOccupants(), recomputed.lastTilePotentialOccupants());
+        assertEquals(Set.of(), state1.withNewOccupant(null).lastTilePotentialOccupants());
+    }
+
+    @Test
+    void gameStateLastTilePotentialOccupantsThrowsOnEmptyBoard() {
+        var state = GameState.initial(List.of(PlayerColor.RED, PlayerColor.BLUE), tileDecks(List.of(0), List.of()),
+                new BasicTextMaker());
+        assertThrows(IllegalArgumentException.class, state::lastTilePotentialOccupants);
+    }
+
+    // points finaux, dans l'ordre initial des joueurs, des parties jouées par TestGames.playRandomly depuis
+    // GameLogVerifier.initialState(graine, 2 + graine % 4) avec un java.util.Random de même graine, dix parties par
+    // ligne ; ils ont été obtenus avec la version du jeu qui parcourait les zones des prés pour compter leurs animaux,
+    // corrigée seulement pour que les smilodons ne dévorent pas des cerfs déjà annulés
+    private static final String BASELINE_FINAL_POINTS = """
+            36 45 | 35 23 28 | 27 16 14 15 | 6 9 4 18 16 | 21 17 | 23 16 6 | 21 18 27 10 | 9 5 9 11 12 | 25 15 | 25 12 4
+            12 12 34 10 | 13 15 17 23 6 | 23 3 | 23 10 10 | 12 29 9 9 | 14 8 11 5 9 | 20 3 | 34 17 23 | 4 12 5 7 | 14 14 30 8 26
+            9 17 | 17 26 13 | 32 18 19 21 | 17 6 30 1 12 | 29 8 | 15 12 12 | 15 17 9 9 | 7 16 15 22 17 | 25 21 | 12 13 22
+            18 4 19 20 | 29 33 19 28 6 | 4 16 | 18 19 16 | 11 12 18 11 | 10 18 10 1 7 | 8 25 | 23 10 22 | 16 8 18 7 | 22 21 6 14 7
+            38 24 | 20 3 36 | 14 17 8 20 | 11 10 20 23 13 | 35 35 | 11 13 4 | 9 25 10 8 | 9 16 10 11 8 | 18 19 | 14 6 15
+            23 9 26 18 | 10 5 8 20 4 | 24 13 | 10 33 7 | 15 10 19 7 | 9 12 8 7 21 | 23 9 | 27 17 26 | 15 44 18 15 | 16 21 14 12 4
+            40 23 | 12 9 38 | 19 17 27 32 | 8 6 23 6 14 | 14 16 | 24 44 19 | 17 19 19 34 | 15 14 26 7 8 | 25 14 | 15 6 14
+            20 11 35 35 | 16 20 12 14 7 | 17 14 | 14 31 18 | 14 12 15 11 | 26 26 21 10 7 | 27 31 | 12 4 7 | 16 5 25 6 | 11 27 13 6 2
+            22 1 | 16 21 13 | 12 9 17 17 | 17 11 7 16 15 | 22 13 | 21 28 19 | 11 52 11 14 | 15 12 10 5 2 | 28 19 | 25 11 13
+            9 18 18 12 | 7 16 21 15 5 | 7 19 | 17 16 6 | 41 26 5 12 | 12 14 5 28 8 | 25 21 | 12 16 9 | 15 40 15 19 | 28 20 14 17 19
+            7 7 | 17 25 3 | 27 5 25 11 | 11 9 11 11 9 | 10 12 | 18 23 25 | 19 17 19 9 | 5 17 8 20 19 | 38 34 | 12 5 10
+            22 20 10 6 | 10 21 22 9 9 | 27 19 | 36 28 21 | 4 18 12 20 | 28 9 10 12 16 | 20 13 | 23 11 10 | 10 17 9 11 | 19 20 23 25 20
+            """;
+
+    @Test
+    void gameStateFinalPointsMatchBaselineOnSeededGames() {
+        var expectedPoints = BASELINE_FINAL_POINTS.lines()
+                .flatMap(line -> Arrays.stream(line.split("\\|")))
+                .map(String::trim)
+                .toList();
+        for (int seed = 0; seed < expectedPoints.size(); seed += 1) {
+            var initial = GameLogVerifier.initialState(seed, 2 + seed % 4);
+            var points = TestGames.playRandomly(initial, new Random(seed)).getLast().gameState().messageBoard().points();
+            var actual = initial.players().stream()
+                    .map(player -> String.valueOf(points.getOrDefault(player, 0)))
+                    .collect(Collectors.joining(" "));
+            assertEquals(expectedPoints.get(seed), actual, "graine " + seed);
+        }
+    }
+
+    @Test
+    void gameStateProvisionalPointsMatchFinalCount() throws ReflectiveOperationException {
+        var withFinalPointsCounted = GameState.class.getDeclaredMethod("withFinalPointsCounted");
+        withFinalPointsCounted.setAccessible(true);
+
+        // assez de parties pour que des smilodons se retrouvent dans des prés dont des cerfs ont déjà été annulés ;
+        // les points ne sont comparés qu'au début de chaque tour, le décompte final étant coûteux
+        for (long seed = 0; seed < 200; seed += 1) {
+            var random = new Random(seed);
+            var state = GameLogVerifier.initialState(seed, 2 + (int) (seed % 3));
+            while (state.nextAction() != Action.END_GAME) {
+                if (state.nextAction() == Action.PLACE_TILE) {
+                    var expected = ((GameState) withFinalPointsCounted.invoke(state)).messageBoard().points();
+                    for (var player : state.players())
+                        assertEquals(expected.getOrDefault(player, 0), state.provisionalPoints().get(player),
+                                "graine " + seed);
+                }
+
+                // on occupe le plus souvent possible, afin que des prés et des réseaux soient disputés
+                var successors = state.successors().toList();
+                state = successors.get(state.nextAction() == Action.PLACE_TILE
+                        ? random.nextInt(successors.size())
+                        : successors.size() - 1 - random.nextInt(Math.min(2, successors.size()))).gameState();
+            }
+            for (var player : state.players())
+                assertEquals(state.messageBoard().points().getOrDefault(player, 0), state.provisionalPoints().get(player));
+        }
+    }
+
+    @Test
+    void gameStateSuccessorsMatchActionEncoderAndLegalMoves() {
+        var state = TestGames.startingState(42);
+        for (int turn = 0; turn < 80 && state.nextAction() != Action.END_GAME; turn += 1) {
+            var successors = state.successors().toList();
+            var codes = successors.stream().map(GameState.Successor::code).collect(Collectors.toSet());
+            assertEquals(successors.size(), codes.size());
+
+            switch (state.nextAction()) {
+                case PLACE_TILE -> {
+                    var legal = new HashSet<PlacedTile>();
+                    for (var pos : state.board().insertionPositions())
+                        for (var rotation : Rotation.ALL) {
+                            var tile = new PlacedTile(state.tileToPlace(), state.currentPlayer(), rotation, pos);
+                            if (state.board().canAddTile(tile)) legal.add(tile);
+                        }
+                    assertEquals(legal, successors.stream().map(GameState.Successor::placedTile).collect(Collectors.toSet()));
+                }
+                case OCCUPY_TILE -> {
+                    assertNull(successors.getFirst().occupant());
+                    assertEquals(state.lastTilePotentialOccupants().size() + 1, successors.size());
+                }
+                case RETAKE_PAWN -> assertNull(successors.getFirst().occupant());
+                default -> fail();
+            }
+
+            for (var successor : successors) {
+                assertEquals(state.nextAction(), successor.kind());
+                assertEquals(ActionEncoder.decodeAndApply(state, successor.code()).gameState(), successor.gameState());
+            }
+            state = successors.get(turn % successors.size()).gameState();
+        }
+        var notStarted = initial(List.of(PlayerColor.RED, PlayerColor.BLUE), TestGames.startingState(42).tileDecks(), new TextMakerFr(Map.of()));
+        assertEquals(0, notStarted.successors().count());
+    }
+
     @Test
     void gameStateWithPlacedTileWorksAtEndOfGame() {
         var positions = Map.ofEntries(
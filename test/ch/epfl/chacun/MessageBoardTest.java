@@ -92,6 +92,41 @@ class MessageBoardTest {
         assertEquals(0, points.getOrDefault(YELLOW, 0));
     }
 
+    @Test
+    void messageBoardPointsAreDerivedFromMessages() {
+        var forestArea = new Area<>(Set.of(new Zone.Forest(10, Kind.PLAIN), new Zone.Forest(20, Kind.PLAIN)),
+                List.of(RED, BLUE), 0);
+        var mb = new MessageBoard(new BasicTextMaker(), List.of())
+                .withScoredForest(forestArea)
+                .withScoredForest(forestArea);
+        var rebuilt = new MessageBoard(mb.textMaker(), mb.messages());
+        assertEquals(Map.of(RED, 8, BLUE, 8), mb.points());
+        assertEquals(mb.points(), rebuilt.points());
+        assertEquals(mb, rebuilt);
+        assertEquals(mb.hashCode(), rebuilt.hashCode());
+    }
+
+    @Test
+    void silentMessageBoardKeepsTextlessMessagesConsistentWithPoints() {
+        var forestArea = new Area<>(Set.of(new Zone.Forest(10, Kind.PLAIN), new Zone.Forest(20, Kind.PLAIN)),
+                List.of(RED, BLUE), 0);
+        var mb = new MessageBoard(new BasicTextMaker(), List.of()).withScoredForest(forestArea);
+        var silent = mb.withSilence(true).withScoredForest(forestArea);
+        assertTrue(silent.isSilent());
+        assertEquals(2, silent.messages().size());
+        assertEquals(mb.messages().getFirst(), silent.messages().getFirst());
+        assertEquals("", silent.messages().getLast().text());
+        assertEquals(Map.of(RED, 8, BLUE, 8), silent.points());
+
+        var restored = silent.withSilence(false);
+        assertFalse(restored.isSilent());
+        assertSame(mb.textMaker(), restored.textMaker());
+        assertEquals(silent.messages(), restored.messages());
+        assertEquals(new MessageBoard(restored.textMaker(), restored.messages()), restored);
+        assertEquals("{RED,BLUE}|4|0|2", restored.withScoredForest(forestArea).messages().getLast().text());
+        assertSame(mb, mb.withSilence(false));
+    }
+
     @Test
     void messageBoardWithScoredForestWorksWithUnoccupiedForest() {
         var f1 = new Zone.Forest(10, Kind.PLAIN);
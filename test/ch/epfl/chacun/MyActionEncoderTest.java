@@ -3,6 +3,7 @@ package ch.epfl.chacun;
 import ch.epfl.chacun.Tiles;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -164,4 +165,81 @@ class MyActionEncoderTest {
 
         var expectedGS1 = gameState1.withOccupantRemoved(pawn002);
     }
-}
\ No newline at end of file
+
+    @Test
+    void packedActionsReplayToSameStates() {
+        var initial = TestGames.startingState(2024);
+        var stateActions = TestGames.play(initial, 200);
+        var actions = stateActions.stream().map(ActionEncoder.StateAction::action).toList();
+
+        var buffer = ActionEncoder.pack(actions);
+        var bitCount = actions.stream().mapToInt(action -> action.length() * 5).sum();
+        assertEquals(8 + (bitCount + 7) / 8, buffer.remaining());
+
+        var reader = new ActionEncoder.PackedReader(buffer);
+        assertEquals(actions.size(), reader.actionCount());
+        var state = initial;
+        for (var stateAction : stateActions) {
+            assertTrue(reader.hasNext());
+            state = reader.applyNext(state);
+            assertEquals(stateAction.gameState(), state);
+        }
+        assertFalse(reader.hasNext());
+        assertThrows(NoSuchElementException.class, () -> reader.applyNext(initial));
+
+        assertEquals(0, buffer.position());
+        assertEquals(stateActions.getLast().gameState(), ActionEncoder.unpackAndApply(initial, buffer));
+    }
+
+    @Test
+    void packedActionsRejectInvalidContent() {
+        assertThrows(IllegalArgumentException.class, () -> ActionEncoder.pack(List.of("AB", "")));
+        assertThrows(IllegalArgumentException.class, () -> ActionEncoder.pack(List.of("ABC")));
+        assertThrows(IllegalArgumentException.class, () -> ActionEncoder.pack(List.of("A1")));
+
+        var packed = ActionEncoder.pack(List.of("AB", "C"));
+        var truncated = packed.duplicate().limit(packed.limit() - 1);
+        assertThrows(IllegalArgumentException.class, () -> new ActionEncoder.PackedReader(truncated));
+        assertThrows(IllegalArgumentException.class, () -> new ActionEncoder.PackedReader(ByteBuffer.allocate(4)));
+
+        // la première action d'une partie est une pose de tuile, qui ne peut être lue dans un seul chiffre
+        var initial = TestGames.startingState(2024);
+        assertNull(ActionEncoder.unpackAndApply(initial, ActionEncoder.pack(List.of("A"))));
+        assertNull(ActionEncoder.unpackAndApply(initial, ActionEncoder.pack(List.of("77"))));
+    }
+
+    @Test
+    void fastForwardReachesSameStateAsNormalReplay() {
+        var initial = TestGames.startingState(5);
+        var stateActions = TestGames.play(initial, 1000);
+        assertEquals(GameState.Action.END_GAME, stateActions.getLast().gameState().nextAction());
+        var actions = stateActions.stream().map(ActionEncoder.StateAction::action).toList();
+
+        for (int count : new int[]{0, 1, 2, 41, actions.size()}) {
+            var expected = count == 0 ? initial : stateActions.get(count - 1).gameState();
+            var fromStrings = ActionEncoder.fastForward(initial, actions.subList(0, count));
+            var fromPacked = ActionEncoder.fastForward(initial, ActionEncoder.pack(actions.subList(0, count)));
+            for (var actual : List.of(fromStrings, fromPacked)) {
+                assertEquals(expected.tileDecks(), actual.tileDecks());
+                assertEquals(expected.tileToPlace(), actual.tileToPlace());
+                assertEquals(expected.nextAction(), actual.nextAction());
+                assertEquals(expected.lastTilePotentialOccupants(), actual.lastTilePotentialOccupants());
+                assertEquals(expected.board().lastPlacedTile(), actual.board().lastPlacedTile());
+                assertEquals(expected.board().occupants(), actual.board().occupants());
+                assertEquals(expected.board().sortedInsertionPositions(), actual.board().sortedInsertionPositions());
+                assertEquals(expected.messageBoard().points(), actual.messageBoard().points());
+                // les messages produits pendant le rejeu n'ont pas de texte, mais le tableau obtenu n'est plus muet
+                var expectedMessages = expected.messageBoard().messages().stream()
+                        .map(m -> new MessageBoard.Message("", m.points(), m.scorers(), m.tileIds()))
+                        .toList();
+                assertEquals(expectedMessages, actual.messageBoard().messages());
+                assertSame(initial.messageBoard().textMaker(), actual.messageBoard().textMaker());
+                assertFalse(actual.messageBoard().isSilent());
+            }
+        }
+        assertFalse(stateActions.getLast().gameState().messageBoard().points().isEmpty());
+
+        assertNull(ActionEncoder.fastForward(initial, List.of("77")));
+        assertNull(ActionEncoder.fastForward(initial, ActionEncoder.pack(List.of("77"))));
+    }
+}
@@ -0,0 +1,35 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+    @Test
+    void perftMatchesGoldenCountsForTwoPlayers() {
+        var state = GameLogVerifier.initialState(2024, 2);
+        var expected = List.of(1L, 6L, 36L, 360L, 2416L, 13502L);
+        for (int depth = 0; depth < expected.size(); depth += 1)
+            assertEquals(expected.get(depth), Perft.count(state, depth));
+    }
+
+    @Test
+    void perftInParallelMatchesGoldenCountsForThreePlayers() {
+        var state = GameLogVerifier.initialState(7, 3);
+        var expected = List.of(1L, 6L, 24L, 160L, 776L, 7312L);
+        for (int depth = 0; depth < expected.size(); depth += 1)
+            assertEquals(expected.get(depth), Perft.countInParallel(state, depth));
+    }
+
+    @Test
+    void perftCountsNothingBelowEndOfGame() {
+        var state = GameLogVerifier.initialState(2024, 2);
+        while (state.nextAction() != GameState.Action.END_GAME)
+            state = state.successors().findFirst().orElseThrow().gameState();
+        assertEquals(1, Perft.count(state, 0));
+        assertEquals(0, Perft.count(state, 3));
+        assertThrows(IllegalArgumentException.class, () -> Perft.count(GameLogVerifier.initialState(1, 2), -1));
+    }
+}
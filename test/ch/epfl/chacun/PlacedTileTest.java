@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -345,6 +346,27 @@ class PlacedTileTest {
         assertEquals(expectedPotentialOccupants, placedTile.potentialOccupants());
     }
 
+    @Test
+    void placedTilePotentialOccupantsAreSharedAndMatchZones() {
+        for (var tile : Tiles.TILES) {
+            var placedTile = new PlacedTile(tile, PlayerColor.BLUE, Rotation.RIGHT, Pos.ORIGIN);
+            var expected = new HashSet<Occupant>();
+            for (var zone : tile.sideZones()) {
+                expected.add(new Occupant(Occupant.Kind.PAWN, zone.id()));
+                if (zone instanceof Zone.River river) {
+                    expected.add(new Occupant(Occupant.Kind.HUT, river.hasLake() ? river.lake().id() : river.id()));
+                }
+            }
+            var occupants = placedTile.potentialOccupants();
+            assertEquals(expected, occupants);
+            assertEquals(expected.hashCode(), occupants.hashCode());
+            assertSame(occupants, placedTile.withOccupant(new Occupant(Occupant.Kind.PAWN, 0)).potentialOccupants());
+            assertFalse(occupants.contains(new Occupant(Occupant.Kind.HUT, tile.id() * 10 + 3 + 1000)));
+            assertThrows(UnsupportedOperationException.class,
+                    () -> occupants.add(new Occupant(Occupant.Kind.PAWN, 0)));
+        }
+    }
+
     @Test
     void placedTileWithOccupantThrowsIfTileIsAlreadyOccupied() {
         var zoneMeadow1 = new Zone.Meadow(10, List.of(), null);
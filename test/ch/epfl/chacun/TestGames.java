@@ -0,0 +1,96 @@
+package ch.epfl.chacun;
+
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+/**
+ * Parties jouées par les tests : états initiaux tirés d'une graine, et suites d'actions jouées depuis un état, de
+ * manière déterministe ou au hasard.
+ */
+final class TestGames {
+    private TestGames() {}
+
+    // retourne l'état initial d'une partie à deux joueurs dont les tuiles sont mélangées avec la graine donnée
+    static GameState startingState(long seed) {
+        var textMaker = new TextMakerFr(Map.of(PlayerColor.RED, "Rose", PlayerColor.BLUE, "Bernard"));
+        return GameState.initial(List.of(PlayerColor.RED, PlayerColor.BLUE), TileDecks.shuffled(seed), textMaker)
+                .withStartingTilePlaced();
+    }
+
+    // Joue une action simple et déterministe : première position valide, premier occupant possible un tour sur deux
+    static ActionEncoder.StateAction nextStateAction(GameState state, int turn) {
+        return switch (state.nextAction()) {
+            case PLACE_TILE -> {
+                var placements = placements(state);
+                if (placements.isEmpty()) throw new Error("no placement for drawn tile");
+                yield ActionEncoder.withPlacedTile(state, placements.getFirst());
+            }
+            case OCCUPY_TILE -> {
+                var occupant = turn % 2 == 0 ? occupants(state).stream().findFirst().orElse(null) : null;
+                yield ActionEncoder.withNewOccupant(state, occupant);
+            }
+            case RETAKE_PAWN -> ActionEncoder.withOccupantRemoved(state, null);
+            default -> throw new Error("game is over");
+        };
+    }
+
+    // joue au plus le nombre donné d'actions déterministes depuis l'état donné
+    static List<ActionEncoder.StateAction> play(GameState state, int maxActions) {
+        var stateActions = new ArrayList<ActionEncoder.StateAction>();
+        for (int i = 0; i < maxActions && state.nextAction() != GameState.Action.END_GAME; i += 1) {
+            var stateAction = nextStateAction(state, i);
+            stateActions.add(stateAction);
+            state = stateAction.gameState();
+        }
+        return stateActions;
+    }
+
+    // joue la partie jusqu'à sa fin depuis l'état donné, chaque pose étant tirée au hasard parmi les poses valides et
+    // chaque occupation parmi les occupants possibles, sauf une fois sur trois où aucun occupant n'est posé ; les
+    // choix ne dépendent que de l'ordre des positions et des occupants, et non de l'implémentation du plateau
+    static List<ActionEncoder.StateAction> playRandomly(GameState state, RandomGenerator random) {
+        var stateActions = new ArrayList<ActionEncoder.StateAction>();
+        while (state.nextAction() != GameState.Action.END_GAME) {
+            var stateAction = switch (state.nextAction()) {
+                case PLACE_TILE -> {
+                    var placements = placements(state);
+                    yield ActionEncoder.withPlacedTile(state, placements.get(random.nextInt(placements.size())));
+                }
+                case OCCUPY_TILE -> {
+                    var occupants = occupants(state);
+                    var occupant = occupants.isEmpty() || random.nextInt(3) == 0
+                            ? null
+                            : occupants.get(random.nextInt(occupants.size()));
+                    yield ActionEncoder.withNewOccupant(state, occupant);
+                }
+                case RETAKE_PAWN -> ActionEncoder.withOccupantRemoved(state, null);
+                default -> throw new Error("game is over");
+            };
+            stateActions.add(stateAction);
+            state = stateAction.gameState();
+        }
+        return stateActions;
+    }
+
+    // poses valides de la tuile à placer, par position (triées par x puis y) puis par rotation
+    private static List<PlacedTile> placements(GameState state) {
+        var positions = state.board().insertionPositions().stream()
+                .sorted(Comparator.comparingInt(Pos::x).thenComparingInt(Pos::y))
+                .toList();
+        var placements = new ArrayList<PlacedTile>();
+        for (var pos : positions) {
+            for (var rotation : Rotation.ALL) {
+                var tile = new PlacedTile(state.tileToPlace(), state.currentPlayer(), rotation, pos);
+                if (state.board().canAddTile(tile)) placements.add(tile);
+            }
+        }
+        return placements;
+    }
+
+    // occupants possibles de la dernière tuile posée, triés par zone puis par sorte
+    private static List<Occupant> occupants(GameState state) {
+        return state.lastTilePotentialOccupants().stream()
+                .sorted(Comparator.comparingInt(Occupant::zoneId).thenComparing(Occupant::kind))
+                .toList();
+    }
+}
@@ -224,4 +224,28 @@ class TextMakerFrTests {
         String expectedMessage = "Cliquez sur le pion que vous désirez reprendre, ou ici pour ne pas en reprendre.";
         assertEquals(expectedMessage, actualMessage);
     }
-}
\ No newline at end of file
+
+    @Test
+    void animalMessagesOmitTigers() {
+        TextMakerFr textMakerFr = new TextMakerFr(players());
+        TreeMap<Animal.Kind, Integer> animals = new TreeMap<>();
+        animals.put(DEER, 2);
+        animals.put(TIGER, 1);
+        String expectedMeadow = "Claude et Alice ont remporté 2 points en tant qu'occupant·e·s majoritaires d'un pré contenant 2 cerfs.";
+        assertEquals(expectedMeadow, textMakerFr.playersScoredMeadow(Set.of(YELLOW, BLUE), 2, animals));
+        String expectedPitTrap = "Bachir a remporté 2 points en tant qu'occupant·e majoritaire d'un pré contenant la grande fosse à pieux entourée de 2 cerfs.";
+        assertEquals(expectedPitTrap, textMakerFr.playersScoredPitTrap(Set.of(GREEN), 2, animals));
+        animals.put(MAMMOTH, 1);
+        String expectedHuntingTrap = "Dalia a remporté 5 points en plaçant la fosse à pieux dans un pré dans lequel elle est entourée de 1 mammouth et 2 cerfs.";
+        assertEquals(expectedHuntingTrap, textMakerFr.playerScoredHuntingTrap(RED, 5, animals));
+    }
+
+    @Test
+    void scorerNamesDoNotDependOnSetOrder() {
+        TextMakerFr textMakerFr = new TextMakerFr(players());
+        Set<PlayerColor> scorers = new LinkedHashSet<>(List.of(GREEN, RED, YELLOW, BLUE));
+        String expected = "Dalia, Claude, Bachir et Alice ont remporté la partie avec 3 points !";
+        assertEquals(expected, textMakerFr.playersWon(scorers, 3));
+        assertEquals(expected, textMakerFr.playersWon(EnumSet.copyOf(scorers), 3));
+    }
+}
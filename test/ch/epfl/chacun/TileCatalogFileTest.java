@@ -0,0 +1,78 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TileCatalogFileTest {
+
+    @Test
+    void tileCatalogFileRoundTripProducesEqualTiles() throws IOException {
+        Path file = Files.createTempFile("tiles", ".bin");
+        try {
+            TileCatalogFile.write(Tiles.TILES, file);
+            List<Tile> tiles = TileCatalogFile.read(file);
+            assertEquals(Tiles.TILES, tiles);
+            for (int i = 0; i < tiles.size(); i++) {
+                assertEquals(Tiles.TILES.get(i).zones(), tiles.get(i).zones());
+                assertEquals(Tiles.TILES.get(i).potentialOccupants(), tiles.get(i).potentialOccupants());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void tileCatalogFileSharesZonesBetweenSides() {
+        List<Tile> tiles = TileCatalogFile.decode(ByteBuffer.wrap(TileCatalogFile.encode(Tiles.TILES)));
+        // la tuile 0 a une prairie bordant ses côtés nord et est
+        Tile tile = tiles.getFirst();
+        TileSide.River north = (TileSide.River) tile.n();
+        TileSide.Meadow east = (TileSide.Meadow) tile.e();
+        assertSame(north.meadow2(), east.meadow());
+        assertSame(north.river().lake(), tile.zoneWithLocalId(8));
+    }
+
+    @Test
+    void tileCatalogFileDecodeThrowsOnInvalidContent() {
+        byte[] bytes = TileCatalogFile.encode(Tiles.TILES);
+        assertThrows(IllegalArgumentException.class,
+                () -> TileCatalogFile.decode(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 1))));
+        assertThrows(IllegalArgumentException.class,
+                () -> TileCatalogFile.decode(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length + 1))));
+        for (int i = 0; i < 10; i++) {
+            byte[] corrupted = bytes.clone();
+            corrupted[i] ^= 0x40;
+            assertThrows(IllegalArgumentException.class, () -> TileCatalogFile.decode(ByteBuffer.wrap(corrupted)));
+        }
+        // la tuile 0 est suivie de la sorte de la tuile, puis du nombre de ses zones
+        byte[] badKind = bytes.clone();
+        badKind[14] = 3;
+        assertThrows(IllegalArgumentException.class, () -> TileCatalogFile.decode(ByteBuffer.wrap(badKind)));
+        byte[] badZoneCount = bytes.clone();
+        badZoneCount[15] = 11;
+        assertThrows(IllegalArgumentException.class, () -> TileCatalogFile.decode(ByteBuffer.wrap(badZoneCount)));
+    }
+
+    @Test
+    void tileCatalogFileEncodeThrowsOnMisnumberedTiles() {
+        assertThrows(IllegalArgumentException.class, () -> TileCatalogFile.encode(Tiles.TILES.subList(1, 3)));
+        Tile tile = Tiles.TILES.getFirst();
+        Tile renumbered = new Tile(1, tile.kind(), tile.n(), tile.e(), tile.s(), tile.w());
+        assertThrows(IllegalArgumentException.class,
+                () -> TileCatalogFile.encode(List.of(Tiles.TILES.getFirst(), renumbered)));
+    }
+
+    @Test
+    void tileDecksAcceptLoadedCatalog() {
+        List<Tile> tiles = TileCatalogFile.decode(ByteBuffer.wrap(TileCatalogFile.encode(Tiles.TILES)));
+        assertEquals(TileDecks.shuffled(2024), TileDecks.shuffled(tiles, 2024));
+    }
+}
@@ -192,6 +192,71 @@ class TileDecksTest {
                 decks.withTopTileDrawnUntil(Tile.Kind.MENHIR, falsePredicate).menhirTiles());
     }
 
+    @Test
+    void tileDecksSuccessiveDrawsKeepEarlierVersionsIntact() {
+        var dN = new ArrayList<Tile>();
+        for (int i = 0; i < 10; i += 1) dN.add(getTile(i, Tile.Kind.NORMAL));
+        var versions = new ArrayList<TileDecks>();
+        var decks = new TileDecks(List.of(), dN, List.of());
+        for (int i = 0; i <= dN.size(); i += 1) {
+            versions.add(decks);
+            if (i < dN.size()) decks = decks.withTopTileDrawn(Tile.Kind.NORMAL);
+        }
+
+        for (int i = 0; i <= dN.size(); i += 1) {
+            var normalTiles = versions.get(i).normalTiles();
+            assertEquals(dN.subList(i, dN.size()), normalTiles);
+            assertEquals(dN.subList(i, dN.size()).hashCode(), normalTiles.hashCode());
+            assertEquals(dN.size() - i, versions.get(i).deckSize(Tile.Kind.NORMAL));
+            assertEquals(i < dN.size() ? dN.get(i) : null, versions.get(i).topTile(Tile.Kind.NORMAL));
+            assertThrows(IndexOutOfBoundsException.class, () -> normalTiles.get(normalTiles.size()));
+            assertThrows(UnsupportedOperationException.class, () -> normalTiles.add(getTile(Tile.Kind.NORMAL)));
+        }
+        assertEquals(versions.get(4), new TileDecks(List.of(), dN.subList(4, dN.size()), List.of()));
+        assertEquals(versions.get(7),
+                versions.getFirst().withTopTileDrawnUntil(Tile.Kind.NORMAL, tile -> tile.id() == 7));
+    }
+
+    @Test
+    void tileDecksCompositionMatchesRemainingTiles() {
+        var decks = TileDecks.shuffled(2024);
+        var board = Board.EMPTY.withNewTile(
+                new PlacedTile(decks.topTile(Tile.Kind.START), null, Rotation.NONE, Pos.ORIGIN));
+        while (decks.deckSize(Tile.Kind.NORMAL) > 0) {
+            var composition = decks.composition(Tile.Kind.NORMAL);
+            var remaining = decks.normalTiles();
+            assertEquals(remaining.size(), composition.size());
+            for (var power : Zone.SpecialPower.values()) {
+                assertEquals(remaining.stream().filter(t -> t.zones().stream()
+                        .anyMatch(z -> z.specialPower() == power)).count(), composition.count(power));
+            }
+            for (var kind : Zone.Forest.Kind.values()) {
+                assertEquals(remaining.stream().filter(t -> t.zones().stream()
+                        .anyMatch(z -> z instanceof Zone.Forest f && f.kind() == kind)).count(), composition.count(kind));
+            }
+            for (var kind : Animal.Kind.values()) {
+                assertEquals(remaining.stream().filter(t -> t.zones().stream()
+                        .anyMatch(z -> z instanceof Zone.Meadow m && m.animals().stream()
+                                .anyMatch(a -> a.kind() == kind))).count(), composition.count(kind));
+            }
+            assertEquals(remaining.stream().filter(t -> t.zones().stream()
+                    .anyMatch(z -> z instanceof Zone.Lake)).count(), composition.lakeCount());
+            for (var pos : board.insertionPositions()) {
+                var fitting = remaining.stream().filter(t -> Rotation.ALL.stream()
+                        .anyMatch(r -> board.canAddTile(new PlacedTile(t, null, r, pos)))).count();
+                assertEquals(fitting, composition.countFitting(board, pos));
+                assertEquals((double) fitting / remaining.size(), composition.fittingProbability(board, pos), 1e-9);
+            }
+            decks = decks.withTopTileDrawn(Tile.Kind.NORMAL);
+        }
+        assertEquals(0, decks.composition(Tile.Kind.NORMAL).size());
+        assertEquals(0, decks.composition(Tile.Kind.NORMAL).fittingProbability(board, new Pos(1, 0)));
+        var finalBoard = board;
+        var composition = decks.composition(Tile.Kind.NORMAL);
+        assertThrows(IllegalArgumentException.class, () -> composition.countFitting(finalBoard, Pos.ORIGIN));
+        assertThrows(IllegalArgumentException.class, () -> composition.countFitting(finalBoard, new Pos(5, 5)));
+    }
+
     record ConstantPredicate(boolean b) implements Predicate<Tile> {
         @Override
         public boolean test(Tile tile) {
@@ -0,0 +1,60 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TileIdSetTest {
+
+    @Test
+    void tileIdSetBehavesLikeEqualHashSet() {
+        var ids = List.of(94, 0, 63, 64, 17, 93, 56);
+        var expected = new HashSet<>(ids);
+        var set = TileIdSet.copyOf(ids);
+        assertEquals(expected, set);
+        assertEquals(set, expected);
+        assertEquals(expected.hashCode(), set.hashCode());
+        assertEquals(ids.size(), set.size());
+        assertEquals(List.of(0, 17, 56, 63, 64, 93, 94), new ArrayList<>(set));
+        for (int id = -1; id < 200; id++) {
+            assertEquals(expected.contains(id), set.contains(id));
+            assertEquals(expected.contains(id), set.contains((Object) id));
+        }
+        assertFalse(set.contains("17"));
+    }
+
+    @Test
+    void tileIdSetEqualityDoesNotDependOnConstruction() {
+        assertEquals(TileIdSet.of(3, 1, 2), TileIdSet.copyOf(Set.of(1, 2, 3)));
+        assertEquals(TileIdSet.EMPTY, TileIdSet.of());
+        assertEquals(TileIdSet.EMPTY, Set.of());
+        assertTrue(TileIdSet.EMPTY.isEmpty());
+        assertFalse(TileIdSet.EMPTY.iterator().hasNext());
+        assertEquals(TileIdSet.of(700), new TileIdSet.Builder().add(700).build());
+        assertNotEquals(TileIdSet.of(1), TileIdSet.of(1, 700));
+    }
+
+    @Test
+    void tileIdSetIsImmutableAndRejectsNegativeIds() {
+        var set = TileIdSet.of(1, 2);
+        assertThrows(UnsupportedOperationException.class, () -> set.add(3));
+        assertThrows(UnsupportedOperationException.class, set::clear);
+        assertThrows(IllegalArgumentException.class, () -> TileIdSet.of(-1));
+        var iterator = set.iterator();
+        iterator.next();
+        iterator.next();
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void areaTileIdsAreTileIdSets() {
+        var forest1 = new Zone.Forest(560, Zone.Forest.Kind.PLAIN);
+        var forest2 = new Zone.Forest(5, Zone.Forest.Kind.PLAIN);
+        var area = new Area<>(Set.of(forest1, forest2), List.of(), 0);
+        assertEquals(TileIdSet.of(0, 56), area.tileIds());
+        var message = new MessageBoard.Message("", 0, Set.of(), Set.of(0, 56));
+        assertEquals(area.tileIds(), message.tileIds());
+    }
+}
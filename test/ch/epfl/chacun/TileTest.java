@@ -5,7 +5,7 @@ import org.junit.jupiter.api.Test;
 import java.util.List;
 import java.util.Set;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class TileTest {
     @Test
@@ -63,4 +63,70 @@ class TileTest {
 
         assertEquals(Set.of(z0, z1, z2, z3, z4, z5, l0), tile.zones());
     }
-}
\ No newline at end of file
+
+    @Test
+    void tileZoneTableAndTypedViewsWork() {
+        var l0 = new Zone.Lake(4_8, 1, Zone.SpecialPower.RAFT);
+        var z0 = new Zone.Meadow(4_0, List.of(), null);
+        var z1 = new Zone.River(4_1, 0, l0);
+        var z2 = new Zone.Meadow(4_2, List.of(new Animal(4_2_0, Animal.Kind.DEER)), null);
+        var z3 = new Zone.Forest(4_3, Zone.Forest.Kind.PLAIN);
+        var z4 = new Zone.Meadow(4_4, List.of(), null);
+        var z5 = new Zone.River(4_5, 0, null);
+        var tile = new Tile(4, Tile.Kind.NORMAL, new TileSide.River(z0, z1, z2), new TileSide.Forest(z3),
+                new TileSide.River(z4, z5, z0), new TileSide.Meadow(z0));
+
+        assertEquals(z1, tile.zoneWithLocalId(1));
+        assertEquals(l0, tile.zoneWithLocalId(8));
+        assertNull(tile.zoneWithLocalId(6));
+        assertNull(tile.zoneWithLocalId(-1));
+        assertNull(tile.zoneWithLocalId(10));
+        assertEquals(Set.of(z3), tile.forestZones());
+        assertEquals(Set.of(z0, z2, z4), tile.meadowZones());
+        assertEquals(Set.of(z1, z5), tile.riverZones());
+        assertEquals(Set.of(l0), tile.lakeZones());
+        assertEquals(l0, tile.specialPowerZone());
+        assertTrue(tile.zones().contains(l0));
+        assertFalse(tile.sideZones().contains(l0));
+        assertFalse(tile.zones().contains(new Zone.Forest(4_0, Zone.Forest.Kind.PLAIN)));
+        assertThrows(UnsupportedOperationException.class, () -> tile.zones().add(z3));
+        assertThrows(UnsupportedOperationException.class, () -> tile.meadowZones().remove(z0));
+
+        var copy = new Tile(4, Tile.Kind.NORMAL, tile.n(), tile.e(), tile.s(), tile.w());
+        assertEquals(tile, copy);
+        assertEquals(tile.hashCode(), copy.hashCode());
+    }
+
+    @Test
+    void tileConstructorThrowsOnConflictingLocalIds() {
+        var z0 = new Zone.Meadow(4_0, List.of(), null);
+        var f0 = new Zone.Forest(4_0, Zone.Forest.Kind.PLAIN);
+        assertThrows(IllegalArgumentException.class, () -> new Tile(4, Tile.Kind.NORMAL,
+                new TileSide.Meadow(z0), new TileSide.Forest(f0), new TileSide.Meadow(z0), new TileSide.Meadow(z0)));
+    }
+
+    @Test
+    void tilePrecomputedTablesMatchSidesAndZones() {
+        for (Tile tile : Tiles.TILES) {
+            for (Rotation rotation : Rotation.ALL) {
+                var placed = new PlacedTile(tile, PlayerColor.RED, rotation, Pos.ORIGIN);
+                for (Direction direction : Direction.ALL) {
+                    var side = tile.sides().get(direction.rotated(rotation.negated()).ordinal());
+                    assertEquals(side, placed.side(direction));
+                    for (Tile other : Tiles.TILES) {
+                        var neighbor = new PlacedTile(other, null, Rotation.LEFT, Pos.ORIGIN.neighbor(direction));
+                        assertEquals(side.isSameKindAs(neighbor.side(direction.opposite())),
+                                placed.sideMatches(direction, neighbor));
+                    }
+                }
+                for (int zoneId = -1; zoneId < 1000; zoneId++) {
+                    var id = zoneId;
+                    var expected = tile.zones().stream().filter(z -> z.id() == id).findFirst().orElse(null);
+                    assertEquals(expected, placed.zoneWithIdOrNull(zoneId));
+                }
+            }
+            assertEquals(tile.zones().stream().filter(z -> z.specialPower() != null).findFirst().orElse(null),
+                    new PlacedTile(tile, null, Rotation.NONE, Pos.ORIGIN).specialPowerZone());
+        }
+    }
+}